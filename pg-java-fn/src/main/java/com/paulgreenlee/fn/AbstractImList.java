@@ -0,0 +1,445 @@
+package com.paulgreenlee.fn;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Shared implementation of {@link java.util.List} for the immutable lists in
+ * this package. Subclasses provide {@link #size()} and {@link #stream()}, and
+ * override the other methods where their storage allows something faster than
+ * streaming. All of the mutating methods throw
+ * {@link UnsupportedOperationException}.
+ * 
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ */
+abstract class AbstractImList<E> implements ImList<E>, List<E> {
+
+  /**
+   * After this many calls to {@code contains}, {@code indexOf} or
+   * {@code lastIndexOf}, a list builds an index of the positions of its
+   * elements, so that later lookups take constant time.
+   */
+  static final int INDEX_THRESHOLD = 8;
+
+  /**
+   * Lists shorter than this are always searched, since a scan of a few
+   * elements is as quick as a hash lookup.
+   */
+  static final int MIN_INDEXED_SIZE = 16;
+
+  private int hash;
+  private boolean hashIsZero;
+  private int lookups;
+  private volatile Positions positions;
+
+  @Override
+  public abstract Stream<E> stream();
+
+  /**
+   * How many lazy lists this list's stream passes through before it reaches
+   * stored elements. Lists that hold their elements directly have depth zero.
+   * 
+   * @return the length of the chain of lazy lists under this one
+   */
+  int depth() {
+    return 0;
+  }
+
+  /**
+   * Can any element be read by index in a bounded number of steps? Lists that
+   * implement {@link RandomAccess} can, and so can lists that are only
+   * indexable when the lists they are built from are.
+   * 
+   * @return true if {@code get} does not walk the elements before the index
+   */
+  boolean randomAccess() {
+    return this instanceof RandomAccess;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * The spliterator of {@link #stream()}, rather than the iterator-based
+   * default of {@link java.util.Collection}, so that {@code parallelStream}
+   * splits the same way as {@code stream().parallel()}.
+   */
+  @Override
+  public Spliterator<E> spliterator() {
+    return stream().spliterator();
+  }
+
+  /**
+   * Equal to any {@link ImList} or {@link List} with equal elements in the same
+   * order. Lists whose hash codes have both been computed are compared by hash
+   * before their elements.
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (other == this)
+      return true;
+    if (!(other instanceof ImList) && !(other instanceof List))
+      return false;
+    int otherSize = other instanceof ImList
+      ? ((ImList<?>) other).size()
+      : ((List<?>) other).size();
+    if (size() != otherSize)
+      return false;
+    if (other instanceof AbstractImList) {
+      AbstractImList<?> oList = (AbstractImList<?>) other;
+      if (hashKnown() && oList.hashKnown() && hash != oList.hash)
+        return false;
+    }
+    Iterator<?> oIter = other instanceof List
+      ? ((List<?>) other).iterator()
+      : ((ImList<?>) other).stream().iterator();
+    for (Iterator<E> iter = iterator(); iter.hasNext();) {
+      if (!oIter.hasNext() || !Objects.equals(iter.next(), oIter.next()))
+        return false;
+    }
+    return !oIter.hasNext();
+  }
+
+  /**
+   * The hash code defined by {@link List#hashCode()}, computed the first time
+   * it is needed. Several threads may compute it at once, but they all store
+   * the same value.
+   */
+  @Override
+  public int hashCode() {
+    int h = hash;
+    if (h == 0 && !hashIsZero) {
+      h = 1;
+      for (E elem : this) {
+        h = 31 * h + Objects.hashCode(elem);
+      }
+      if (h == 0) {
+        hashIsZero = true;
+      } else {
+        hash = h;
+      }
+    }
+    return h;
+  }
+
+  private boolean hashKnown() {
+    return hash != 0 || hashIsZero;
+  }
+
+  // The following are simple implementations for the java.util.List interface for
+  // easier interoperability with other code.
+
+  @Override
+  public boolean contains(Object o) {
+    return indexOf(o) >= 0;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return stream().iterator();
+  }
+
+  @Override
+  public Object[] toArray() {
+    return stream().toArray();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T[] toArray(final T[] a) {
+    return stream()
+      .toArray(size -> (T[]) Arrays.copyOf(a, size, a.getClass()));
+  }
+
+  @Override
+  public E get(int index) {
+    if (index < 0 || index >= size()) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return stream().skip(index).findFirst().orElseThrow();
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    Positions positions = positions();
+    return positions == null ? scanIndexOf(o) : positions.first(o);
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    Positions positions = positions();
+    return positions == null ? scanLastIndexOf(o) : positions.last(o);
+  }
+
+  /**
+   * Find the first position of an element without the index.
+   */
+  int scanIndexOf(Object o) {
+    int i = 0;
+    for (Iterator<E> iter = iterator(); iter.hasNext(); i++) {
+      if (Objects.equals(iter.next(), o))
+        return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Find the last position of an element without the index.
+   */
+  int scanLastIndexOf(Object o) {
+    int found = -1;
+    int i = 0;
+    for (Iterator<E> iter = iterator(); iter.hasNext(); i++) {
+      if (Objects.equals(iter.next(), o))
+        found = i;
+    }
+    return found;
+  }
+
+  /**
+   * Can this list keep an index of its elements on the heap? Lists that hold
+   * their elements elsewhere should not.
+   */
+  boolean indexable() {
+    return true;
+  }
+
+  /**
+   * The index of element positions, if this list has been searched often
+   * enough to need one. Building it races harmlessly: every thread builds the
+   * same index.
+   */
+  private Positions positions() {
+    Positions positions = this.positions;
+    if (positions == null && lookups < INDEX_THRESHOLD) {
+      lookups++;
+    } else if (positions == null && size() >= MIN_INDEXED_SIZE
+      && indexable()) {
+      positions = new Positions(this);
+      this.positions = positions;
+    }
+    return positions;
+  }
+
+  /**
+   * The first and last position of each distinct element.
+   */
+  private static final class Positions {
+    private final Map<Object, int[]> firstAndLast;
+
+    Positions(AbstractImList<?> list) {
+      firstAndLast = new HashMap<>();
+      int i = 0;
+      for (Object elem : list) {
+        int[] found = firstAndLast.get(elem);
+        if (found == null) {
+          firstAndLast.put(elem, new int[] { i, i });
+        } else {
+          found[1] = i;
+        }
+        i++;
+      }
+    }
+
+    int first(Object o) {
+      int[] found = firstAndLast.get(o);
+      return found == null ? -1 : found[0];
+    }
+
+    int last(Object o) {
+      int[] found = firstAndLast.get(o);
+      return found == null ? -1 : found[1];
+    }
+  }
+
+  /**
+   * Random access lists stream backwards by index, and split like their
+   * forward stream.
+   */
+  @Override
+  public Stream<E> reverseStream() {
+    if (randomAccess()) {
+      int last = size() - 1;
+      return StreamSupport
+        .stream(ImSpliterators.indexed(i -> get(last - i), size()), false);
+    }
+    return ImList.super.reverseStream();
+  }
+
+  /**
+   * Walks back from the end of {@link #listIterator(int)}, so random access
+   * lists are read by index and others keep only the elements they hold.
+   */
+  @Override
+  public Iterator<E> descendingIterator() {
+    return ImListIterators.descending(listIterator(size()));
+  }
+
+  @Override
+  public ListIterator<E> listIterator() {
+    return listIterator(0);
+  }
+
+  /**
+   * A read-only list iterator that does not copy the list. Random access lists
+   * are read by index. Other lists are read through their iterator, keeping
+   * only the elements already passed so that the list iterator can go back.
+   */
+  @Override
+  public ListIterator<E> listIterator(int index) {
+    if (randomAccess()) {
+      return ImListIterators.indexed(this::get, size(), index);
+    }
+    return ImListIterators.buffering(iterator(), size(), index);
+  }
+
+  /**
+   * A view of part of this list, which shares this list's storage and takes
+   * constant time to create.
+   */
+  @Override
+  public List<E> subList(int fromIndex, int toIndex) {
+    checkRange(fromIndex, toIndex, size());
+    return slice(fromIndex, toIndex);
+  }
+
+  static void checkRange(int fromIndex, int toIndex, int size) {
+    if (fromIndex < 0 || toIndex > size)
+      throw new IndexOutOfBoundsException(
+        "range [" + fromIndex + ", " + toIndex
+          + ") is invalid for list of size " + size
+      );
+    if (fromIndex > toIndex)
+      throw new IllegalArgumentException(
+        "fromIndex is greater than toIndex for range [" + fromIndex
+          + ", " + toIndex + ")"
+      );
+  }
+
+  /**
+   * The elements from {@code from}, inclusive, to {@code to}, exclusive, in a
+   * list that shares this list's storage. Random access lists give a
+   * {@link SliceImList}; others give a lazy list. The range must already have
+   * been checked.
+   */
+  AbstractImList<E> slice(int from, int to) {
+    if (from == 0 && to == size()) {
+      return this;
+    }
+    if (randomAccess() && from < to) {
+      return new SliceImList<>(this, from, to);
+    }
+    return lazySlice(this, from, to);
+  }
+
+  static <E> AbstractImList<E> lazySlice(ImList<E> list, int from, int to) {
+    return ImListImpl.derived(
+      () -> list.stream().skip(from).limit(to - from),
+      to - from,
+      list
+    );
+  }
+
+  /**
+   * A spliterator over part of this list, for {@link SliceImList}. Lists that
+   * can walk a range faster than by calling {@code get} for each index should
+   * override this.
+   */
+  Spliterator<E> spliterator(int from, int to) {
+    return ImSpliterators.indexed(i -> get(from + i), to - from);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    for (Object o : c) {
+      if (!contains(o))
+        return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean add(E e) {
+    throw new UnsupportedOperationException(
+      "add not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException(
+      "remove not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> c) {
+    throw new UnsupportedOperationException(
+      "addAll not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends E> c) {
+    throw new UnsupportedOperationException(
+      "addAll not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException(
+      "removeAll not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException(
+      "retainAll not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException(
+      "clear not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public E set(int index, E element) {
+    throw new UnsupportedOperationException(
+      "set not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public void add(int index, E element) {
+    throw new UnsupportedOperationException(
+      "add not allowed on an immutable list"
+    );
+  }
+
+  @Override
+  public E remove(int index) {
+    throw new UnsupportedOperationException(
+      "remove not allowed on an immutable list"
+    );
+  }
+
+}
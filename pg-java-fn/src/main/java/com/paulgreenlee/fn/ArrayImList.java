@@ -0,0 +1,149 @@
+package com.paulgreenlee.fn;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An {@link ImList} backed by an exactly-sized array. Unlike the lazy
+ * {@link ImListImpl}, the elements are held directly, so {@code get},
+ * {@code size}, {@code iterator} and {@code toArray} do not need to build a
+ * stream pipeline.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ */
+final class ArrayImList<E> extends ImListImpl<E> implements RandomAccess {
+
+  private final Object[] elements;
+
+  private ArrayImList(Object[] elements) {
+    super(streamOf(elements), elements.length);
+    this.elements = elements;
+  }
+
+  /**
+   * Create a list from a copy of an array. Later changes to the array are not
+   * seen by the list.
+   *
+   * @param <E>      the type of the elements
+   * @param elements the elements for the list
+   * @return a list containing the elements, in the same order
+   */
+  static <E> ArrayImList<E> copyOf(E[] elements) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    return new ArrayImList<>(
+      Arrays.copyOf(elements, elements.length, Object[].class)
+    );
+  }
+
+  /**
+   * Create a list that takes ownership of an array. The caller must not keep or
+   * hand out any other reference to the array.
+   *
+   * @param <E>      the type of the elements
+   * @param elements an array that will not be modified again
+   * @return a list backed by the array
+   */
+  static <E> ArrayImList<E> wrap(Object[] elements) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    return new ArrayImList<>(elements);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E> Supplier<Stream<E>> streamOf(Object[] elements) {
+    return () -> (Stream<E>) Arrays.stream(elements);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Stream<E> stream() {
+    return (Stream<E>) Arrays.stream(elements);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Spliterator<E> spliterator() {
+    return (Spliterator<E>) Arrays.spliterator(elements);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  Spliterator<E> spliterator(int from, int to) {
+    return (Spliterator<E>) Arrays.spliterator(elements, from, to);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    if (index < 0 || index >= elements.length) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return (E) elements[index];
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Itr();
+  }
+
+  @Override
+  public Object[] toArray() {
+    return Arrays.copyOf(elements, elements.length);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T[] toArray(T[] a) {
+    if (a.length < elements.length) {
+      return (T[]) Arrays.copyOf(elements, elements.length, a.getClass());
+    }
+    System.arraycopy(elements, 0, a, 0, elements.length);
+    if (a.length > elements.length) {
+      a[elements.length] = null;
+    }
+    return a;
+  }
+
+  @Override
+  int scanIndexOf(Object o) {
+    for (int i = 0; i < elements.length; i++) {
+      if (Objects.equals(elements[i], o))
+        return i;
+    }
+    return -1;
+  }
+
+  @Override
+  int scanLastIndexOf(Object o) {
+    for (int i = elements.length - 1; i >= 0; i--) {
+      if (Objects.equals(elements[i], o))
+        return i;
+    }
+    return -1;
+  }
+
+  private final class Itr implements Iterator<E> {
+    private int next;
+
+    @Override
+    public boolean hasNext() {
+      return next < elements.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+      if (next >= elements.length)
+        throw new NoSuchElementException();
+      return (E) elements[next++];
+    }
+  }
+
+}
@@ -0,0 +1,243 @@
+package com.paulgreenlee.fn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A long run of bytes split across several buffers, because one
+ * {@link ByteBuffer} cannot hold more than 2 GiB. Every buffer but the last
+ * holds exactly {@code 1 << shift} bytes, so finding the buffer for an offset
+ * is a shift and a mask. Values may straddle two buffers; reading one of those
+ * copies it onto the heap.
+ *
+ * @author Paul Greenlee
+ */
+final class ByteSegments {
+
+  private final ByteBuffer[] segments;
+  private final int shift;
+  private final long length;
+
+  ByteSegments(ByteBuffer[] segments, int shift, long length) {
+    this.segments = segments;
+    this.shift = shift;
+    this.length = length;
+  }
+
+  long length() {
+    return length;
+  }
+
+  /**
+   * Map part of a file as read-only segments. Mapping does not read the file;
+   * pages are loaded by the operating system as they are touched, and are
+   * shared with any other process that maps the same file.
+   */
+  static ByteSegments map(
+    FileChannel channel,
+    long start,
+    long length,
+    int shift
+  ) throws IOException {
+    long segmentSize = 1L << shift;
+    int count = (int) Math.max(1, (length + segmentSize - 1) >>> shift);
+    ByteBuffer[] segments = new ByteBuffer[count];
+    for (int i = 0; i < count; i++) {
+      long offset = i * segmentSize;
+      segments[i] = channel.map(
+        FileChannel.MapMode.READ_ONLY,
+        start + offset,
+        Math.min(segmentSize, length - offset)
+      );
+    }
+    return new ByteSegments(segments, shift, length);
+  }
+
+  /**
+   * Write all of the bytes to a channel, in order.
+   */
+  void writeTo(WritableByteChannel channel) throws IOException {
+    long remaining = length;
+    for (ByteBuffer segment : segments) {
+      ByteBuffer part = segment.duplicate();
+      part.clear();
+      part.limit((int) Math.min(part.capacity(), remaining));
+      remaining -= part.remaining();
+      while (part.hasRemaining()) {
+        channel.write(part);
+      }
+    }
+  }
+
+  /**
+   * A buffer positioned at {@code offset}, with {@code size} bytes remaining.
+   * The buffer is not shared, so the caller may move its position.
+   */
+  ByteBuffer slice(long offset, int size) {
+    int segment = (int) (offset >>> shift);
+    int position = (int) (offset & ((1L << shift) - 1));
+    ByteBuffer buffer = segments[segment];
+    if (position + size <= buffer.capacity()) {
+      ByteBuffer slice = buffer.duplicate();
+      slice.limit(position + size);
+      slice.position(position);
+      return slice;
+    }
+    ByteBuffer copy = ByteBuffer.allocate(size);
+    while (copy.hasRemaining()) {
+      ByteBuffer part = segments[segment++].duplicate();
+      part.position(position);
+      part.limit(Math.min(part.capacity(), position + copy.remaining()));
+      copy.put(part);
+      position = 0;
+    }
+    copy.flip();
+    return copy;
+  }
+
+  /**
+   * Read a long. Longs written at offsets that are a multiple of eight never
+   * straddle two buffers.
+   */
+  long getLong(long offset) {
+    ByteBuffer buffer = segments[(int) (offset >>> shift)];
+    return buffer.getLong((int) (offset & ((1L << shift) - 1)));
+  }
+
+  /**
+   * Somewhere to write a run of bytes.
+   */
+  interface Sink {
+    /**
+     * The number of bytes written so far.
+     */
+    long position();
+
+    /**
+     * Write all of the remaining bytes of {@code source}.
+     */
+    void put(ByteBuffer source);
+  }
+
+  /**
+   * Writes bytes to a channel through a buffer. Failures to write are thrown as
+   * {@link UncheckedIOException}.
+   */
+  static final class ChannelSink implements Sink {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+    private long position;
+
+    ChannelSink(WritableByteChannel channel) {
+      this.channel = channel;
+    }
+
+    @Override
+    public long position() {
+      return position;
+    }
+
+    @Override
+    public void put(ByteBuffer source) {
+      position += source.remaining();
+      while (source.hasRemaining()) {
+        if (!buffer.hasRemaining()) {
+          flush();
+        }
+        int count = Math.min(source.remaining(), buffer.remaining());
+        ByteBuffer part = source.duplicate();
+        part.limit(part.position() + count);
+        buffer.put(part);
+        source.position(source.position() + count);
+      }
+    }
+
+    void flush() {
+      buffer.flip();
+      try {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Appends bytes to a growing set of direct buffers. The current buffer starts
+   * small and doubles until it reaches the segment size, so short runs do not
+   * reserve a whole segment.
+   */
+  static final class Writer implements Sink {
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private final int shift;
+    private final List<ByteBuffer> full = new ArrayList<>();
+    private ByteBuffer current;
+
+    Writer(int shift) {
+      this.shift = shift;
+      this.current = ByteBuffer
+        .allocateDirect(Math.min(INITIAL_CAPACITY, 1 << shift));
+    }
+
+    @Override
+    public long position() {
+      return ((long) full.size() << shift) + current.position();
+    }
+
+    @Override
+    public void put(ByteBuffer source) {
+      while (source.hasRemaining()) {
+        if (!current.hasRemaining()) {
+          grow();
+        }
+        int count = Math.min(source.remaining(), current.remaining());
+        ByteBuffer part = source.duplicate();
+        part.limit(part.position() + count);
+        current.put(part);
+        source.position(source.position() + count);
+      }
+    }
+
+    void putLong(long value) {
+      if (current.remaining() < Long.BYTES) {
+        grow();
+      }
+      current.putLong(value);
+    }
+
+    private void grow() {
+      int capacity = current.capacity();
+      if (capacity < 1 << shift) {
+        ByteBuffer bigger = ByteBuffer
+          .allocateDirect(Math.min(capacity * 2, 1 << shift));
+        current.flip();
+        bigger.put(current);
+        current = bigger;
+      } else {
+        full.add(current);
+        current = ByteBuffer
+          .allocateDirect(Math.min(INITIAL_CAPACITY, 1 << shift));
+      }
+    }
+
+    ByteSegments finish() {
+      long length = position();
+      ByteBuffer[] segments = full.toArray(new ByteBuffer[full.size() + 1]);
+      segments[full.size()] = current;
+      for (ByteBuffer segment : segments) {
+        segment.clear();
+      }
+      return new ByteSegments(segments, shift, length);
+    }
+  }
+
+}
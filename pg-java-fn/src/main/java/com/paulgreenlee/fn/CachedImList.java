@@ -0,0 +1,110 @@
+package com.paulgreenlee.fn;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+
+/**
+ * A list that runs the stream of another list once, the first time any of its
+ * elements are read, and keeps the result in an array. Later reads, including
+ * {@code stream}, {@code get}, {@code contains}, {@code equals} and
+ * {@code iterator}, are served from the array. The first read is thread-safe:
+ * if several threads read at once, the source is still only streamed once.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ * @see ImListFns#cached(ImList)
+ */
+public final class CachedImList<E> extends AbstractImList<E>
+  implements RandomAccess {
+
+  private final int size;
+  private ImList<E> source;
+  private volatile ImListImpl<E> materialized;
+
+  CachedImList(ImList<E> source) {
+    this.source = Objects.requireNonNull(source, "Non-null list required");
+    this.size = source.size();
+  }
+
+  /**
+   * Has the source list been streamed yet? Until it has, the first read of this
+   * list will pay for a full traversal of the source.
+   *
+   * @return true if the elements are stored in this list
+   */
+  public boolean isMaterialized() {
+    return materialized != null;
+  }
+
+  private ImListImpl<E> materialized() {
+    ImListImpl<E> result = materialized;
+    if (result == null) {
+      synchronized (this) {
+        result = materialized;
+        if (result == null) {
+          result = size == 0
+            ? ImListImpl.emptyList()
+            : ArrayImList.wrap(source.stream().toArray());
+          materialized = result;
+          source = null;
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return materialized().stream();
+  }
+
+  @Override
+  Spliterator<E> spliterator(int from, int to) {
+    return materialized().spliterator(from, to);
+  }
+
+  @Override
+  public E get(int index) {
+    return materialized().get(index);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return materialized().iterator();
+  }
+
+  @Override
+  public Object[] toArray() {
+    return materialized().toArray();
+  }
+
+  @Override
+  public <T> T[] toArray(T[] a) {
+    return materialized().toArray(a);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return materialized().contains(o);
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    return materialized().indexOf(o);
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    return materialized().lastIndexOf(o);
+  }
+
+}
@@ -0,0 +1,61 @@
+package com.paulgreenlee.fn;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts values to and from bytes, so that they can be kept outside the Java
+ * heap. A codec either writes every value in the same number of bytes, or
+ * reports the size of each value separately.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the values
+ * @implSpec implementations must be stateless, so that one codec can be used
+ *           from several threads at once
+ * @see Codecs
+ * @see OffHeapImList
+ */
+public interface Codec<E> {
+
+  /**
+   * The value of {@link #fixedSize()} for codecs whose values take a varying
+   * number of bytes.
+   */
+  int VARIABLE_SIZE = -1;
+
+  /**
+   * The number of bytes every value takes, if that is always the same.
+   *
+   * @return the size of every value in bytes, or {@link #VARIABLE_SIZE}
+   */
+  default int fixedSize() {
+    return VARIABLE_SIZE;
+  }
+
+  /**
+   * The number of bytes {@link #write} will use for a value.
+   *
+   * @param value a value
+   * @return the encoded size of {@code value} in bytes
+   */
+  int sizeOf(E value);
+
+  /**
+   * Write a value at the buffer's position, advancing the position by exactly
+   * {@link #sizeOf(Object) sizeOf(value)} bytes.
+   *
+   * @param value  the value to write
+   * @param buffer a buffer with enough space remaining
+   */
+  void write(E value, ByteBuffer buffer);
+
+  /**
+   * Read a value starting at the buffer's position.
+   *
+   * @param buffer a buffer positioned at the start of an encoded value
+   * @param size   the number of bytes the value was written in
+   * @return the decoded value
+   */
+  E read(ByteBuffer buffer, int size);
+
+}
@@ -0,0 +1,377 @@
+package com.paulgreenlee.fn;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.paulgreenlee.fn.Tuples.Five;
+import com.paulgreenlee.fn.Tuples.Four;
+import com.paulgreenlee.fn.Tuples.Six;
+import com.paulgreenlee.fn.Tuples.Three;
+import com.paulgreenlee.fn.Tuples.Tuple;
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * Ready-made {@link Codec} implementations for boxed primitives, strings, and
+ * tuples of other codecs. None of them accept null values.
+ *
+ * @author Paul Greenlee
+ */
+public class Codecs {
+
+  private Codecs() {
+
+  }
+
+  /**
+   * Integers as four bytes.
+   */
+  public static final Codec<Integer> INTEGER = new FixedCodec<>(
+    Integer.BYTES,
+    (value, buffer) -> buffer.putInt(value),
+    ByteBuffer::getInt
+  );
+
+  /**
+   * Longs as eight bytes.
+   */
+  public static final Codec<Long> LONG = new FixedCodec<>(
+    Long.BYTES,
+    (value, buffer) -> buffer.putLong(value),
+    ByteBuffer::getLong
+  );
+
+  /**
+   * Doubles as eight bytes.
+   */
+  public static final Codec<Double> DOUBLE = new FixedCodec<>(
+    Double.BYTES,
+    (value, buffer) -> buffer.putDouble(value),
+    ByteBuffer::getDouble
+  );
+
+  /**
+   * Strings as UTF-8, taking as many bytes as the encoding needs.
+   */
+  public static final Codec<String> STRING = new StringCodec();
+
+  /**
+   * Tuples of two values, each written with its own codec.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param a   the codec for the first value
+   * @param b   the codec for the second value
+   * @return a codec for the tuples
+   */
+  @SuppressWarnings("unchecked")
+  public static <A, B> Codec<Two<A, B>> two(Codec<A> a, Codec<B> b) {
+    return new TupleCodec<>(
+      values -> Tuples.of((A) values[0], (B) values[1]),
+      a,
+      b
+    );
+  }
+
+  /**
+   * Tuples of three values, each written with its own codec.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param a   the codec for the first value
+   * @param b   the codec for the second value
+   * @param c   the codec for the third value
+   * @return a codec for the tuples
+   */
+  @SuppressWarnings("unchecked")
+  public static <A, B, C> Codec<Three<A, B, C>> three(
+    Codec<A> a,
+    Codec<B> b,
+    Codec<C> c
+  ) {
+    return new TupleCodec<>(
+      values -> Tuples.of((A) values[0], (B) values[1], (C) values[2]),
+      a,
+      b,
+      c
+    );
+  }
+
+  /**
+   * Tuples of four values, each written with its own codec.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param <D> the type of the fourth value
+   * @param a   the codec for the first value
+   * @param b   the codec for the second value
+   * @param c   the codec for the third value
+   * @param d   the codec for the fourth value
+   * @return a codec for the tuples
+   */
+  @SuppressWarnings("unchecked")
+  public static <A, B, C, D> Codec<Four<A, B, C, D>> four(
+    Codec<A> a,
+    Codec<B> b,
+    Codec<C> c,
+    Codec<D> d
+  ) {
+    return new TupleCodec<>(
+      values -> Tuples
+        .of((A) values[0], (B) values[1], (C) values[2], (D) values[3]),
+      a,
+      b,
+      c,
+      d
+    );
+  }
+
+  /**
+   * Tuples of five values, each written with its own codec.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param <D> the type of the fourth value
+   * @param <E> the type of the fifth value
+   * @param a   the codec for the first value
+   * @param b   the codec for the second value
+   * @param c   the codec for the third value
+   * @param d   the codec for the fourth value
+   * @param e   the codec for the fifth value
+   * @return a codec for the tuples
+   */
+  @SuppressWarnings("unchecked")
+  public static <A, B, C, D, E> Codec<Five<A, B, C, D, E>> five(
+    Codec<A> a,
+    Codec<B> b,
+    Codec<C> c,
+    Codec<D> d,
+    Codec<E> e
+  ) {
+    return new TupleCodec<>(
+      values -> Tuples.of(
+        (A) values[0],
+        (B) values[1],
+        (C) values[2],
+        (D) values[3],
+        (E) values[4]
+      ),
+      a,
+      b,
+      c,
+      d,
+      e
+    );
+  }
+
+  /**
+   * Tuples of six values, each written with its own codec.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param <D> the type of the fourth value
+   * @param <E> the type of the fifth value
+   * @param <F> the type of the sixth value
+   * @param a   the codec for the first value
+   * @param b   the codec for the second value
+   * @param c   the codec for the third value
+   * @param d   the codec for the fourth value
+   * @param e   the codec for the fifth value
+   * @param f   the codec for the sixth value
+   * @return a codec for the tuples
+   */
+  @SuppressWarnings("unchecked")
+  public static <A, B, C, D, E, F> Codec<Six<A, B, C, D, E, F>> six(
+    Codec<A> a,
+    Codec<B> b,
+    Codec<C> c,
+    Codec<D> d,
+    Codec<E> e,
+    Codec<F> f
+  ) {
+    return new TupleCodec<>(
+      values -> Tuples.of(
+        (A) values[0],
+        (B) values[1],
+        (C) values[2],
+        (D) values[3],
+        (E) values[4],
+        (F) values[5]
+      ),
+      a,
+      b,
+      c,
+      d,
+      e,
+      f
+    );
+  }
+
+  private static final class FixedCodec<E> implements Codec<E> {
+    private final int size;
+    private final BiConsumer<E, ByteBuffer> writer;
+    private final Function<ByteBuffer, E> reader;
+
+    FixedCodec(
+      int size,
+      BiConsumer<E, ByteBuffer> writer,
+      Function<ByteBuffer, E> reader
+    ) {
+      this.size = size;
+      this.writer = writer;
+      this.reader = reader;
+    }
+
+    @Override
+    public int fixedSize() {
+      return size;
+    }
+
+    @Override
+    public int sizeOf(E value) {
+      Objects.requireNonNull(value, "Non-null value required");
+      return size;
+    }
+
+    @Override
+    public void write(E value, ByteBuffer buffer) {
+      writer.accept(value, buffer);
+    }
+
+    @Override
+    public E read(ByteBuffer buffer, int size) {
+      return reader.apply(buffer);
+    }
+  }
+
+  private static final class StringCodec implements Codec<String> {
+
+    /**
+     * Count the bytes {@link String#getBytes} would produce, without encoding.
+     * Unpaired surrogates are replaced with a single byte.
+     */
+    @Override
+    public int sizeOf(String value) {
+      int size = 0;
+      int length = value.length();
+      for (int i = 0; i < length; i++) {
+        char c = value.charAt(i);
+        if (c < 0x80) {
+          size += 1;
+        } else if (c < 0x800) {
+          size += 2;
+        } else if (Character.isHighSurrogate(c) && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+          size += 4;
+          i++;
+        } else if (Character.isSurrogate(c)) {
+          size += 1;
+        } else {
+          size += 3;
+        }
+      }
+      return size;
+    }
+
+    @Override
+    public void write(String value, ByteBuffer buffer) {
+      buffer.put(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String read(ByteBuffer buffer, int size) {
+      if (buffer.hasArray()) {
+        int start = buffer.arrayOffset() + buffer.position();
+        buffer.position(buffer.position() + size);
+        return new String(buffer.array(), start, size, StandardCharsets.UTF_8);
+      }
+      byte[] bytes = new byte[size];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Writes each value of a tuple in turn. Values whose codec has no fixed size
+   * are preceded by their size as an int.
+   */
+  private static final class TupleCodec<T extends Tuple>
+    implements Codec<T> {
+
+    private final Function<Object[], T> constructor;
+    private final Codec<Object>[] parts;
+    private final int fixedSize;
+
+    @SuppressWarnings("unchecked")
+    TupleCodec(Function<Object[], T> constructor, Codec<?>... parts) {
+      this.constructor = constructor;
+      @SuppressWarnings("rawtypes")
+      Codec<Object>[] codecs = new Codec[parts.length];
+      this.parts = codecs;
+      int total = 0;
+      for (int i = 0; i < parts.length; i++) {
+        this.parts[i] = (Codec<Object>) Objects
+          .requireNonNull(parts[i], "Non-null codec required");
+        int size = parts[i].fixedSize();
+        total = total == VARIABLE_SIZE || size == VARIABLE_SIZE
+          ? VARIABLE_SIZE
+          : total + size;
+      }
+      this.fixedSize = total;
+    }
+
+    @Override
+    public int fixedSize() {
+      return fixedSize;
+    }
+
+    @Override
+    public int sizeOf(T value) {
+      if (fixedSize != VARIABLE_SIZE) {
+        return fixedSize;
+      }
+      Object[] values = value.values().toArray();
+      int size = 0;
+      for (int i = 0; i < parts.length; i++) {
+        size += parts[i].sizeOf(values[i]);
+        if (parts[i].fixedSize() == VARIABLE_SIZE) {
+          size += Integer.BYTES;
+        }
+      }
+      return size;
+    }
+
+    @Override
+    public void write(T value, ByteBuffer buffer) {
+      Object[] values = value.values().toArray();
+      for (int i = 0; i < parts.length; i++) {
+        if (parts[i].fixedSize() == VARIABLE_SIZE) {
+          buffer.putInt(parts[i].sizeOf(values[i]));
+        }
+        parts[i].write(values[i], buffer);
+      }
+    }
+
+    @Override
+    public T read(ByteBuffer buffer, int size) {
+      Object[] values = new Object[parts.length];
+      for (int i = 0; i < parts.length; i++) {
+        int partSize = parts[i].fixedSize();
+        if (partSize == VARIABLE_SIZE) {
+          partSize = buffer.getInt();
+        }
+        int start = buffer.position();
+        values[i] = parts[i].read(buffer, partSize);
+        buffer.position(start + partSize);
+      }
+      return constructor.apply(values);
+    }
+  }
+
+}
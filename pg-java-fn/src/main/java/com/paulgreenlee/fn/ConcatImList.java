@@ -0,0 +1,240 @@
+package com.paulgreenlee.fn;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Two lists joined end to end, without copying either of them. The node keeps
+ * the size of its left child, so {@code get} and slicing go straight to the
+ * child that holds the position, and cost one step per level of nesting
+ * rather than one per element skipped.
+ * <p>
+ * Appending to a join whose right child is an {@link ImVector}, or prepending
+ * to one whose left child is a vector, changes that vector rather than adding
+ * another level. Once joins nest more than {@link ImListImpl#MAX_DEPTH} deep,
+ * {@link #of} copies the elements into a single vector instead.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ * @see ImListFns#concat(ImList, ImList)
+ */
+final class ConcatImList<E> extends AbstractImList<E> {
+
+  private final AbstractImList<E> left;
+  private final AbstractImList<E> right;
+  private final int leftSize;
+  private final int size;
+  private final int depth;
+  private final boolean randomAccess;
+
+  private ConcatImList(AbstractImList<E> left, AbstractImList<E> right) {
+    this.left = left;
+    this.right = right;
+    this.leftSize = left.size();
+    this.size = leftSize + right.size();
+    this.depth = Math.max(left.depth(), right.depth()) + 1;
+    this.randomAccess = left.randomAccess() && right.randomAccess();
+  }
+
+  /**
+   * Join two non-empty lists. Lists of stored elements that fit in a
+   * {@link SmallImList} together are copied into one.
+   */
+  static <E> AbstractImList<E> of(
+    AbstractImList<E> left,
+    AbstractImList<E> right
+  ) {
+    if (left.size() + right.size() <= SmallImList.MAX_SIZE
+      && stored(left) && stored(right)) {
+      return SmallImList.concat(left, right);
+    }
+    if (left instanceof ImVector && right instanceof ImVector) {
+      return ((ImVector<E>) left).concat((ImVector<E>) right);
+    }
+    if (left instanceof ConcatImList && right instanceof ImVector) {
+      ConcatImList<E> join = (ConcatImList<E>) left;
+      if (join.right instanceof ImVector) {
+        return new ConcatImList<>(
+          join.left,
+          ((ImVector<E>) join.right).concat((ImVector<E>) right)
+        );
+      }
+    }
+    if (left instanceof ImVector && right instanceof ConcatImList) {
+      ConcatImList<E> join = (ConcatImList<E>) right;
+      if (join.left instanceof ImVector) {
+        return new ConcatImList<>(
+          ((ImVector<E>) left).concat((ImVector<E>) join.left),
+          join.right
+        );
+      }
+    }
+    if (Math.max(left.depth(), right.depth()) >= ImListImpl.MAX_DEPTH) {
+      return ImVector.from(left).concat(ImVector.from(right));
+    }
+    return new ConcatImList<>(left, right);
+  }
+
+  /**
+   * Does the list hold its elements, so that copying them neither runs a
+   * stream nor calls a mapping function?
+   */
+  private static boolean stored(AbstractImList<?> list) {
+    return list instanceof SmallImList
+      || list instanceof ArrayImList
+      || list instanceof ImVector
+      || list instanceof ConsImList;
+  }
+
+  /**
+   * Add an element to the end of the list.
+   */
+  AbstractImList<E> append(E elem) {
+    if (right instanceof ImVector) {
+      return new ConcatImList<>(left, ((ImVector<E>) right).append(elem));
+    }
+    return of(this, ImVector.of(elem));
+  }
+
+  /**
+   * Add an element to the start of the list.
+   */
+  AbstractImList<E> prepend(E elem) {
+    if (left instanceof ImVector) {
+      return new ConcatImList<>(((ImVector<E>) left).prepend(elem), right);
+    }
+    return of(ImVector.of(elem), this);
+  }
+
+  @Override
+  int depth() {
+    return depth;
+  }
+
+  /**
+   * A join of indexable lists is indexable, since {@code get} takes one step
+   * per level of nesting and joins nest at most
+   * {@link ImListImpl#MAX_DEPTH} deep.
+   */
+  @Override
+  boolean randomAccess() {
+    return randomAccess;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Splits at the join when it is near the middle, and otherwise within the
+   * larger child, so a short list joined to a long one still splits evenly.
+   */
+  @Override
+  public Spliterator<E> spliterator() {
+    return ImSpliterators.concat(left.spliterator(), right.spliterator());
+  }
+
+  @Override
+  public Stream<E> reverseStream() {
+    return StreamSupport.stream(
+      ImSpliterators.concat(
+        right.reverseStream().spliterator(),
+        left.reverseStream().spliterator()
+      ),
+      false
+    );
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Walk<>(this, false);
+  }
+
+  @Override
+  public Iterator<E> descendingIterator() {
+    return new Walk<>(this, true);
+  }
+
+  @Override
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return index < leftSize ? left.get(index) : right.get(index - leftSize);
+  }
+
+  @Override
+  AbstractImList<E> slice(int from, int to) {
+    if (to <= leftSize) {
+      return left.slice(from, to);
+    }
+    if (from >= leftSize) {
+      return right.slice(from - leftSize, to - leftSize);
+    }
+    if (from == 0 && to == size) {
+      return this;
+    }
+    return new ConcatImList<>(
+      left.slice(from, leftSize),
+      right.slice(0, to - leftSize)
+    );
+  }
+
+  /**
+   * Walks the leaves of a join tree in order, or in reverse order, keeping the
+   * children still to visit on a stack, so each element costs constant time
+   * however deeply the joins nest.
+   */
+  private static final class Walk<E> implements Iterator<E> {
+
+    private final Deque<AbstractImList<E>> pending = new ArrayDeque<>();
+    private final boolean descending;
+    private Iterator<E> current;
+
+    Walk(ConcatImList<E> root, boolean descending) {
+      this.descending = descending;
+      this.current = descend(root);
+    }
+
+    private Iterator<E> descend(AbstractImList<E> list) {
+      while (list instanceof ConcatImList) {
+        ConcatImList<E> join = (ConcatImList<E>) list;
+        pending.push(descending ? join.left : join.right);
+        list = descending ? join.right : join.left;
+      }
+      return descending ? list.descendingIterator() : list.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext()) {
+        if (pending.isEmpty()) {
+          return false;
+        }
+        current = descend(pending.pop());
+      }
+      return true;
+    }
+
+    @Override
+    public E next() {
+      if (!hasNext())
+        throw new NoSuchElementException();
+      return current.next();
+    }
+  }
+
+}
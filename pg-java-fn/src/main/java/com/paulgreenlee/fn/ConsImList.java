@@ -0,0 +1,156 @@
+package com.paulgreenlee.fn;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A singly linked persistent list. Adding to the front, reading the first
+ * element, and dropping the first element take constant time, and every list
+ * shares its tail with the lists it was built from. Indexed access walks the
+ * links, so this suits head/tail recursion rather than random access.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ */
+final class ConsImList<E> extends AbstractImList<E> {
+
+  @SuppressWarnings("rawtypes")
+  private static final ConsImList NIL = new ConsImList<>(null, null, 0);
+
+  private final E head;
+  private final ConsImList<E> tail;
+  private final int size;
+
+  private ConsImList(E head, ConsImList<E> tail, int size) {
+    this.head = head;
+    this.tail = tail;
+    this.size = size;
+  }
+
+  /**
+   * The empty list that every cons list ends with.
+   *
+   * @param <E> the type of elements (that would be) in the list
+   * @return an empty list
+   */
+  @SuppressWarnings("unchecked")
+  static <E> ConsImList<E> nil() {
+    return (ConsImList<E>) NIL;
+  }
+
+  /**
+   * Put an element in front of a list.
+   *
+   * @param <E>  the type of the elements
+   * @param head the new first element
+   * @param tail the rest of the list
+   * @return a list starting with {@code head}, sharing {@code tail}
+   */
+  static <E> ConsImList<E> cons(E head, ConsImList<E> tail) {
+    return new ConsImList<>(head, tail, tail.size + 1);
+  }
+
+  /**
+   * The first element.
+   *
+   * @return the first element in the list
+   * @throws NoSuchElementException if the list is empty
+   */
+  E head() {
+    if (size == 0)
+      throw new NoSuchElementException("The list is empty");
+    return head;
+  }
+
+  /**
+   * Everything after the first element. The tail of the empty list is the empty
+   * list.
+   *
+   * @return the list without its first element
+   */
+  ConsImList<E> tail() {
+    return size == 0 ? this : tail;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return ImSpliterators.sized(
+      Spliterators.spliteratorUnknownSize(
+        iterator(),
+        Spliterator.ORDERED | Spliterator.IMMUTABLE
+      ),
+      size
+    );
+  }
+
+  /**
+   * Walks to the start of the slice. A slice that runs to the end of the list
+   * is a shared tail.
+   */
+  @Override
+  AbstractImList<E> slice(int from, int to) {
+    ConsImList<E> list = this;
+    for (int i = 0; i < from; i++) {
+      list = list.tail;
+    }
+    if (to == size) {
+      return list;
+    }
+    return lazySlice(list, 0, to - from);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Itr<>(this);
+  }
+
+  @Override
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    ConsImList<E> node = this;
+    for (int i = 0; i < index; i++) {
+      node = node.tail;
+    }
+    return node.head;
+  }
+
+  private static final class Itr<E> implements Iterator<E> {
+    private ConsImList<E> node;
+
+    Itr(ConsImList<E> node) {
+      this.node = node;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return node.size > 0;
+    }
+
+    @Override
+    public E next() {
+      if (node.size == 0)
+        throw new NoSuchElementException();
+      E value = node.head;
+      node = node.tail;
+      return value;
+    }
+  }
+
+}
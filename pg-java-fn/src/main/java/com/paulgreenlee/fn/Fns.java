@@ -122,6 +122,27 @@ public class Fns {
     R apply(A a, B b, C c, D d, E e, F f);
   }
 
+  /**
+   * A function of an element and its position, without boxing the position.
+   * 
+   * @author Paul Greenlee
+   *
+   * @param <T> the type of the element
+   * @param <R> the type of the return value of the function
+   */
+  @FunctionalInterface
+  public interface IndexedFunction<T, R> {
+
+    /**
+     * Apply the function to the arguments
+     * 
+     * @param index the position of the element
+     * @param value the element
+     * @return the result of the function
+     */
+    R apply(int index, T value);
+  }
+
   /**
    * Restructure a function that takes two arguments as a series of two nested
    * functions that each take a single argument. This allows arguments to
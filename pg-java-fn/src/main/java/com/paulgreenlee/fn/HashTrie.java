@@ -0,0 +1,823 @@
+package com.paulgreenlee.fn;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * <p>
+ * The persistent hash array mapped trie behind {@link ImMapImpl} and
+ * {@link ImSetImpl}. Each node branches on five bits of a key's hash. A node
+ * keeps two bitmaps: one for the slots that hold a key and value inline, and
+ * one for the slots that hold a child node. Its array holds the inline keys and
+ * values first, in pairs, and the child nodes after them in reverse order, so
+ * neither kind needs a wrapper object and an empty slot takes no space. Keys
+ * whose whole hashes are equal share a collision node at the bottom of the
+ * trie.
+ * </p>
+ * <p>
+ * A change copies only the nodes on the path to the key, so it takes
+ * O(log<sub>32</sub> n) time and the result shares every other node with the
+ * original. A removal that leaves a node with a single key moves the key up
+ * into the parent, so the trie has the same shape however it was built.
+ * </p>
+ *
+ * @author Paul Greenlee
+ */
+final class HashTrie {
+
+  /**
+   * Returned by {@link Node#get} when the key is not in the trie, since
+   * {@code null} is a valid value.
+   */
+  static final Object NOT_FOUND = new Object();
+
+  static final int BITS = 5;
+  static final int MASK = (1 << BITS) - 1;
+
+  /**
+   * Shifts at or past this have used up every bit of the hash.
+   */
+  private static final int HASH_BITS = 32;
+
+  static final Node EMPTY = new BitmapNode(0, 0, new Object[0], 0);
+
+  private HashTrie() {
+
+  }
+
+  static int hash(Object key) {
+    return Objects.hashCode(key);
+  }
+
+  static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  /**
+   * The position of {@code bit} among the bits set in {@code bitmap}.
+   */
+  static int index(int bitmap, int bit) {
+    return Integer.bitCount(bitmap & (bit - 1));
+  }
+
+  /**
+   * What a call to {@link Node#put} or {@link Node#remove} did. One instance
+   * is used for a single top-level call.
+   */
+  static final class Change {
+    boolean added;
+    boolean removed;
+    Object oldValue = NOT_FOUND;
+  }
+
+  abstract static class Node {
+
+    /**
+     * The value for a key, or {@link HashTrie#NOT_FOUND}.
+     */
+    abstract Object get(Object key, int hash, int shift);
+
+    /**
+     * This node with a key set to a value. Returns this node if the key already
+     * had that exact value.
+     */
+    abstract Node put(
+      Object key,
+      Object value,
+      int hash,
+      int shift,
+      Change change
+    );
+
+    /**
+     * This node without a key. Returns this node if the key was not there.
+     */
+    abstract Node remove(Object key, int hash, int shift, Change change);
+
+    /**
+     * The number of keys under this node. Nodes keep it so that a result that
+     * reuses a whole subtree knows its size without walking it.
+     */
+    abstract int size();
+
+    abstract int payloadArity();
+
+    abstract Object keyAt(int index);
+
+    abstract Object valueAt(int index);
+
+    abstract int nodeArity();
+
+    abstract Node nodeAt(int index);
+
+    /**
+     * Does this node hold a single key and nothing else, so that its parent
+     * should hold the key inline instead?
+     */
+    final boolean isSingleton() {
+      return payloadArity() == 1 && nodeArity() == 0;
+    }
+  }
+
+  static final class BitmapNode extends Node {
+
+    final int dataMap;
+    final int nodeMap;
+    final Object[] array;
+    private final int size;
+
+    BitmapNode(int dataMap, int nodeMap, Object[] array, int size) {
+      this.dataMap = dataMap;
+      this.nodeMap = nodeMap;
+      this.array = array;
+      this.size = size;
+    }
+
+    @Override
+    int size() {
+      return size;
+    }
+
+    Object keyFor(int bit) {
+      return keyAt(index(dataMap, bit));
+    }
+
+    Object valueFor(int bit) {
+      return valueAt(index(dataMap, bit));
+    }
+
+    Node nodeFor(int bit) {
+      return nodeAt(index(nodeMap, bit));
+    }
+
+    @Override
+    int payloadArity() {
+      return Integer.bitCount(dataMap);
+    }
+
+    @Override
+    Object keyAt(int index) {
+      return array[2 * index];
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return array[2 * index + 1];
+    }
+
+    @Override
+    int nodeArity() {
+      return Integer.bitCount(nodeMap);
+    }
+
+    @Override
+    Node nodeAt(int index) {
+      return (Node) array[array.length - 1 - index];
+    }
+
+    @Override
+    Object get(Object key, int hash, int shift) {
+      int bit = bit(hash, shift);
+      if ((dataMap & bit) != 0) {
+        int i = index(dataMap, bit);
+        return Objects.equals(keyAt(i), key) ? valueAt(i) : NOT_FOUND;
+      }
+      if ((nodeMap & bit) != 0) {
+        return nodeAt(index(nodeMap, bit)).get(key, hash, shift + BITS);
+      }
+      return NOT_FOUND;
+    }
+
+    @Override
+    Node put(Object key, Object value, int hash, int shift, Change change) {
+      int bit = bit(hash, shift);
+      if ((dataMap & bit) != 0) {
+        int i = index(dataMap, bit);
+        Object current = keyAt(i);
+        if (Objects.equals(current, key)) {
+          Object old = valueAt(i);
+          change.oldValue = old;
+          if (old == value) {
+            return this;
+          }
+          Object[] copy = array.clone();
+          copy[2 * i + 1] = value;
+          return new BitmapNode(dataMap, nodeMap, copy, size);
+        }
+        change.added = true;
+        Node child = merge(
+          current,
+          valueAt(i),
+          hash(current),
+          key,
+          value,
+          hash,
+          shift + BITS
+        );
+        return inlineToNode(bit, i, child);
+      }
+      if ((nodeMap & bit) != 0) {
+        int j = index(nodeMap, bit);
+        Node child = nodeAt(j);
+        Node newChild = child.put(key, value, hash, shift + BITS, change);
+        if (newChild == child) {
+          return this;
+        }
+        Object[] copy = array.clone();
+        copy[array.length - 1 - j] = newChild;
+        return new BitmapNode(
+          dataMap,
+          nodeMap,
+          copy,
+          size - child.size() + newChild.size()
+        );
+      }
+      change.added = true;
+      int i = index(dataMap, bit);
+      Object[] copy = new Object[array.length + 2];
+      System.arraycopy(array, 0, copy, 0, 2 * i);
+      copy[2 * i] = key;
+      copy[2 * i + 1] = value;
+      System.arraycopy(array, 2 * i, copy, 2 * i + 2, array.length - 2 * i);
+      return new BitmapNode(dataMap | bit, nodeMap, copy, size + 1);
+    }
+
+    @Override
+    Node remove(Object key, int hash, int shift, Change change) {
+      int bit = bit(hash, shift);
+      if ((dataMap & bit) != 0) {
+        int i = index(dataMap, bit);
+        if (!Objects.equals(keyAt(i), key)) {
+          return this;
+        }
+        change.removed = true;
+        change.oldValue = valueAt(i);
+        if (shift > 0 && payloadArity() == 2 && nodeArity() == 0) {
+          // The parent will take the remaining key inline. If this is the
+          // only thing under the root, it becomes the root, so its bitmap is
+          // for the root's level.
+          int other = 1 - i;
+          return new BitmapNode(
+            bit(hash, 0),
+            0,
+            new Object[] { keyAt(other), valueAt(other) },
+            1
+          );
+        }
+        Object[] copy = new Object[array.length - 2];
+        System.arraycopy(array, 0, copy, 0, 2 * i);
+        System.arraycopy(
+          array,
+          2 * i + 2,
+          copy,
+          2 * i,
+          array.length - 2 * i - 2
+        );
+        return new BitmapNode(dataMap ^ bit, nodeMap, copy, size - 1);
+      }
+      if ((nodeMap & bit) != 0) {
+        int j = index(nodeMap, bit);
+        Node child = nodeAt(j);
+        Node newChild = child.remove(key, hash, shift + BITS, change);
+        if (newChild == child) {
+          return this;
+        }
+        if (newChild.isSingleton()) {
+          if (shift > 0 && payloadArity() == 0 && nodeArity() == 1) {
+            return newChild;
+          }
+          return nodeToInline(bit, j, newChild);
+        }
+        Object[] copy = array.clone();
+        copy[array.length - 1 - j] = newChild;
+        return new BitmapNode(
+          dataMap,
+          nodeMap,
+          copy,
+          size - child.size() + newChild.size()
+        );
+      }
+      return this;
+    }
+
+    /**
+     * Replace the key and value at inline index {@code i} with a child node.
+     */
+    private Node inlineToNode(int bit, int i, Node child) {
+      int j = index(nodeMap, bit);
+      int payloadEnd = 2 * payloadArity();
+      Object[] copy = new Object[array.length - 1];
+      System.arraycopy(array, 0, copy, 0, 2 * i);
+      System.arraycopy(array, 2 * i + 2, copy, 2 * i, payloadEnd - 2 * i - 2);
+      int childAt = copy.length - 1 - j;
+      System.arraycopy(
+        array,
+        payloadEnd,
+        copy,
+        payloadEnd - 2,
+        childAt - payloadEnd + 2
+      );
+      copy[childAt] = child;
+      System.arraycopy(array, array.length - j, copy, childAt + 1, j);
+      return new BitmapNode(dataMap ^ bit, nodeMap | bit, copy, size + 1);
+    }
+
+    /**
+     * Replace the child node at node index {@code j} with its single key and
+     * value.
+     */
+    private Node nodeToInline(int bit, int j, Node child) {
+      int i = index(dataMap, bit);
+      Object[] copy = new Object[array.length + 1];
+      System.arraycopy(array, 0, copy, 0, 2 * i);
+      copy[2 * i] = child.keyAt(0);
+      copy[2 * i + 1] = child.valueAt(0);
+      int childAt = array.length - 1 - j;
+      System.arraycopy(array, 2 * i, copy, 2 * i + 2, childAt - 2 * i);
+      System.arraycopy(
+        array,
+        childAt + 1,
+        copy,
+        childAt + 2,
+        array.length - childAt - 1
+      );
+      return new BitmapNode(
+        dataMap | bit,
+        nodeMap ^ bit,
+        copy,
+        size - nodeAt(j).size() + 1
+      );
+    }
+  }
+
+  static final class CollisionNode extends Node {
+
+    final int hash;
+    final Object[] array;
+
+    CollisionNode(int hash, Object[] array) {
+      this.hash = hash;
+      this.array = array;
+    }
+
+    private int find(Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (Objects.equals(array[i], key))
+          return i / 2;
+      }
+      return -1;
+    }
+
+    @Override
+    int size() {
+      return payloadArity();
+    }
+
+    @Override
+    int payloadArity() {
+      return array.length / 2;
+    }
+
+    @Override
+    Object keyAt(int index) {
+      return array[2 * index];
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return array[2 * index + 1];
+    }
+
+    @Override
+    int nodeArity() {
+      return 0;
+    }
+
+    @Override
+    Node nodeAt(int index) {
+      throw new IndexOutOfBoundsException(index);
+    }
+
+    @Override
+    Object get(Object key, int hash, int shift) {
+      int i = find(key);
+      return i < 0 ? NOT_FOUND : valueAt(i);
+    }
+
+    @Override
+    Node put(Object key, Object value, int hash, int shift, Change change) {
+      int i = find(key);
+      if (i >= 0) {
+        Object old = valueAt(i);
+        change.oldValue = old;
+        if (old == value) {
+          return this;
+        }
+        Object[] copy = array.clone();
+        copy[2 * i + 1] = value;
+        return new CollisionNode(hash, copy);
+      }
+      change.added = true;
+      Object[] copy = Arrays.copyOf(array, array.length + 2);
+      copy[array.length] = key;
+      copy[array.length + 1] = value;
+      return new CollisionNode(hash, copy);
+    }
+
+    @Override
+    Node remove(Object key, int hash, int shift, Change change) {
+      int i = find(key);
+      if (i < 0) {
+        return this;
+      }
+      change.removed = true;
+      change.oldValue = valueAt(i);
+      if (array.length == 4) {
+        int other = 1 - i;
+        return new BitmapNode(
+          bit(hash, 0),
+          0,
+          new Object[] { keyAt(other), valueAt(other) },
+          1
+        );
+      }
+      Object[] copy = new Object[array.length - 2];
+      System.arraycopy(array, 0, copy, 0, 2 * i);
+      System.arraycopy(
+        array,
+        2 * i + 2,
+        copy,
+        2 * i,
+        array.length - 2 * i - 2
+      );
+      return new CollisionNode(hash, copy);
+    }
+  }
+
+  /**
+   * A node holding two keys whose hashes agree below {@code shift}.
+   */
+  static Node merge(
+    Object key0,
+    Object value0,
+    int hash0,
+    Object key1,
+    Object value1,
+    int hash1,
+    int shift
+  ) {
+    if (shift >= HASH_BITS) {
+      return new CollisionNode(
+        hash0,
+        new Object[] { key0, value0, key1, value1 }
+      );
+    }
+    int bit0 = bit(hash0, shift);
+    int bit1 = bit(hash1, shift);
+    if (bit0 != bit1) {
+      Object[] array = Integer.compareUnsigned(bit0, bit1) < 0
+        ? new Object[] { key0, value0, key1, value1 }
+        : new Object[] { key1, value1, key0, value0 };
+      return new BitmapNode(bit0 | bit1, 0, array, 2);
+    }
+    Node child = merge(
+      key0,
+      value0,
+      hash0,
+      key1,
+      value1,
+      hash1,
+      shift + BITS
+    );
+    return new BitmapNode(0, bit0, new Object[] { child }, 2);
+  }
+
+  /**
+   * The keys of two nodes at the same level, with the values from {@code a}
+   * where both have a key. Subtrees that the two share are reused without
+   * looking inside them, and so are parts of {@code a} that gain nothing.
+   */
+  static Node union(Node a, Node b, int shift) {
+    if (a == b || b.size() == 0) {
+      return a;
+    }
+    if (a.size() == 0) {
+      return b;
+    }
+    if (!(a instanceof BitmapNode && b instanceof BitmapNode)) {
+      CollisionNode x = (CollisionNode) a;
+      Object[] pairs = Arrays.copyOf(x.array, x.array.length + b.size() * 2);
+      int count = x.payloadArity();
+      for (int i = 0; i < b.payloadArity(); i++) {
+        if (x.get(b.keyAt(i), x.hash, shift) == NOT_FOUND) {
+          pairs[2 * count] = b.keyAt(i);
+          pairs[2 * count + 1] = b.valueAt(i);
+          count++;
+        }
+      }
+      return count == x.payloadArity() ? x : collision(x.hash, pairs, count);
+    }
+    BitmapNode x = (BitmapNode) a;
+    BitmapNode y = (BitmapNode) b;
+    int all = x.dataMap | x.nodeMap | y.dataMap | y.nodeMap;
+    Builder out = new Builder(all, shift);
+    for (int bits = all; bits != 0; bits &= bits - 1) {
+      int bit = bits & -bits;
+      if ((x.dataMap & bit) != 0) {
+        Object key = x.keyFor(bit);
+        Object value = x.valueFor(bit);
+        if ((y.dataMap & bit) != 0) {
+          Object other = y.keyFor(bit);
+          if (Objects.equals(key, other)) {
+            out.entry(bit, key, value);
+          } else {
+            out.node(
+              bit,
+              merge(
+                key,
+                value,
+                hash(key),
+                other,
+                y.valueFor(bit),
+                hash(other),
+                shift + BITS
+              )
+            );
+          }
+        } else if ((y.nodeMap & bit) != 0) {
+          out.node(
+            bit,
+            y.nodeFor(bit)
+              .put(key, value, hash(key), shift + BITS, new Change())
+          );
+        } else {
+          out.entry(bit, key, value);
+        }
+      } else if ((x.nodeMap & bit) != 0) {
+        Node child = x.nodeFor(bit);
+        if ((y.dataMap & bit) != 0) {
+          Object key = y.keyFor(bit);
+          int hash = hash(key);
+          if (child.get(key, hash, shift + BITS) == NOT_FOUND) {
+            child = child
+              .put(key, y.valueFor(bit), hash, shift + BITS, new Change());
+          }
+          out.node(bit, child);
+        } else if ((y.nodeMap & bit) != 0) {
+          out.node(bit, union(child, y.nodeFor(bit), shift + BITS));
+        } else {
+          out.node(bit, child);
+        }
+      } else if ((y.dataMap & bit) != 0) {
+        out.entry(bit, y.keyFor(bit), y.valueFor(bit));
+      } else {
+        out.node(bit, y.nodeFor(bit));
+      }
+    }
+    return out.size == x.size() ? x : out.build();
+  }
+
+  /**
+   * The keys of {@code a} that are also keys of {@code b}, with their values
+   * from {@code a}. Subtrees that the two share are reused without looking
+   * inside them.
+   */
+  static Node intersect(Node a, Node b, int shift) {
+    if (a == b || a.size() == 0) {
+      return a;
+    }
+    if (b.size() == 0) {
+      return EMPTY;
+    }
+    if (!(a instanceof BitmapNode && b instanceof BitmapNode)) {
+      return filter(a, b, shift, true);
+    }
+    BitmapNode x = (BitmapNode) a;
+    BitmapNode y = (BitmapNode) b;
+    int both = (x.dataMap | x.nodeMap) & (y.dataMap | y.nodeMap);
+    Builder out = new Builder(both, shift);
+    for (int bits = both; bits != 0; bits &= bits - 1) {
+      int bit = bits & -bits;
+      if ((x.dataMap & bit) != 0) {
+        Object key = x.keyFor(bit);
+        boolean found = (y.dataMap & bit) != 0
+          ? Objects.equals(key, y.keyFor(bit))
+          : y.nodeFor(bit)
+            .get(key, hash(key), shift + BITS) != NOT_FOUND;
+        if (found) {
+          out.entry(bit, key, x.valueFor(bit));
+        }
+      } else if ((y.dataMap & bit) != 0) {
+        Object key = y.keyFor(bit);
+        Object value = x.nodeFor(bit).get(key, hash(key), shift + BITS);
+        if (value != NOT_FOUND) {
+          out.entry(bit, key, value);
+        }
+      } else {
+        out.node(
+          bit,
+          intersect(x.nodeFor(bit), y.nodeFor(bit), shift + BITS)
+        );
+      }
+    }
+    return out.size == x.size() ? x : out.build();
+  }
+
+  /**
+   * The keys of {@code a} that are not keys of {@code b}, with their values.
+   * Subtrees that the two share are dropped without looking inside them, and
+   * parts of {@code a} that {@code b} does not reach are reused.
+   */
+  static Node difference(Node a, Node b, int shift) {
+    if (a == b) {
+      return EMPTY;
+    }
+    if (a.size() == 0 || b.size() == 0) {
+      return a;
+    }
+    if (!(a instanceof BitmapNode && b instanceof BitmapNode)) {
+      return filter(a, b, shift, false);
+    }
+    BitmapNode x = (BitmapNode) a;
+    BitmapNode y = (BitmapNode) b;
+    int all = x.dataMap | x.nodeMap;
+    Builder out = new Builder(all, shift);
+    for (int bits = all; bits != 0; bits &= bits - 1) {
+      int bit = bits & -bits;
+      if ((x.dataMap & bit) != 0) {
+        Object key = x.keyFor(bit);
+        boolean found;
+        if ((y.dataMap & bit) != 0) {
+          found = Objects.equals(key, y.keyFor(bit));
+        } else if ((y.nodeMap & bit) != 0) {
+          found = y.nodeFor(bit)
+            .get(key, hash(key), shift + BITS) != NOT_FOUND;
+        } else {
+          found = false;
+        }
+        if (!found) {
+          out.entry(bit, key, x.valueFor(bit));
+        }
+      } else {
+        Node child = x.nodeFor(bit);
+        if ((y.dataMap & bit) != 0) {
+          Object key = y.keyFor(bit);
+          child = child.remove(key, hash(key), shift + BITS, new Change());
+        } else if ((y.nodeMap & bit) != 0) {
+          child = difference(child, y.nodeFor(bit), shift + BITS);
+        }
+        out.node(bit, child);
+      }
+    }
+    return out.size == x.size() ? x : out.build();
+  }
+
+  /**
+   * The entries of collision node {@code a} whose keys are, or are not, in
+   * {@code b}.
+   */
+  private static Node filter(Node a, Node b, int shift, boolean keep) {
+    CollisionNode x = (CollisionNode) a;
+    Object[] pairs = new Object[x.array.length];
+    int count = 0;
+    for (int i = 0; i < x.payloadArity(); i++) {
+      Object key = x.keyAt(i);
+      if ((b.get(key, x.hash, shift) != NOT_FOUND) == keep) {
+        pairs[2 * count] = key;
+        pairs[2 * count + 1] = x.valueAt(i);
+        count++;
+      }
+    }
+    return count == x.payloadArity() ? x : collision(x.hash, pairs, count);
+  }
+
+  /**
+   * A node for the first {@code count} pairs of keys with the same hash.
+   */
+  private static Node collision(int hash, Object[] pairs, int count) {
+    if (count == 0) {
+      return EMPTY;
+    }
+    if (count == 1) {
+      return new BitmapNode(
+        bit(hash, 0),
+        0,
+        new Object[] { pairs[0], pairs[1] },
+        1
+      );
+    }
+    return new CollisionNode(hash, Arrays.copyOf(pairs, 2 * count));
+  }
+
+  /**
+   * Collects the slots of a new node in bit order, for the set operations.
+   * A child that is empty is left out, and a child with a single key is held
+   * inline instead.
+   */
+  private static final class Builder {
+    private final int shift;
+    private final Object[] pairs;
+    private final Node[] nodes;
+    private int dataMap;
+    private int nodeMap;
+    private int dataCount;
+    private int nodeCount;
+    int size;
+
+    Builder(int slots, int shift) {
+      int count = Integer.bitCount(slots);
+      this.shift = shift;
+      this.pairs = new Object[2 * count];
+      this.nodes = new Node[count];
+    }
+
+    void entry(int bit, Object key, Object value) {
+      dataMap |= bit;
+      pairs[2 * dataCount] = key;
+      pairs[2 * dataCount + 1] = value;
+      dataCount++;
+      size++;
+    }
+
+    void node(int bit, Node node) {
+      if (node.size() == 0) {
+        return;
+      }
+      if (node.isSingleton()) {
+        entry(bit, node.keyAt(0), node.valueAt(0));
+        return;
+      }
+      nodeMap |= bit;
+      nodes[nodeCount++] = node;
+      size += node.size();
+    }
+
+    Node build() {
+      if (size == 0) {
+        return EMPTY;
+      }
+      if (shift > 0 && dataCount == 1 && nodeCount == 0) {
+        return collision(hash(pairs[0]), pairs, 1);
+      }
+      Object[] array = Arrays.copyOf(pairs, 2 * dataCount + nodeCount);
+      for (int j = 0; j < nodeCount; j++) {
+        array[array.length - 1 - j] = nodes[j];
+      }
+      return new BitmapNode(dataMap, nodeMap, array, size);
+    }
+  }
+
+  /**
+   * Iterate over the keys and values under a node, depth first.
+   *
+   * @param <T>   the type the iterator returns
+   * @param root  the node to start from
+   * @param entry makes the value to return from a key and its value
+   * @return an iterator over every key under {@code root}
+   */
+  static <T> Iterator<T> iterator(
+    Node root,
+    BiFunction<Object, Object, ? extends T> entry
+  ) {
+    return new Iterator<T>() {
+      private final Deque<Node> pending = new ArrayDeque<>();
+      private Node current = push(root);
+      private int index;
+
+      private Node push(Node node) {
+        for (int j = node.nodeArity() - 1; j >= 0; j--) {
+          pending.push(node.nodeAt(j));
+        }
+        return node;
+      }
+
+      @Override
+      public boolean hasNext() {
+        while (index >= current.payloadArity()) {
+          if (pending.isEmpty()) {
+            return false;
+          }
+          current = push(pending.pop());
+          index = 0;
+        }
+        return true;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext())
+          throw new NoSuchElementException();
+        Object key = current.keyAt(index);
+        Object value = current.valueAt(index);
+        index++;
+        return entry.apply(key, value);
+      }
+    };
+  }
+
+}
@@ -1,6 +1,10 @@
 package com.paulgreenlee.fn;
 
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A simple list interface. This does not inherit from any native List or
@@ -40,4 +44,45 @@ public interface ImList<E> {
    */
   Stream<E> stream();
 
+  /**
+   * Stream the elements of the list from last to first.
+   * 
+   * @implSpec the default implementation streams the elements of
+   *           {@link #descendingIterator()}
+   * @return a stream of the elements in reverse order
+   */
+  default Stream<E> reverseStream() {
+    return StreamSupport.stream(
+      ImSpliterators.sized(
+        Spliterators.spliteratorUnknownSize(
+          descendingIterator(),
+          Spliterator.ORDERED | Spliterator.IMMUTABLE
+        ),
+        size()
+      ),
+      false
+    );
+  }
+
+  /**
+   * Iterate over the elements of the list from last to first.
+   * 
+   * @implSpec the default implementation copies the elements of
+   *           {@link #stream()} into an array, and walks the array backwards.
+   *           Implementations that can read from the end directly should
+   *           override it.
+   * @return an iterator over the elements in reverse order
+   */
+  @SuppressWarnings("unchecked")
+  default Iterator<E> descendingIterator() {
+    Object[] elements = stream().toArray();
+    return ImListIterators.descending(
+      ImListIterators.indexed(
+        i -> (E) elements[i],
+        elements.length,
+        elements.length
+      )
+    );
+  }
+
 }
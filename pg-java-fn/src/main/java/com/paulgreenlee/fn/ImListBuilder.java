@@ -0,0 +1,103 @@
+package com.paulgreenlee.fn;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Collects elements into an array and then hands the array to a new
+ * {@link ImList} without copying it again, as long as the expected size given
+ * to {@link ImListFns#builder(int)} was right. A builder can only build one
+ * list; after {@link #build()} it cannot be used again. Builders are not
+ * thread-safe.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ * @see ImListFns#toImList()
+ */
+public final class ImListBuilder<E> {
+
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+  private Object[] elements;
+  private int size;
+
+  ImListBuilder(int expectedSize) {
+    if (expectedSize < 0)
+      throw new IllegalArgumentException(
+        "expectedSize must not be negative: " + expectedSize
+      );
+    this.elements = new Object[expectedSize];
+  }
+
+  /**
+   * Add an element to the end of the list being built.
+   *
+   * @param elem the element to add
+   * @return this builder
+   * @throws IllegalStateException if the list has already been built
+   */
+  public ImListBuilder<E> add(E elem) {
+    ensureCapacity(size + 1);
+    elements[size++] = elem;
+    return this;
+  }
+
+  /**
+   * Add all of the elements of a list to the end of the list being built.
+   *
+   * @param list the elements to add
+   * @return this builder
+   * @throws IllegalStateException if the list has already been built
+   */
+  public ImListBuilder<E> addAll(ImList<? extends E> list) {
+    Objects.requireNonNull(list, "Non-null list required");
+    ensureCapacity(size + list.size());
+    list.stream().forEachOrdered(elem -> elements[size++] = elem);
+    return this;
+  }
+
+  /**
+   * The number of elements added so far.
+   *
+   * @return the number of elements added
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Create the list. This takes constant time if exactly the expected number
+   * of elements were added, and otherwise copies them once.
+   *
+   * @return a list of the elements added, in the order they were added
+   * @throws IllegalStateException if the list has already been built
+   */
+  public ImList<E> build() {
+    checkNotBuilt();
+    Object[] result = size == elements.length
+      ? elements
+      : Arrays.copyOf(elements, size);
+    elements = null;
+    return SmallImList.wrap(result);
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    checkNotBuilt();
+    if (minCapacity < 0 || minCapacity > MAX_CAPACITY)
+      throw new OutOfMemoryError("list too large to build");
+    if (minCapacity > elements.length) {
+      long grown = Math.max(16L, elements.length + (elements.length >> 1));
+      elements = Arrays.copyOf(
+        elements,
+        (int) Math.min(MAX_CAPACITY, Math.max(grown, minCapacity))
+      );
+    }
+  }
+
+  private void checkNotBuilt() {
+    if (elements == null)
+      throw new IllegalStateException("the list has already been built");
+  }
+
+}
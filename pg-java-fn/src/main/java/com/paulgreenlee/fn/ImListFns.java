@@ -1,9 +1,15 @@
 package com.paulgreenlee.fn;
 
+import java.util.Collection;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
 import java.util.stream.Stream;
 
+import com.paulgreenlee.fn.Fns.IndexedFunction;
+
 /**
  * A collection of functions for working with {@link ImList}.
  * 
@@ -15,7 +21,8 @@ public class ImListFns {
   }
 
   /**
-   * Create a list from a set of elements.
+   * Create a list from a set of elements. Up to four elements are held in
+   * fields of the list, without an array, and more are copied into an array.
    * 
    * @param <E>      the type of the elements
    * @param elements the elements for ths list
@@ -23,12 +30,133 @@ public class ImListFns {
    */
   @SafeVarargs
   public static <E> ImList<E> listOf(E... elements) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    if (elements.length <= SmallImList.MAX_SIZE) {
+      return SmallImList.copyOf(elements, 0, elements.length);
+    }
     return ImListImpl.of(elements);
   }
 
+  /**
+   * Copy the elements of a list into an array-backed list. The copy gives
+   * constant-time indexed access, no matter how the original list was built.
+   * Lists of up to four elements are held in fields instead of an array.
+   * 
+   * @param <E>  the type of the elements
+   * @param list a list to copy
+   * @return an array-backed list with the same elements as {@code list}
+   */
+  public static <E> ImList<E> copyOf(ImList<E> list) {
+    Objects.requireNonNull(list);
+    if (list instanceof ArrayImList || list instanceof SmallImList) {
+      return list;
+    }
+    if (list.isEmpty()) {
+      return ImListImpl.emptyList();
+    }
+    return SmallImList.wrap(list.stream().toArray());
+  }
+
+  /**
+   * Copy the elements of a collection into an array-backed list. Later changes
+   * to the collection are not seen by the list.
+   * 
+   * @param <E>        the type of the elements
+   * @param collection a collection to copy
+   * @return an array-backed list with the elements of {@code collection}, in
+   *         iteration order
+   */
+  public static <E> ImList<E> fromCollection(
+    Collection<? extends E> collection
+  ) {
+    Objects.requireNonNull(collection);
+    if (collection.isEmpty()) {
+      return ImListImpl.emptyList();
+    }
+    return SmallImList.wrap(collection.toArray());
+  }
+
+  /**
+   * Start building a list one element at a time.
+   * 
+   * @param <E> the type of the elements
+   * @return a new, empty builder
+   */
+  public static <E> ImListBuilder<E> builder() {
+    return new ImListBuilder<>(0);
+  }
+
+  /**
+   * Start building a list of a known size. If exactly {@code expectedSize}
+   * elements are added, the list is built without copying them.
+   * 
+   * @param <E>          the type of the elements
+   * @param expectedSize the number of elements that will be added
+   * @return a new, empty builder
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static <E> ImListBuilder<E> builder(int expectedSize) {
+    return new ImListBuilder<>(expectedSize);
+  }
+
+  /**
+   * Start a batch of edits to a list. The transient changes its own copy of
+   * the list in place, which is much faster than building a new immutable list
+   * for every change, and {@link TransientImList#persistent()} turns the result
+   * back into an immutable list in constant time. {@code list} is not changed.
+   * 
+   * @param <E>  the type of the elements
+   * @param list the list to start from
+   * @return a transient holding the elements of {@code list}
+   */
+  public static <E> TransientImList<E> transientOf(ImList<E> list) {
+    Objects.requireNonNull(list);
+    return ImVector.from(list).asTransient();
+  }
+
+  /**
+   * A collector that gathers the elements of a stream into an
+   * {@link ImVector}. Elements are added a leaf at a time, and the partial
+   * results of a parallel stream are joined with {@link ImVector#concat}, in
+   * O(log n) time and without copying the elements.
+   * 
+   * @param <E> the type of the elements
+   * @return a collector that gives a list of the elements in encounter order
+   */
+  public static <E> Collector<E, ?, ImList<E>> toImList() {
+    return Collector.<E, ImVector.Appender<E>, ImList<E>>of(
+      ImVector.Appender::new,
+      ImVector.Appender::add,
+      ImVector.Appender::combine,
+      ImVector.Appender::result
+    );
+  }
+
+  /**
+   * Wrap a list so that its stream is only run once. The first read of the
+   * result streams {@code list} into an array, and every later read uses the
+   * array. This suits lists built from a lazy pipeline that are read often.
+   * 
+   * @param <E>  the type of the elements
+   * @param list a list
+   * @return a list with the same elements, which streams {@code list} at most
+   *         once
+   * @see CachedImList#isMaterialized()
+   */
+  public static <E> CachedImList<E> cached(ImList<E> list) {
+    Objects.requireNonNull(list);
+    if (list instanceof CachedImList) {
+      return (CachedImList<E>) list;
+    }
+    return new CachedImList<>(list);
+  }
+
   /**
    * Add an element to the end of the list. This does not modify the input
-   * {@code list}.
+   * {@code list}. A vector is appended to in O(log n) time, and a list of
+   * fewer than four elements gives another small list. Any other list is
+   * joined to a new vector holding {@code elem}, and later calls append to
+   * that vector, so a list built up by repeated calls stays shallow.
    * 
    * @param <E>  the type of the elements in the list
    * @param list a list
@@ -37,15 +165,33 @@ public class ImListFns {
    */
   public static <E> ImList<E> add(ImList<E> list, E elem) {
     Objects.requireNonNull(list);
-    return new ImListImpl<>(
-      () -> Stream.concat(list.stream(), Stream.of(elem)),
-      list.size() + 1
-    );
+    if (list instanceof ImVector) {
+      return ((ImVector<E>) list).append(elem);
+    }
+    if (list instanceof ConcatImList) {
+      return ((ConcatImList<E>) list).append(elem);
+    }
+    if (list instanceof SmallImList) {
+      return ((SmallImList<E>) list).append(elem);
+    }
+    if (list.isEmpty()) {
+      return new SmallImList.List1<>(elem);
+    }
+    if (list instanceof AbstractImList) {
+      return ConcatImList.of((AbstractImList<E>) list, ImVector.of(elem));
+    }
+    return ImVector.from(list).append(elem);
   }
 
   /**
    * Add an element to the start of the list. This does not modify the input
-   * {@code list}.
+   * {@code list}. Adding to an empty list, or to a list of fewer than four
+   * elements, gives a small list that holds its elements in fields. Adding to
+   * a list of four gives a linked list, and adding to a linked list gives
+   * another one that shares {@code list} as its tail, so a list built from the
+   * front keeps constant-time addFirst, {@link #first} and {@link #dropFirst}.
+   * A vector is prepended to in O(log n) time, and any other list is joined to
+   * a new vector holding {@code elem}.
    * 
    * @param <E>  the type of the elements in the list
    * @param elem the element to add
@@ -54,10 +200,25 @@ public class ImListFns {
    */
   public static <E> ImList<E> addFirst(E elem, ImList<E> list) {
     Objects.requireNonNull(list);
-    return new ImListImpl<>(
-      () -> Stream.concat(Stream.of(elem), list.stream()),
-      list.size() + 1
-    );
+    if (list instanceof ConsImList) {
+      return ConsImList.cons(elem, (ConsImList<E>) list);
+    }
+    if (list.isEmpty()) {
+      return new SmallImList.List1<>(elem);
+    }
+    if (list instanceof ImVector) {
+      return ((ImVector<E>) list).prepend(elem);
+    }
+    if (list instanceof ConcatImList) {
+      return ((ConcatImList<E>) list).prepend(elem);
+    }
+    if (list instanceof SmallImList) {
+      return ((SmallImList<E>) list).prepend(elem);
+    }
+    if (list instanceof AbstractImList) {
+      return ConcatImList.of(ImVector.of(elem), (AbstractImList<E>) list);
+    }
+    return ImVector.from(list).prepend(elem);
   }
 
   /**
@@ -71,6 +232,9 @@ public class ImListFns {
    */
   public static <E> E first(ImList<E> list) {
     Objects.requireNonNull(list);
+    if (list instanceof ConsImList) {
+      return ((ConsImList<E>) list).head();
+    }
     return list
       .stream()
       .findFirst()
@@ -80,8 +244,9 @@ public class ImListFns {
   }
 
   /**
-   * Take the first element from the list. This does not modify the input
-   * {@code list}.
+   * Take the last element from the list. This does not modify the input
+   * {@code list}. It takes constant time for arrays, vectors and lists built
+   * with {@link #add}, and for views of them.
    * 
    * @param <E>  the type of the elements in the list
    * @param list a list
@@ -93,6 +258,9 @@ public class ImListFns {
     if (list.isEmpty())
       throw new NoSuchElementException("The list is empty");
 
+    if (list instanceof AbstractImList) {
+      return ((AbstractImList<E>) list).get(list.size() - 1);
+    }
     return list
       .stream()
       .skip(list.size() - 1)
@@ -104,7 +272,11 @@ public class ImListFns {
 
   /**
    * Take the first element out of the list, and return a new list containing the
-   * rest of the elements. This does not modify the input {@code list}.
+   * rest of the elements. This does not modify the input {@code list}. For a
+   * list built with {@link #addFirst} this takes constant time and returns the
+   * shared tail. For a random access list it takes constant time and returns a
+   * view, as {@link #slice} does. To add at one end and take from the other,
+   * use {@link ImQueueFns} instead.
    * 
    * @param <E>  the type of the elements in the list
    * @param list a list
@@ -112,18 +284,22 @@ public class ImListFns {
    */
   public static <E> ImList<E> dropFirst(ImList<E> list) {
     Objects.requireNonNull(list);
+    if (list instanceof ConsImList) {
+      return ((ConsImList<E>) list).tail();
+    }
     if (list.isEmpty()) {
       return ImListImpl.emptyList();
     }
-    return new ImListImpl<>(
-      () -> list.stream().skip(1),
-      list.size() - 1
-    );
+    return slice(list, 1, list.size());
   }
 
   /**
    * Take the last element out of the list, and return a new list containing the
-   * rest of the elements. This does not modify the input {@code list}.
+   * rest of the elements. This does not modify the input {@code list}. For a
+   * random access list it takes constant time and returns a view, as
+   * {@link #slice} does, so popping from the end repeatedly never copies. For
+   * a list built with {@link #add} it keeps the joined lists and slices the
+   * last one.
    * 
    * @param <E>  the type of the elements in the list
    * @param list a list
@@ -134,16 +310,189 @@ public class ImListFns {
     if (list.size() == 0) {
       return ImListImpl.emptyList();
     }
-    return new ImListImpl<>(
-      () -> list.stream().limit(list.size() - 1),
-      list.size() - 1
+    return slice(list, 0, list.size() - 1);
+  }
+
+  /**
+   * The elements of a list from index {@code from}, inclusive, to index
+   * {@code to}, exclusive. The result is a view that shares the storage of
+   * {@code list} and takes constant time to create. If {@code list} gives
+   * constant-time indexed access, so does the view.
+   * 
+   * @param <E>  the type of the elements in the list
+   * @param list a list
+   * @param from the index of the first element to include
+   * @param to   the index after the last element to include
+   * @return a list of the elements in the range
+   * @throws IndexOutOfBoundsException if {@code from} is negative or {@code to}
+   *                                   is greater than the size of the list
+   * @throws IllegalArgumentException  if {@code from} is greater than
+   *                                   {@code to}
+   */
+  public static <E> ImList<E> slice(ImList<E> list, int from, int to) {
+    Objects.requireNonNull(list);
+    AbstractImList.checkRange(from, to, list.size());
+    if (list instanceof AbstractImList) {
+      return ((AbstractImList<E>) list).slice(from, to);
+    }
+    if (from == 0 && to == list.size()) {
+      return list;
+    }
+    return AbstractImList.lazySlice(list, from, to);
+  }
+
+  /**
+   * The first {@code n} elements of a list, or all of them if there are fewer
+   * than {@code n}. See {@link #slice}.
+   * 
+   * @param <E>  the type of the elements in the list
+   * @param list a list
+   * @param n    the number of elements to keep
+   * @return a list of the first elements of {@code list}
+   * @throws IllegalArgumentException if {@code n} is negative
+   */
+  public static <E> ImList<E> take(ImList<E> list, int n) {
+    Objects.requireNonNull(list);
+    if (n < 0)
+      throw new IllegalArgumentException("n must not be negative: " + n);
+    return slice(list, 0, Math.min(n, list.size()));
+  }
+
+  /**
+   * All but the first {@code n} elements of a list, or an empty list if there
+   * are fewer than {@code n}. See {@link #slice}.
+   * 
+   * @param <E>  the type of the elements in the list
+   * @param list a list
+   * @param n    the number of elements to leave out
+   * @return a list of the remaining elements of {@code list}
+   * @throws IllegalArgumentException if {@code n} is negative
+   */
+  public static <E> ImList<E> drop(ImList<E> list, int n) {
+    Objects.requireNonNull(list);
+    if (n < 0)
+      throw new IllegalArgumentException("n must not be negative: " + n);
+    return slice(list, Math.min(n, list.size()), list.size());
+  }
+
+  /**
+   * Apply a function to each element of a list. The result is a lazy view: the
+   * function runs when an element is read, and runs again each time it is
+   * read. The view has the same size as {@code list}, and if {@code list} gives
+   * constant-time indexed access, so does the view. Mapping a mapped view
+   * composes the functions, so a chain of maps is still one pass over the
+   * original list. Mapping the result of {@link #filter} or {@link #flatMap}
+   * before it has been read extends its pipeline instead.
+   * 
+   * @param <E>  the type of the elements in the list
+   * @param <R>  the type of the elements in the result
+   * @param list a list
+   * @param fn   the function to apply
+   * @return a list of the results of {@code fn}, in the same order
+   */
+  public static <E, R> ImList<R> map(
+    ImList<E> list,
+    Function<? super E, ? extends R> fn
+  ) {
+    Objects.requireNonNull(list);
+    Objects.requireNonNull(fn);
+    if (list instanceof PipelineImList
+      && !((PipelineImList<E>) list).isMaterialized()) {
+      return new PipelineImList<>(() -> list.stream().map(fn));
+    }
+    return mapIndexed(list, (index, elem) -> fn.apply(elem));
+  }
+
+  /**
+   * Apply a function to each element of a list and its position. The result is
+   * a lazy view, as for {@link #map}.
+   * 
+   * @param <E>  the type of the elements in the list
+   * @param <R>  the type of the elements in the result
+   * @param list a list
+   * @param fn   the function to apply to each position and element
+   * @return a list of the results of {@code fn}, in the same order
+   */
+  @SuppressWarnings("unchecked")
+  public static <E, R> ImList<R> mapIndexed(
+    ImList<E> list,
+    IndexedFunction<? super E, ? extends R> fn
+  ) {
+    Objects.requireNonNull(list);
+    Objects.requireNonNull(fn);
+    if (list instanceof MappedImList) {
+      return ((MappedImList<?, E>) list).andThen(fn);
+    }
+    if (list instanceof AbstractImList
+      && ((AbstractImList<E>) list).randomAccess()) {
+      return new MappedImList<>((AbstractImList<E>) list, fn);
+    }
+    return ImListImpl
+      .derived(() -> indexedStream(list, fn), list.size(), list);
+  }
+
+  /**
+   * The source stream is sequential, and is read in order even when the
+   * stream over the result is split, so the counter matches the positions.
+   */
+  private static <E, R> Stream<R> indexedStream(
+    ImList<E> list,
+    IndexedFunction<? super E, ? extends R> fn
+  ) {
+    int[] index = new int[1];
+    return list.stream().map(elem -> fn.apply(index[0]++, elem));
+  }
+
+  /**
+   * Keep the elements of a list that match a predicate. The result is lazy:
+   * streaming it filters {@code list} as it goes, and the first call that needs
+   * its size or an element by position filters {@code list} once and stores
+   * the matching elements.
+   * 
+   * @param <E>       the type of the elements in the list
+   * @param list      a list
+   * @param predicate the test for elements to keep
+   * @return a list of the matching elements, in the same order
+   */
+  public static <E> ImList<E> filter(
+    ImList<E> list,
+    Predicate<? super E> predicate
+  ) {
+    Objects.requireNonNull(list);
+    Objects.requireNonNull(predicate);
+    return new PipelineImList<>(() -> list.stream().filter(predicate));
+  }
+
+  /**
+   * Replace each element of a list with the elements of another list, and join
+   * the results together. The result is lazy, as for {@link #filter}.
+   * 
+   * @param <E>  the type of the elements in the list
+   * @param <R>  the type of the elements in the result
+   * @param list a list
+   * @param fn   the function that gives the elements to replace each element
+   *             with
+   * @return a list of all of the elements returned by {@code fn}, in order
+   */
+  public static <E, R> ImList<R> flatMap(
+    ImList<E> list,
+    Function<? super E, ? extends ImList<? extends R>> fn
+  ) {
+    Objects.requireNonNull(list);
+    Objects.requireNonNull(fn);
+    return new PipelineImList<>(
+      () -> list.stream().flatMap(elem -> fn.apply(elem).stream())
     );
   }
 
   /**
    * Join two lists together. All of the elements of {@code a} will be first,
    * followed by all the elements of {@code b}. This does not modify either of the
-   * input lists.
+   * input lists. Two vectors are joined into a vector that shares structure
+   * with both. Other lists are joined by a node that keeps the size of
+   * {@code a}, so reading a position or taking a slice goes straight to the
+   * list that holds it. Stored lists of up to four elements in all are copied
+   * into a single small list instead.
    * 
    * @param <E> the type of the elements in the lists
    * @param a   the first list
@@ -153,9 +502,305 @@ public class ImListFns {
   public static <E> ImList<E> concat(ImList<E> a, ImList<E> b) {
     Objects.requireNonNull(a);
     Objects.requireNonNull(b);
-    return new ImListImpl<E>(
-      () -> Stream.concat(a.stream(), b.stream()),
-      a.size() + b.size()
-    );
+    if (b.isEmpty()) {
+      return a;
+    }
+    if (a.isEmpty()) {
+      return b;
+    }
+    if (a instanceof AbstractImList && b instanceof AbstractImList) {
+      return ConcatImList.of((AbstractImList<E>) a, (AbstractImList<E>) b);
+    }
+    return ImVector.from(a).concat(ImVector.from(b));
+  }
+
+  /**
+   * The elements of a list in reverse order. This takes constant time. For a
+   * random access list, or a join of random access lists, the result is a view
+   * that reads {@code list} by index from the end. Any other list is read
+   * through its {@link ImList#reverseStream()} when the result is streamed.
+   * Reversing a reversed view gives back the original list.
+   * 
+   * @param <E>  the type of the elements in the list
+   * @param list a list
+   * @return a list of the elements of {@code list}, last first
+   */
+  public static <E> ImList<E> reverse(ImList<E> list) {
+    Objects.requireNonNull(list);
+    if (list instanceof ReversedImList) {
+      return ((ReversedImList<E>) list).source();
+    }
+    if (list.size() < 2) {
+      return list;
+    }
+    if (list instanceof AbstractImList
+      && ((AbstractImList<E>) list).randomAccess()) {
+      return new ReversedImList<>((AbstractImList<E>) list);
+    }
+    return ImListImpl.derived(list::reverseStream, list.size(), list);
+  }
+
+  /**
+   * Add a value to the end of a list of {@code int} values. The values are
+   * copied into a new array.
+   * 
+   * @param list  a list
+   * @param value the value to add
+   * @return a new list that has {@code value} as the last value
+   */
+  public static IntImList add(IntImList list, int value) {
+    Objects.requireNonNull(list);
+    return list.append(value);
+  }
+
+  /**
+   * Add a value to the start of a list of {@code int} values. The values are
+   * copied into a new array.
+   * 
+   * @param value the value to add
+   * @param list  a list
+   * @return a new list that has {@code value} as the first value
+   */
+  public static IntImList addFirst(int value, IntImList list) {
+    Objects.requireNonNull(list);
+    return list.prepend(value);
+  }
+
+  /**
+   * Join two lists of {@code int} values. The values are copied into a new
+   * array, unless one of the lists is empty.
+   * 
+   * @param a the first list
+   * @param b the second list
+   * @return a new list containing the values of {@code a} and then {@code b}
+   */
+  public static IntImList concat(IntImList a, IntImList b) {
+    Objects.requireNonNull(a);
+    Objects.requireNonNull(b);
+    return a.concat(b);
+  }
+
+  /**
+   * Take the first value from a list of {@code int} values.
+   * 
+   * @param list a list
+   * @return the first value in the list, if the list is not empty
+   * @throws NoSuchElementException if the list is empty
+   */
+  public static int first(IntImList list) {
+    Objects.requireNonNull(list);
+    return list.first();
+  }
+
+  /**
+   * Take the last value from a list of {@code int} values.
+   * 
+   * @param list a list
+   * @return the last value in the list, if the list is not empty
+   * @throws NoSuchElementException if the list is empty
+   */
+  public static int last(IntImList list) {
+    Objects.requireNonNull(list);
+    return list.last();
+  }
+
+  /**
+   * Drop the first value from a list of {@code int} values. The result
+   * shares the array of {@code list}, so this takes constant time.
+   * 
+   * @param list a list
+   * @return a list containing all but the first value of {@code list}
+   */
+  public static IntImList dropFirst(IntImList list) {
+    Objects.requireNonNull(list);
+    return list.isEmpty() ? list : list.slice(1, list.size());
+  }
+
+  /**
+   * Drop the last value from a list of {@code int} values. The result shares
+   * the array of {@code list}, so this takes constant time.
+   * 
+   * @param list a list
+   * @return a list containing all but the last value of {@code list}
+   */
+  public static IntImList dropLast(IntImList list) {
+    Objects.requireNonNull(list);
+    return list.isEmpty() ? list : list.slice(0, list.size() - 1);
+  }
+
+  /**
+   * Add a value to the end of a list of {@code long} values. The values are
+   * copied into a new array.
+   * 
+   * @param list  a list
+   * @param value the value to add
+   * @return a new list that has {@code value} as the last value
+   */
+  public static LongImList add(LongImList list, long value) {
+    Objects.requireNonNull(list);
+    return list.append(value);
+  }
+
+  /**
+   * Add a value to the start of a list of {@code long} values. The values are
+   * copied into a new array.
+   * 
+   * @param value the value to add
+   * @param list  a list
+   * @return a new list that has {@code value} as the first value
+   */
+  public static LongImList addFirst(long value, LongImList list) {
+    Objects.requireNonNull(list);
+    return list.prepend(value);
+  }
+
+  /**
+   * Join two lists of {@code long} values. The values are copied into a new
+   * array, unless one of the lists is empty.
+   * 
+   * @param a the first list
+   * @param b the second list
+   * @return a new list containing the values of {@code a} and then {@code b}
+   */
+  public static LongImList concat(LongImList a, LongImList b) {
+    Objects.requireNonNull(a);
+    Objects.requireNonNull(b);
+    return a.concat(b);
+  }
+
+  /**
+   * Take the first value from a list of {@code long} values.
+   * 
+   * @param list a list
+   * @return the first value in the list, if the list is not empty
+   * @throws NoSuchElementException if the list is empty
+   */
+  public static long first(LongImList list) {
+    Objects.requireNonNull(list);
+    return list.first();
+  }
+
+  /**
+   * Take the last value from a list of {@code long} values.
+   * 
+   * @param list a list
+   * @return the last value in the list, if the list is not empty
+   * @throws NoSuchElementException if the list is empty
+   */
+  public static long last(LongImList list) {
+    Objects.requireNonNull(list);
+    return list.last();
+  }
+
+  /**
+   * Drop the first value from a list of {@code long} values. The result
+   * shares the array of {@code list}, so this takes constant time.
+   * 
+   * @param list a list
+   * @return a list containing all but the first value of {@code list}
+   */
+  public static LongImList dropFirst(LongImList list) {
+    Objects.requireNonNull(list);
+    return list.isEmpty() ? list : list.slice(1, list.size());
+  }
+
+  /**
+   * Drop the last value from a list of {@code long} values. The result shares
+   * the array of {@code list}, so this takes constant time.
+   * 
+   * @param list a list
+   * @return a list containing all but the last value of {@code list}
+   */
+  public static LongImList dropLast(LongImList list) {
+    Objects.requireNonNull(list);
+    return list.isEmpty() ? list : list.slice(0, list.size() - 1);
+  }
+
+  /**
+   * Add a value to the end of a list of {@code double} values. The values are
+   * copied into a new array.
+   * 
+   * @param list  a list
+   * @param value the value to add
+   * @return a new list that has {@code value} as the last value
+   */
+  public static DoubleImList add(DoubleImList list, double value) {
+    Objects.requireNonNull(list);
+    return list.append(value);
+  }
+
+  /**
+   * Add a value to the start of a list of {@code double} values. The values are
+   * copied into a new array.
+   * 
+   * @param value the value to add
+   * @param list  a list
+   * @return a new list that has {@code value} as the first value
+   */
+  public static DoubleImList addFirst(double value, DoubleImList list) {
+    Objects.requireNonNull(list);
+    return list.prepend(value);
+  }
+
+  /**
+   * Join two lists of {@code double} values. The values are copied into a new
+   * array, unless one of the lists is empty.
+   * 
+   * @param a the first list
+   * @param b the second list
+   * @return a new list containing the values of {@code a} and then {@code b}
+   */
+  public static DoubleImList concat(DoubleImList a, DoubleImList b) {
+    Objects.requireNonNull(a);
+    Objects.requireNonNull(b);
+    return a.concat(b);
+  }
+
+  /**
+   * Take the first value from a list of {@code double} values.
+   * 
+   * @param list a list
+   * @return the first value in the list, if the list is not empty
+   * @throws NoSuchElementException if the list is empty
+   */
+  public static double first(DoubleImList list) {
+    Objects.requireNonNull(list);
+    return list.first();
+  }
+
+  /**
+   * Take the last value from a list of {@code double} values.
+   * 
+   * @param list a list
+   * @return the last value in the list, if the list is not empty
+   * @throws NoSuchElementException if the list is empty
+   */
+  public static double last(DoubleImList list) {
+    Objects.requireNonNull(list);
+    return list.last();
+  }
+
+  /**
+   * Drop the first value from a list of {@code double} values. The result
+   * shares the array of {@code list}, so this takes constant time.
+   * 
+   * @param list a list
+   * @return a list containing all but the first value of {@code list}
+   */
+  public static DoubleImList dropFirst(DoubleImList list) {
+    Objects.requireNonNull(list);
+    return list.isEmpty() ? list : list.slice(1, list.size());
+  }
+
+  /**
+   * Drop the last value from a list of {@code double} values. The result shares
+   * the array of {@code list}, so this takes constant time.
+   * 
+   * @param list a list
+   * @return a list containing all but the last value of {@code list}
+   */
+  public static DoubleImList dropLast(DoubleImList list) {
+    Objects.requireNonNull(list);
+    return list.isEmpty() ? list : list.slice(0, list.size() - 1);
   }
 }
@@ -1,19 +1,18 @@
 package com.paulgreenlee.fn;
 
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
-import java.util.ListIterator;
 import java.util.Objects;
+import java.util.Spliterator;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>
  * A simple implementation of {@link ImList} that uses a Stream supplier
- * function to store elements.
+ * function to store elements. Lists created from an array with
+ * {@link #of(Object...)} are backed by the array directly instead, and give
+ * constant-time indexed access.
  * </p>
  * <p>
  * Along with {@code ImList} this class also implements {@link java.util.List}.
@@ -23,12 +22,19 @@ import java.util.stream.Stream;
  * {@code List} at runtime. This should improve interoperability with existing
  * code and libraries.
  * </p>
+ * <p>
+ * A lazy list counts how many times its stream is created. Once the count
+ * reaches {@link #getMaterializeThreshold()}, it runs its stream one last time,
+ * keeps the elements in an array, and streams from the array from then on. The
+ * threshold can be set with the {@value #MATERIALIZE_THRESHOLD_PROPERTY} system
+ * property or with {@link #setMaterializeThreshold(int)}.
+ * </p>
  * 
  * @author Paul Greenlee
  *
  * @param <E> the type of the elements in the list
  */
-public class ImListImpl<E> implements ImList<E>, List<E> {
+public class ImListImpl<E> extends AbstractImList<E> {
 
   @SuppressWarnings("rawtypes")
   private static final ImListImpl EMPTY_LIST = new ImListImpl<>(
@@ -36,13 +42,81 @@ public class ImListImpl<E> implements ImList<E>, List<E> {
     0
   );
 
+  /**
+   * The system property that sets the initial value of
+   * {@link #getMaterializeThreshold()}.
+   */
+  public static final String MATERIALIZE_THRESHOLD_PROPERTY = "com.paulgreenlee.fn.materializeThreshold";
+
+  private static final int DEFAULT_MATERIALIZE_THRESHOLD = 16;
+
+  private static volatile int materializeThreshold = Integer.getInteger(
+    MATERIALIZE_THRESHOLD_PROPERTY,
+    DEFAULT_MATERIALIZE_THRESHOLD
+  );
+
+  /**
+   * The deepest chain of lazy lists allowed under a derived list. Past this, the
+   * elements are copied into an array, so the cost of streaming a list depends
+   * on its size and not on how many edits produced it.
+   */
+  static final int MAX_DEPTH = 32;
+
   private final int size;
-  private final Supplier<Stream<E>> streamGen;
+  private volatile Supplier<Stream<E>> streamGen;
+  private final int depth;
+  /**
+   * Streams created so far, or -1 once the elements are stored. Updates may be
+   * lost under contention, which only delays materializing.
+   */
+  private int streamCount;
 
   ImListImpl(Supplier<Stream<E>> streamGen, int size) {
+    this(streamGen, size, 0);
+  }
+
+  private ImListImpl(Supplier<Stream<E>> streamGen, int size, int depth) {
     this.size = size;
     this.streamGen = Objects
       .requireNonNull(streamGen, "stream generator required");
+    this.depth = depth;
+  }
+
+  /**
+   * Create a lazy list whose stream is built from the streams of other lists.
+   * The new list is one level deeper than the deepest of its sources. If that
+   * would be more than {@link #MAX_DEPTH}, the stream is run once and the
+   * elements are kept in an array instead.
+   * 
+   * @param <E>       the type of elements in the list
+   * @param streamGen a stream supplier that reads from {@code sources}
+   * @param size      the number of elements {@code streamGen} produces
+   * @param sources   the lists that {@code streamGen} reads from
+   * @return a list with the elements from {@code streamGen}
+   */
+  static <E> ImListImpl<E> derived(
+    Supplier<Stream<E>> streamGen,
+    int size,
+    ImList<?>... sources
+  ) {
+    if (size == 0) {
+      return emptyList();
+    }
+    int depth = 0;
+    for (ImList<?> source : sources) {
+      if (source instanceof AbstractImList) {
+        depth = Math.max(depth, ((AbstractImList<?>) source).depth());
+      }
+    }
+    if (depth >= MAX_DEPTH) {
+      return ArrayImList.wrap(streamGen.get().toArray());
+    }
+    return new ImListImpl<>(streamGen, size, depth + 1);
+  }
+
+  @Override
+  int depth() {
+    return depth;
   }
 
   public int size() {
@@ -50,7 +124,53 @@ public class ImListImpl<E> implements ImList<E>, List<E> {
   }
 
   public Stream<E> stream() {
-    return streamGen.get();
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * The stream supplier's spliterator, made to report the list's size so that
+   * parallel streams can split it evenly.
+   */
+  @Override
+  public Spliterator<E> spliterator() {
+    if (streamCount >= 0) {
+      countStream();
+    }
+    return ImSpliterators.sized(streamGen.get().spliterator(), size);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void countStream() {
+    int threshold = materializeThreshold;
+    if (threshold <= 0 || size == 0 || ++streamCount < threshold) {
+      return;
+    }
+    streamCount = -1;
+    Object[] elements = streamGen.get().toArray();
+    streamGen = () -> (Stream<E>) Arrays.stream(elements);
+  }
+
+  /**
+   * How many times a lazy list's stream may be created before the list stores
+   * its elements in an array.
+   * 
+   * @return the current threshold; zero or less means lists never materialize
+   */
+  public static int getMaterializeThreshold() {
+    return materializeThreshold;
+  }
+
+  /**
+   * Set how many times a lazy list's stream may be created before the list
+   * stores its elements in an array. A low value trades memory for less
+   * repeated work. The change applies to lists that already exist as well as
+   * new ones.
+   * 
+   * @param threshold the number of streams to allow; zero or less turns
+   *                  materializing off
+   */
+  public static void setMaterializeThreshold(int threshold) {
+    materializeThreshold = threshold;
   }
 
   /**
@@ -64,11 +184,13 @@ public class ImListImpl<E> implements ImList<E>, List<E> {
    */
   public static <E> ImListImpl<E> of(ImList<E> other) {
     Objects.requireNonNull(other, "Non-null list required");
-    return new ImListImpl<>(() -> other.stream(), other.size());
+    return derived(() -> other.stream(), other.size(), other);
   }
 
   /**
-   * Create a list from a set of elements.
+   * Create a list from a set of elements. The elements are copied into an
+   * array-backed list, so indexed access takes constant time and later changes
+   * to the array are not seen by the list.
    * 
    * @param <E>      the type of the elements
    * @param elements the elements for ths list
@@ -77,10 +199,10 @@ public class ImListImpl<E> implements ImList<E>, List<E> {
   @SafeVarargs
   public static <E> ImListImpl<E> of(E... elements) {
     Objects.requireNonNull(elements, "Non-null array required");
-    return new ImListImpl<>(
-      () -> Arrays.stream(elements),
-      elements.length
-    );
+    if (elements.length == 0) {
+      return emptyList();
+    }
+    return ArrayImList.copyOf(elements);
   }
 
   /**
@@ -94,193 +216,4 @@ public class ImListImpl<E> implements ImList<E>, List<E> {
     return (ImListImpl<E>) EMPTY_LIST;
   }
 
-  @Override
-  public boolean isEmpty() {
-    return size == 0;
-  }
-
-  public boolean equals(Object other) {
-    if (other == null)
-      return false;
-    if (!(other instanceof ImList))
-      return false;
-    ImList<?> oList = (ImList<?>) other;
-    if (size != oList.size())
-      return false;
-    return StreamUtils
-      .zip(streamGen.get(), oList.stream())
-      .allMatch(pair -> Objects.equals(pair.getA(), pair.getB()));
-  }
-
-  // The following are simple implementations for the java.util.List interface for
-  // easier interoperability with other code.
-
-  @Override
-  public boolean contains(Object o) {
-    return streamGen.get().anyMatch(el -> el.equals(o));
-  }
-
-  @Override
-  public Iterator<E> iterator() {
-    return streamGen.get().iterator();
-  }
-
-  @Override
-  public Object[] toArray() {
-    return streamGen.get().toArray();
-  }
-
-  @Override
-  @SuppressWarnings("unchecked")
-  public <T> T[] toArray(final T[] a) {
-    return streamGen
-      .get()
-      .toArray(size -> (T[]) Arrays.copyOf(a, size, a.getClass()));
-  }
-
-  @Override
-  public E get(int index) {
-    if (index < 0 || index >= size) {
-      throw new IndexOutOfBoundsException(index);
-    }
-    return streamGen.get().skip(index).findFirst().orElseThrow();
-  }
-
-  @Override
-  public int indexOf(Object o) {
-    return StreamUtils
-      .zip(StreamUtils.integers(0), streamGen.get())
-      .filter(item -> item.getB().equals(o))
-      .findFirst()
-      .map(Tuples.Two::getA)
-      .orElse(0);
-  }
-
-  @Override
-  public int lastIndexOf(Object o) {
-    return StreamUtils
-      .zip(StreamUtils.integers(0), streamGen.get())
-      .filter(item -> item.getB().equals(o))
-      .map(Tuples.Two::getA)
-      .reduce(Math::max)
-      .orElse(0);
-  }
-
-  @Override
-  public ListIterator<E> listIterator() {
-    return streamGen
-      .get()
-      .collect(Collectors.toList())
-      .listIterator();
-  }
-
-  @Override
-  public ListIterator<E> listIterator(int index) {
-    return streamGen
-      .get()
-      .collect(Collectors.toList())
-      .listIterator(index);
-  }
-
-  @Override
-  public List<E> subList(int fromIndex, int toIndex) {
-    if (fromIndex < 0 || toIndex > size)
-      throw new IndexOutOfBoundsException(
-        "range [" + fromIndex + ", " + toIndex
-          + ") is invalid for list of size " + size
-      );
-    if (fromIndex > toIndex)
-      throw new IllegalArgumentException(
-        "fromIndex is greater than toIndex for range [" + fromIndex
-          + ", " + toIndex + ")"
-      );
-    return StreamUtils
-      .zip(StreamUtils.integers(0), streamGen.get())
-      .dropWhile(two -> two.getA() < fromIndex)
-      .takeWhile(two -> two.getA() < toIndex)
-      .map(Tuples.Two::getB)
-      .collect(Collectors.toList());
-  }
-
-  @Override
-  public boolean containsAll(Collection<?> c) {
-    return c
-      .stream()
-      .allMatch(
-        otherEl -> streamGen
-          .get()
-          .anyMatch(item -> item.equals(otherEl))
-      );
-  }
-
-  @Override
-  public boolean add(E e) {
-    throw new UnsupportedOperationException(
-      "add not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public boolean remove(Object o) {
-    throw new UnsupportedOperationException(
-      "remove not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public boolean addAll(Collection<? extends E> c) {
-    throw new UnsupportedOperationException(
-      "addAll not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public boolean addAll(int index, Collection<? extends E> c) {
-    throw new UnsupportedOperationException(
-      "addAll not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public boolean removeAll(Collection<?> c) {
-    throw new UnsupportedOperationException(
-      "removeAll not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public boolean retainAll(Collection<?> c) {
-    throw new UnsupportedOperationException(
-      "retainAll not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public void clear() {
-    throw new UnsupportedOperationException(
-      "clear not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public E set(int index, E element) {
-    throw new UnsupportedOperationException(
-      "set not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public void add(int index, E element) {
-    throw new UnsupportedOperationException(
-      "add not allowed on an immutable list"
-    );
-  }
-
-  @Override
-  public E remove(int index) {
-    throw new UnsupportedOperationException(
-      "remove not allowed on an immutable list"
-    );
-  }
-
 }
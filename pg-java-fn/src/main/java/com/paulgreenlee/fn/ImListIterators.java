@@ -0,0 +1,210 @@
+package com.paulgreenlee.fn;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only {@link ListIterator} implementations for the lists in this
+ * package. None of them copy the list up front.
+ *
+ * @author Paul Greenlee
+ */
+final class ImListIterators {
+
+  private ImListIterators() {
+
+  }
+
+  /**
+   * A list iterator that reads elements by index.
+   *
+   * @param <E>   the type of the elements
+   * @param get   a function from index to element
+   * @param size  the number of elements
+   * @param index the index of the first element {@code next} will return
+   * @return a list iterator over indexes {@code 0} to {@code size - 1}
+   */
+  static <E> ListIterator<E> indexed(
+    IntFunction<? extends E> get,
+    int size,
+    int index
+  ) {
+    checkIndex(index, size);
+    return new IndexListIterator<>(get, size, index);
+  }
+
+  /**
+   * A list iterator that pulls elements from an iterator as it moves forward,
+   * and keeps the ones it has passed so that it can move back again.
+   *
+   * @param <E>    the type of the elements
+   * @param source an iterator over {@code size} elements
+   * @param size   the number of elements
+   * @param index  the index of the first element {@code next} will return
+   * @return a list iterator over the elements of {@code source}
+   */
+  static <E> ListIterator<E> buffering(
+    Iterator<? extends E> source,
+    int size,
+    int index
+  ) {
+    checkIndex(index, size);
+    ListIterator<E> iter = new BufferingListIterator<>(source, size);
+    for (int i = 0; i < index; i++) {
+      iter.next();
+    }
+    return iter;
+  }
+
+  /**
+   * An iterator that walks back from the position of a list iterator to the
+   * start.
+   *
+   * @param <E>  the type of the elements
+   * @param iter a list iterator
+   * @return an iterator over the elements before {@code iter}'s position, last
+   *         first
+   */
+  static <E> Iterator<E> descending(ListIterator<? extends E> iter) {
+    return new Iterator<E>() {
+      @Override
+      public boolean hasNext() {
+        return iter.hasPrevious();
+      }
+
+      @Override
+      public E next() {
+        return iter.previous();
+      }
+    };
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException(
+        "Index: " + index + ", Size: " + size
+      );
+    }
+  }
+
+  private abstract static class ReadOnlyListIterator<E>
+    implements ListIterator<E> {
+
+    final int size;
+    int cursor;
+
+    ReadOnlyListIterator(int size, int cursor) {
+      this.size = size;
+      this.cursor = cursor;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return cursor < size;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+      return cursor > 0;
+    }
+
+    @Override
+    public int nextIndex() {
+      return cursor;
+    }
+
+    @Override
+    public int previousIndex() {
+      return cursor - 1;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException(
+        "remove not allowed on an immutable list"
+      );
+    }
+
+    @Override
+    public void set(E e) {
+      throw new UnsupportedOperationException(
+        "set not allowed on an immutable list"
+      );
+    }
+
+    @Override
+    public void add(E e) {
+      throw new UnsupportedOperationException(
+        "add not allowed on an immutable list"
+      );
+    }
+  }
+
+  private static final class IndexListIterator<E>
+    extends ReadOnlyListIterator<E> {
+
+    private final IntFunction<? extends E> get;
+
+    IndexListIterator(IntFunction<? extends E> get, int size, int cursor) {
+      super(size, cursor);
+      this.get = get;
+    }
+
+    @Override
+    public E next() {
+      if (cursor >= size)
+        throw new NoSuchElementException();
+      return get.apply(cursor++);
+    }
+
+    @Override
+    public E previous() {
+      if (cursor <= 0)
+        throw new NoSuchElementException();
+      return get.apply(--cursor);
+    }
+  }
+
+  private static final class BufferingListIterator<E>
+    extends ReadOnlyListIterator<E> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Iterator<? extends E> source;
+    private Object[] buffer;
+    private int buffered;
+
+    BufferingListIterator(Iterator<? extends E> source, int size) {
+      super(size, 0);
+      this.source = source;
+      this.buffer = new Object[Math.min(size, INITIAL_CAPACITY)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+      if (cursor >= size)
+        throw new NoSuchElementException();
+      if (cursor == buffered) {
+        if (buffered == buffer.length) {
+          buffer = Arrays
+            .copyOf(buffer, (int) Math.min(size, buffered * 2L));
+        }
+        buffer[buffered++] = source.next();
+      }
+      return (E) buffer[cursor++];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E previous() {
+      if (cursor <= 0)
+        throw new NoSuchElementException();
+      return (E) buffer[--cursor];
+    }
+  }
+
+}
@@ -0,0 +1,46 @@
+package com.paulgreenlee.fn;
+
+import java.util.stream.Stream;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * A simple map interface. Like {@link ImList}, it does not inherit from the
+ * native {@link java.util.Map}, because that interface assumes the map can be
+ * changed. This interface assumes that implementations are immutable, so code
+ * that receives one does not need to copy it defensively or wrap it in an
+ * unmodifiable wrapper.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <K> the type of the keys of the map
+ * @param <V> the type of the values of the map
+ * @implSpec implementations of this interface must be immutable
+ * @see ImMapFns
+ */
+public interface ImMap<K, V> {
+
+  /**
+   * The number of keys in the map.
+   *
+   * @return the number of keys in the map
+   */
+  int size();
+
+  /**
+   * Is the map empty?
+   *
+   * @return true if the map has no keys
+   */
+  boolean isEmpty();
+
+  /**
+   * Stream the keys and values of the map, as tuples of a key and its value.
+   * The order is not defined. See {@link ImMapFns} for helper functions to work
+   * with maps.
+   *
+   * @return a stream of the entries
+   */
+  Stream<Two<K, V>> stream();
+
+}
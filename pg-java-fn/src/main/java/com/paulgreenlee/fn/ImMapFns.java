@@ -0,0 +1,219 @@
+package com.paulgreenlee.fn;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * A collection of functions for working with {@link ImMap}. None of them
+ * modify the maps they are given. Functions that change a map return a new map
+ * that shares most of its structure with the original.
+ *
+ * @author Paul Greenlee
+ */
+public class ImMapFns {
+
+  private ImMapFns() {
+  }
+
+  /**
+   * Create an empty map.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @return an empty map
+   */
+  public static <K, V> ImMap<K, V> empty() {
+    return ImMapImpl.empty();
+  }
+
+  /**
+   * Create a map from a set of entries. If a key appears more than once, the
+   * last value for it is kept.
+   *
+   * @param <K>     the type of the keys
+   * @param <V>     the type of the values
+   * @param entries tuples of a key and its value
+   * @return a map of the entries
+   */
+  @SafeVarargs
+  public static <K, V> ImMap<K, V> mapOf(
+    Two<? extends K, ? extends V>... entries
+  ) {
+    Objects.requireNonNull(entries, "Non-null array required");
+    ImMapImpl<K, V> result = ImMapImpl.empty();
+    for (Two<? extends K, ? extends V> entry : entries) {
+      result = result.plus(entry.getA(), entry.getB());
+    }
+    return result;
+  }
+
+  /**
+   * Copy the keys and values of a {@link Map}. Later changes to the map are not
+   * seen by the copy.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map to copy
+   * @return an immutable map with the same keys and values
+   */
+  public static <K, V> ImMap<K, V> fromMap(Map<? extends K, ? extends V> map) {
+    Objects.requireNonNull(map);
+    ImMapImpl<K, V> result = ImMapImpl.empty();
+    for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      result = result.plus(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Set the value for a key. This takes O(log<sub>32</sub> n) time. If the key
+   * already has this exact value, the input map is returned.
+   *
+   * @param <K>   the type of the keys
+   * @param <V>   the type of the values
+   * @param map   a map
+   * @param key   the key to set
+   * @param value the value for {@code key}
+   * @return a map with {@code key} set to {@code value}
+   */
+  public static <K, V> ImMap<K, V> put(ImMap<K, V> map, K key, V value) {
+    return impl(map).plus(key, value);
+  }
+
+  /**
+   * Remove a key and its value. This takes O(log<sub>32</sub> n) time. If the
+   * key is not in the map, the input map is returned.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key the key to remove
+   * @return a map without {@code key}
+   */
+  public static <K, V> ImMap<K, V> remove(ImMap<K, V> map, Object key) {
+    return impl(map).minus(key);
+  }
+
+  /**
+   * Look up the value for a key. A key whose value is {@code null} gives an
+   * empty result too; use {@link #containsKey} to tell the two apart.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key the key to look up
+   * @return the value for {@code key}, if there is one and it is not
+   *         {@code null}
+   */
+  public static <K, V> Optional<V> get(ImMap<K, V> map, Object key) {
+    return Optional.ofNullable(impl(map).get(key));
+  }
+
+  /**
+   * Look up the value for a key, or use a default if the map does not have the
+   * key.
+   *
+   * @param <K>          the type of the keys
+   * @param <V>          the type of the values
+   * @param map          a map
+   * @param key          the key to look up
+   * @param defaultValue the result if {@code key} is not in the map
+   * @return the value for {@code key}, or {@code defaultValue}
+   */
+  public static <K, V> V getOrDefault(
+    ImMap<K, V> map,
+    Object key,
+    V defaultValue
+  ) {
+    return impl(map).getOrDefault(key, defaultValue);
+  }
+
+  /**
+   * Does the map have a key?
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key the key to look for
+   * @return true if {@code key} is in the map
+   */
+  public static <K, V> boolean containsKey(ImMap<K, V> map, Object key) {
+    return impl(map).containsKey(key);
+  }
+
+  /**
+   * A read-only {@link Map} view of the map. This takes constant time.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @return a {@code Map} with the keys and values of {@code map}
+   */
+  public static <K, V> Map<K, V> asMap(ImMap<K, V> map) {
+    return impl(map);
+  }
+
+  /**
+   * A collector that gathers the elements of a stream into a map. If two
+   * elements give the same key, the value from the later one is kept.
+   *
+   * @param <T>     the type of the elements
+   * @param <K>     the type of the keys
+   * @param <V>     the type of the values
+   * @param keyFn   makes a key from an element
+   * @param valueFn makes a value from an element
+   * @return a collector that gives a map of the keys and values
+   */
+  public static <T, K, V> Collector<T, ?, ImMap<K, V>> toImMap(
+    Function<? super T, ? extends K> keyFn,
+    Function<? super T, ? extends V> valueFn
+  ) {
+    Objects.requireNonNull(keyFn);
+    Objects.requireNonNull(valueFn);
+    return Collector.<T, Accumulator<K, V>, ImMap<K, V>>of(
+      Accumulator::new,
+      (acc, elem) -> acc.map = acc.map
+        .plus(keyFn.apply(elem), valueFn.apply(elem)),
+      Accumulator::combine,
+      acc -> acc.map
+    );
+  }
+
+  /**
+   * A collector that gathers tuples of a key and a value into a map, such as
+   * the stream of another map. If a key appears more than once, the last value
+   * for it is kept.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @return a collector that gives a map of the entries
+   */
+  public static <K, V> Collector<Two<K, V>, ?, ImMap<K, V>> toImMap() {
+    return toImMap(Two::getA, Two::getB);
+  }
+
+  private static <K, V> ImMapImpl<K, V> impl(ImMap<K, V> map) {
+    Objects.requireNonNull(map);
+    if (map instanceof ImMapImpl) {
+      return (ImMapImpl<K, V>) map;
+    }
+    return (ImMapImpl<K, V>) map.stream().collect(ImMapFns.<K, V>toImMap());
+  }
+
+  private static final class Accumulator<K, V> {
+    private ImMapImpl<K, V> map = ImMapImpl.empty();
+
+    private Accumulator<K, V> combine(Accumulator<K, V> other) {
+      for (Map.Entry<K, V> entry : other.map.entrySet()) {
+        map = map.plus(entry.getKey(), entry.getValue());
+      }
+      return this;
+    }
+  }
+
+}
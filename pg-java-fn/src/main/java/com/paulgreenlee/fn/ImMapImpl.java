@@ -0,0 +1,206 @@
+package com.paulgreenlee.fn;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.paulgreenlee.fn.HashTrie.Change;
+import com.paulgreenlee.fn.HashTrie.Node;
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * <p>
+ * An {@link ImMap} stored in a persistent hash array mapped trie. Looking up,
+ * adding and removing a key take O(log<sub>32</sub> n) time, and each new
+ * version of the map shares all of the untouched parts of the trie with the
+ * version it came from. Keys and values may be {@code null}.
+ * </p>
+ * <p>
+ * Along with {@code ImMap} this class also implements {@link java.util.Map},
+ * in the same way that {@link ImListImpl} implements {@link java.util.List},
+ * so that it can be handed to code that expects a {@code Map}. All of the
+ * mutating methods of {@code Map} throw {@link UnsupportedOperationException}.
+ * Use {@link ImMapFns} to make changed copies instead.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <K> the type of the keys of the map
+ * @param <V> the type of the values of the map
+ */
+public final class ImMapImpl<K, V> extends AbstractMap<K, V>
+  implements ImMap<K, V> {
+
+  @SuppressWarnings("rawtypes")
+  private static final ImMapImpl EMPTY = new ImMapImpl<>(HashTrie.EMPTY, 0);
+
+  private static final int CHARACTERISTICS = Spliterator.DISTINCT
+    | Spliterator.IMMUTABLE;
+
+  private final Node root;
+  private final int size;
+
+  private ImMapImpl(Node root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Create an empty map.
+   *
+   * @param <K> the type of the keys (that would be) in the map
+   * @param <V> the type of the values (that would be) in the map
+   * @return an empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> ImMapImpl<K, V> empty() {
+    return (ImMapImpl<K, V>) EMPTY;
+  }
+
+  static <K, V> ImMapImpl<K, V> of(Node root, int size) {
+    return size == 0 ? empty() : new ImMapImpl<>(root, size);
+  }
+
+  Node root() {
+    return root;
+  }
+
+  /**
+   * A copy of this map with a key set to a value. Returns this map if the key
+   * already has that exact value.
+   */
+  ImMapImpl<K, V> plus(K key, V value) {
+    Change change = new Change();
+    Node newRoot = root.put(key, value, HashTrie.hash(key), 0, change);
+    if (newRoot == root) {
+      return this;
+    }
+    return new ImMapImpl<>(newRoot, change.added ? size + 1 : size);
+  }
+
+  /**
+   * A copy of this map without a key. Returns this map if it does not have the
+   * key.
+   */
+  ImMapImpl<K, V> minus(Object key) {
+    Change change = new Change();
+    Node newRoot = root.remove(key, HashTrie.hash(key), 0, change);
+    if (newRoot == root) {
+      return this;
+    }
+    return of(newRoot, size - 1);
+  }
+
+  /**
+   * The value for a key, or {@link HashTrie#NOT_FOUND}.
+   */
+  Object lookup(Object key) {
+    return root.get(key, HashTrie.hash(key), 0);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return lookup(key) != HashTrie.NOT_FOUND;
+  }
+
+  @Override
+  public V get(Object key) {
+    return getOrDefault(key, null);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V getOrDefault(Object key, V defaultValue) {
+    Object value = lookup(key);
+    return value == HashTrie.NOT_FOUND ? defaultValue : (V) value;
+  }
+
+  @Override
+  public Stream<Two<K, V>> stream() {
+    return StreamSupport.stream(
+      Spliterators.spliterator(
+        entries(Tuples::<K, V>of),
+        size,
+        CHARACTERISTICS
+      ),
+      false
+    );
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Iterator<T> entries(BiFunction<K, V, T> entry) {
+    return HashTrie.iterator(root, (k, v) -> entry.apply((K) k, (V) v));
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return entries(SimpleImmutableEntry::new);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        if (!(o instanceof Map.Entry))
+          return false;
+        Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+        Object value = lookup(e.getKey());
+        return value != HashTrie.NOT_FOUND
+          && Objects.equals(value, e.getValue());
+      }
+    };
+  }
+
+  @Override
+  public V put(K key, V value) {
+    throw new UnsupportedOperationException(
+      "put not allowed on an immutable map"
+    );
+  }
+
+  @Override
+  public V remove(Object key) {
+    throw new UnsupportedOperationException(
+      "remove not allowed on an immutable map"
+    );
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> m) {
+    throw new UnsupportedOperationException(
+      "putAll not allowed on an immutable map"
+    );
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException(
+      "clear not allowed on an immutable map"
+    );
+  }
+
+}
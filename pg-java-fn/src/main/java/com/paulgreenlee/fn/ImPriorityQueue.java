@@ -0,0 +1,52 @@
+package com.paulgreenlee.fn;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A priority queue, which gives up its elements least first. Like
+ * {@link ImList}, it does not inherit from the native
+ * {@link java.util.Queue}, because that interface assumes the queue can be
+ * changed. This interface assumes that implementations are immutable, so any
+ * version of a queue can be kept as a snapshot and gone back to later.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the queue
+ * @implSpec implementations of this interface must be immutable
+ * @see ImPriorityQueueFns
+ */
+public interface ImPriorityQueue<E> {
+
+  /**
+   * The number of elements in the queue.
+   *
+   * @return the number of elements in the queue
+   */
+  int size();
+
+  /**
+   * Is the queue empty?
+   *
+   * @return true if the queue has no elements
+   */
+  boolean isEmpty();
+
+  /**
+   * The order of the elements.
+   *
+   * @return the comparator for the elements, or {@code null} if the elements
+   *         are in their natural order
+   */
+  Comparator<? super E> comparator();
+
+  /**
+   * Stream the elements of the queue, least first. Elements that compare as
+   * equal come out in no particular order. See {@link ImPriorityQueueFns} for
+   * helper functions to work with priority queues.
+   *
+   * @return a stream of the elements
+   */
+  Stream<E> stream();
+
+}
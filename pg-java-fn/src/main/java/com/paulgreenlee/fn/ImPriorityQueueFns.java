@@ -0,0 +1,219 @@
+package com.paulgreenlee.fn;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * A collection of functions for working with {@link ImPriorityQueue}. None of
+ * them modify the queues they are given. Functions that change a queue return
+ * a new queue that shares most of its structure with the original.
+ *
+ * @author Paul Greenlee
+ */
+public class ImPriorityQueueFns {
+
+  /**
+   * Orders tuples by their first value, the priority. One instance is shared
+   * so that queues made by {@link #byPriority} can be melded in constant time.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private static final Comparator<Two<Comparable, ?>> BY_PRIORITY = (a, b) -> a
+    .getA()
+    .compareTo(b.getA());
+
+  private ImPriorityQueueFns() {
+  }
+
+  /**
+   * Create an empty queue whose elements are in their natural order.
+   *
+   * @param <E> the type of the elements
+   * @return an empty queue
+   */
+  public static <E extends Comparable<? super E>> ImPriorityQueue<E> empty() {
+    return ImPriorityQueueImpl.empty();
+  }
+
+  /**
+   * Create an empty queue whose elements are ordered by a comparator.
+   *
+   * @param <E>        the type of the elements
+   * @param comparator the order of the elements
+   * @return an empty queue
+   */
+  public static <E> ImPriorityQueue<E> empty(
+    Comparator<? super E> comparator
+  ) {
+    Objects.requireNonNull(comparator);
+    return ImPriorityQueueImpl.empty(comparator);
+  }
+
+  /**
+   * Create an empty queue of tuples of a priority and a payload, ordered by
+   * priority alone. Payloads with equal priorities come out in no particular
+   * order.
+   *
+   * @param <P> the type of the priorities
+   * @param <T> the type of the payloads
+   * @return an empty queue
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public static <P extends Comparable<? super P>, T>
+    ImPriorityQueue<Two<P, T>> byPriority() {
+    return ImPriorityQueueImpl.empty((Comparator) BY_PRIORITY);
+  }
+
+  /**
+   * Create a queue of the elements of a list.
+   *
+   * @param <E>        the type of the elements
+   * @param list       a list
+   * @param comparator the order of the elements, or {@code null} for their
+   *                   natural order
+   * @return a queue of the elements of {@code list}
+   */
+  public static <E> ImPriorityQueue<E> fromList(
+    ImList<E> list,
+    Comparator<? super E> comparator
+  ) {
+    Objects.requireNonNull(list);
+    return list.stream().collect(toImPriorityQueue(comparator));
+  }
+
+  /**
+   * Add an element. This takes constant time.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @param elem  the element to add
+   * @return a queue with {@code elem}
+   */
+  public static <E> ImPriorityQueue<E> insert(
+    ImPriorityQueue<E> queue,
+    E elem
+  ) {
+    return impl(queue).plus(elem);
+  }
+
+  /**
+   * Add a payload with a priority to a queue of tuples, such as one made by
+   * {@link #byPriority}. This takes constant time.
+   *
+   * @param <P>      the type of the priorities
+   * @param <T>      the type of the payloads
+   * @param queue    a queue
+   * @param priority the priority of {@code payload}
+   * @param payload  the payload to add
+   * @return a queue with the tuple of {@code priority} and {@code payload}
+   */
+  public static <P, T> ImPriorityQueue<Two<P, T>> insert(
+    ImPriorityQueue<Two<P, T>> queue,
+    P priority,
+    T payload
+  ) {
+    return impl(queue).plus(Tuples.of(priority, payload));
+  }
+
+  /**
+   * The least element. This takes constant time.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @return the least element of {@code queue}
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public static <E> E findMin(ImPriorityQueue<E> queue) {
+    return impl(queue).peek();
+  }
+
+  /**
+   * Remove the least element. This takes O(log n) time. Removing from an
+   * empty queue gives the empty queue.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @return a queue of all but the least element of {@code queue}
+   */
+  public static <E> ImPriorityQueue<E> deleteMin(ImPriorityQueue<E> queue) {
+    return impl(queue).rest();
+  }
+
+  /**
+   * The elements of two queues together. If the queues have the same order
+   * this takes constant time. Otherwise the elements of {@code b} are added to
+   * {@code a} one at a time. The result is in the order of {@code a}.
+   *
+   * @param <E> the type of the elements
+   * @param a   a queue
+   * @param b   another queue
+   * @return a queue of the elements of {@code a} and {@code b}
+   */
+  public static <E> ImPriorityQueue<E> meld(
+    ImPriorityQueue<E> a,
+    ImPriorityQueue<E> b
+  ) {
+    return impl(a).meld(impl(b));
+  }
+
+  /**
+   * Copy the elements of a queue into a list, least first. This takes
+   * O(n log n) time.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @return a sorted list of the elements of {@code queue}
+   */
+  public static <E> ImList<E> toList(ImPriorityQueue<E> queue) {
+    Objects.requireNonNull(queue);
+    ImListBuilder<E> builder = new ImListBuilder<>(queue.size());
+    queue.stream().forEachOrdered(builder::add);
+    return builder.build();
+  }
+
+  /**
+   * A collector that gathers the elements of a stream into a priority queue.
+   * The partial results of a parallel stream are joined with {@link #meld}.
+   *
+   * @param <E>        the type of the elements
+   * @param comparator the order of the elements, or {@code null} for their
+   *                   natural order
+   * @return a collector that gives a queue of the elements
+   */
+  public static <E> Collector<E, ?, ImPriorityQueue<E>> toImPriorityQueue(
+    Comparator<? super E> comparator
+  ) {
+    return Collector.<E, Accumulator<E>, ImPriorityQueue<E>>of(
+      () -> new Accumulator<>(comparator),
+      (acc, elem) -> acc.queue = acc.queue.plus(elem),
+      (left, right) -> {
+        left.queue = left.queue.meld(right.queue);
+        return left;
+      },
+      acc -> acc.queue,
+      Collector.Characteristics.UNORDERED
+    );
+  }
+
+  private static <E> ImPriorityQueueImpl<E> impl(ImPriorityQueue<E> queue) {
+    Objects.requireNonNull(queue);
+    if (queue instanceof ImPriorityQueueImpl) {
+      return (ImPriorityQueueImpl<E>) queue;
+    }
+    return (ImPriorityQueueImpl<E>) queue
+      .stream()
+      .collect(ImPriorityQueueFns.<E>toImPriorityQueue(queue.comparator()));
+  }
+
+  private static final class Accumulator<E> {
+    private ImPriorityQueueImpl<E> queue;
+
+    private Accumulator(Comparator<? super E> comparator) {
+      queue = ImPriorityQueueImpl.empty(comparator);
+    }
+  }
+
+}
@@ -0,0 +1,232 @@
+package com.paulgreenlee.fn;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.paulgreenlee.fn.SkewHeap.Tree;
+import com.paulgreenlee.fn.SkewHeap.Trees;
+
+/**
+ * <p>
+ * An {@link ImPriorityQueue} stored as a bootstrapped skew binomial heap, after
+ * Brodal and Okasaki. The queue keeps its least element apart, and the rest of
+ * its elements in a {@link SkewHeap} of smaller queues ordered by their least
+ * elements. Finding the least element, inserting and melding two queues take
+ * constant time, and removing the least element takes O(log n) time.
+ * </p>
+ * <p>
+ * These bounds hold for every operation, not just on average over a sequence
+ * of them, so they still hold when an old version of a queue is kept as a
+ * snapshot and used again. Every version shares its structure with the
+ * versions it was made from.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the queue
+ */
+public final class ImPriorityQueueImpl<E> implements ImPriorityQueue<E> {
+
+  @SuppressWarnings("rawtypes")
+  private static final ImPriorityQueueImpl EMPTY = new ImPriorityQueueImpl<>(
+    Order.NATURAL,
+    null,
+    null,
+    0
+  );
+
+  private final Order order;
+  private final E min;
+
+  /**
+   * The other elements, in smaller queues ordered by their least elements.
+   */
+  private final Trees rest;
+  private final int size;
+
+  private ImPriorityQueueImpl(Order order, E min, Trees rest, int size) {
+    this.order = order;
+    this.min = min;
+    this.rest = rest;
+    this.size = size;
+  }
+
+  /**
+   * Create an empty queue whose elements are in their natural order.
+   *
+   * @param <E> the type of elements (that would be) in the queue
+   * @return an empty queue
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> ImPriorityQueueImpl<E> empty() {
+    return (ImPriorityQueueImpl<E>) EMPTY;
+  }
+
+  /**
+   * Create an empty queue whose elements are ordered by a comparator.
+   *
+   * @param <E>        the type of elements (that would be) in the queue
+   * @param comparator the order of the elements, or {@code null} for their
+   *                   natural order
+   * @return an empty queue
+   */
+  public static <E> ImPriorityQueueImpl<E> empty(
+    Comparator<? super E> comparator
+  ) {
+    return comparator == null
+      ? empty()
+      : new ImPriorityQueueImpl<>(new Order(comparator), null, null, 0);
+  }
+
+  /**
+   * A copy of this queue with an element added.
+   */
+  ImPriorityQueueImpl<E> plus(E elem) {
+    return meld(new ImPriorityQueueImpl<>(order, elem, null, 1));
+  }
+
+  /**
+   * The elements of both queues, in the order of this one.
+   */
+  ImPriorityQueueImpl<E> meld(ImPriorityQueueImpl<E> other) {
+    if (!Objects.equals(comparator(), other.comparator())) {
+      ImPriorityQueueImpl<E> result = this;
+      for (Iterator<E> it = other.iterator(); it.hasNext();) {
+        result = result.plus(it.next());
+      }
+      return result;
+    }
+    if (other.size == 0) {
+      return this;
+    }
+    if (size == 0) {
+      return other;
+    }
+    int total = size + other.size;
+    if (order.elements.compare(min, other.min) <= 0) {
+      return new ImPriorityQueueImpl<>(
+        order,
+        min,
+        SkewHeap.insert(other, rest, order.queues),
+        total
+      );
+    }
+    return new ImPriorityQueueImpl<>(
+      order,
+      other.min,
+      SkewHeap.insert(this, other.rest, order.queues),
+      total
+    );
+  }
+
+  /**
+   * The least element.
+   */
+  E peek() {
+    if (size == 0) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    return min;
+  }
+
+  /**
+   * A copy of this queue without its least element. The empty queue is
+   * returned as it is.
+   */
+  ImPriorityQueueImpl<E> rest() {
+    if (size <= 1) {
+      return empty(comparator());
+    }
+    Tree tree = SkewHeap.minTree(rest, order.queues);
+    @SuppressWarnings("unchecked")
+    ImPriorityQueueImpl<E> next = (ImPriorityQueueImpl<E>) tree.root;
+    Trees others = SkewHeap.deleteMin(rest, tree, order.queues);
+    return new ImPriorityQueueImpl<>(
+      order,
+      next.min,
+      SkewHeap.meld(next.rest, others, order.queues),
+      size - 1
+    );
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Comparator<? super E> comparator() {
+    return (Comparator<? super E>) order.comparator;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(
+      ImSpliterators.sized(
+        Spliterators.spliteratorUnknownSize(
+          iterator(),
+          Spliterator.ORDERED | Spliterator.IMMUTABLE
+        ),
+        size
+      ),
+      false
+    );
+  }
+
+  /**
+   * Removes the least element of a copy of the queue at each step, so walking
+   * all of it takes O(n log n) time.
+   */
+  private Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private ImPriorityQueueImpl<E> queue = ImPriorityQueueImpl.this;
+
+      @Override
+      public boolean hasNext() {
+        return queue.size > 0;
+      }
+
+      @Override
+      public E next() {
+        E elem = queue.peek();
+        queue = queue.rest();
+        return elem;
+      }
+    };
+  }
+
+  /**
+   * The comparators that queues with the same order share: one for the
+   * elements, and one for the queues inside the heap, by their least
+   * elements.
+   */
+  private static final class Order {
+    private static final Order NATURAL = new Order(null);
+
+    private final Comparator<?> comparator;
+    private final Comparator<Object> elements;
+    private final Comparator<Object> queues;
+
+    Order(Comparator<?> comparator) {
+      this.comparator = comparator;
+      this.elements = SortedTree.order(comparator);
+      this.queues = (a, b) -> elements.compare(
+        ((ImPriorityQueueImpl<?>) a).min,
+        ((ImPriorityQueueImpl<?>) b).min
+      );
+    }
+  }
+
+}
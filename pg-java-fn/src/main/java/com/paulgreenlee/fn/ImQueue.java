@@ -0,0 +1,43 @@
+package com.paulgreenlee.fn;
+
+import java.util.stream.Stream;
+
+/**
+ * A first-in, first-out queue. Like {@link ImList}, it does not inherit from
+ * the native {@link java.util.Queue}, because that interface assumes the queue
+ * can be changed. This interface assumes that implementations are immutable,
+ * so every version of a queue stays valid after elements are added to it or
+ * taken from it.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the queue
+ * @implSpec implementations of this interface must be immutable
+ * @see ImQueueFns
+ */
+public interface ImQueue<E> {
+
+  /**
+   * The number of elements in the queue.
+   *
+   * @return the number of elements in the queue
+   */
+  int size();
+
+  /**
+   * Is the queue empty?
+   *
+   * @return true if the queue has no elements
+   */
+  boolean isEmpty();
+
+  /**
+   * Stream the elements of the queue, from the front, which is the element
+   * that was added first, to the back. See {@link ImQueueFns} for helper
+   * functions to work with queues.
+   *
+   * @return a stream of the elements
+   */
+  Stream<E> stream();
+
+}
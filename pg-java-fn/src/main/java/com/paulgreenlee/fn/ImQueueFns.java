@@ -0,0 +1,142 @@
+package com.paulgreenlee.fn;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Collector;
+
+/**
+ * A collection of functions for working with {@link ImQueue}. None of them
+ * modify the queues they are given. Functions that change a queue return a new
+ * queue that shares most of its structure with the original.
+ *
+ * @author Paul Greenlee
+ */
+public class ImQueueFns {
+
+  private ImQueueFns() {
+  }
+
+  /**
+   * Create an empty queue.
+   *
+   * @param <E> the type of the elements
+   * @return an empty queue
+   */
+  public static <E> ImQueue<E> empty() {
+    return ImQueueImpl.empty();
+  }
+
+  /**
+   * Create a queue from some elements. The first element is at the front.
+   *
+   * @param <E>      the type of the elements
+   * @param elements the elements for the queue
+   * @return a queue of the elements
+   */
+  @SafeVarargs
+  public static <E> ImQueue<E> queueOf(E... elements) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    ImQueueImpl<E> result = ImQueueImpl.empty();
+    for (E elem : elements) {
+      result = result.plus(elem);
+    }
+    return result;
+  }
+
+  /**
+   * Create a queue from the elements of a list. The first element of the list
+   * is at the front.
+   *
+   * @param <E>  the type of the elements
+   * @param list a list
+   * @return a queue of the elements of {@code list}
+   */
+  public static <E> ImQueue<E> fromList(ImList<E> list) {
+    Objects.requireNonNull(list);
+    return list.stream().collect(toImQueue());
+  }
+
+  /**
+   * Add an element at the back of a queue. This takes constant time.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @param elem  the element to add
+   * @return a queue with {@code elem} at the back
+   */
+  public static <E> ImQueue<E> enqueue(ImQueue<E> queue, E elem) {
+    return impl(queue).plus(elem);
+  }
+
+  /**
+   * The element at the front of a queue, which is the one that has been in
+   * the queue longest. This takes constant time.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @return the element at the front
+   * @throws NoSuchElementException if the queue is empty
+   */
+  public static <E> E peek(ImQueue<E> queue) {
+    return impl(queue).peek();
+  }
+
+  /**
+   * Take the element at the front out of a queue. This takes constant time.
+   * Dequeuing from an empty queue gives the empty queue, as
+   * {@link ImListFns#dropFirst} does for lists.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @return a queue of all but the front element of {@code queue}
+   */
+  public static <E> ImQueue<E> dequeue(ImQueue<E> queue) {
+    return impl(queue).rest();
+  }
+
+  /**
+   * A list view of a queue, from front to back. This takes constant time, and
+   * iterating over the list takes O(n) time.
+   *
+   * @param <E>   the type of the elements
+   * @param queue a queue
+   * @return a list of the elements of {@code queue}
+   */
+  public static <E> ImList<E> asList(ImQueue<E> queue) {
+    return impl(queue).asList();
+  }
+
+  /**
+   * A collector that gathers the elements of a stream into a queue, in
+   * encounter order.
+   *
+   * @param <E> the type of the elements
+   * @return a collector that gives a queue of the elements
+   */
+  public static <E> Collector<E, ?, ImQueue<E>> toImQueue() {
+    return Collector.<E, Accumulator<E>, ImQueue<E>>of(
+      Accumulator::new,
+      (acc, elem) -> acc.queue = acc.queue.plus(elem),
+      Accumulator::combine,
+      acc -> acc.queue
+    );
+  }
+
+  private static <E> ImQueueImpl<E> impl(ImQueue<E> queue) {
+    Objects.requireNonNull(queue);
+    if (queue instanceof ImQueueImpl) {
+      return (ImQueueImpl<E>) queue;
+    }
+    return (ImQueueImpl<E>) queue.stream().collect(ImQueueFns.<E>toImQueue());
+  }
+
+  private static final class Accumulator<E> {
+    private ImQueueImpl<E> queue = ImQueueImpl.empty();
+
+    private Accumulator<E> combine(Accumulator<E> other) {
+      other.queue.stream().forEachOrdered(elem -> queue = queue.plus(elem));
+      return this;
+    }
+  }
+
+}
@@ -0,0 +1,315 @@
+package com.paulgreenlee.fn;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * An {@link ImQueue} with worst-case constant time {@code enqueue},
+ * {@code peek} and {@code dequeue}, using Okasaki's real-time queue. The
+ * queue keeps the front as a lazy list and the back as a linked list in
+ * reverse order. When the back grows longer than the front, the back is
+ * reversed onto the end of the front, but lazily: each later operation forces
+ * one more cell of the reversal, so no single operation pays for all of it.
+ * </p>
+ * <p>
+ * Every operation returns a new queue and leaves the old one as it was. The
+ * versions share their lists, and a lazy cell is only computed once however
+ * many versions reach it, so the bounds hold even when old versions are used
+ * again.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the queue
+ */
+public final class ImQueueImpl<E> implements ImQueue<E> {
+
+  @SuppressWarnings("rawtypes")
+  private static final ImQueueImpl EMPTY = new ImQueueImpl<>(
+    Lazy.empty(),
+    0,
+    ConsImList.nil(),
+    Lazy.empty()
+  );
+
+  private final Lazy<E> front;
+  private final int frontSize;
+  private final ConsImList<E> back;
+
+  /**
+   * The part of {@code front} that is not yet computed. It is as long as the
+   * front is longer than the back, so it runs out just as the back needs to be
+   * moved to the front again.
+   */
+  private final Lazy<E> schedule;
+
+  private ImQueueImpl(
+    Lazy<E> front,
+    int frontSize,
+    ConsImList<E> back,
+    Lazy<E> schedule
+  ) {
+    this.front = front;
+    this.frontSize = frontSize;
+    this.back = back;
+    this.schedule = schedule;
+  }
+
+  /**
+   * Create an empty queue.
+   *
+   * @param <E> the type of elements (that would be) in the queue
+   * @return an empty queue
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> ImQueueImpl<E> empty() {
+    return (ImQueueImpl<E>) EMPTY;
+  }
+
+  /**
+   * A copy of this queue with an element added at the back.
+   */
+  ImQueueImpl<E> plus(E elem) {
+    return step(front, frontSize, ConsImList.cons(elem, back), schedule);
+  }
+
+  /**
+   * A copy of this queue without the element at the front. The empty queue is
+   * returned as it is.
+   */
+  ImQueueImpl<E> rest() {
+    Cell<E> cell = front.force();
+    if (cell == null) {
+      return this;
+    }
+    return step(cell.tail, frontSize - 1, back, schedule);
+  }
+
+  /**
+   * The element at the front.
+   */
+  E peek() {
+    Cell<E> cell = front.force();
+    if (cell == null) {
+      throw new NoSuchElementException("The queue is empty");
+    }
+    return cell.head;
+  }
+
+  /**
+   * Force one cell of the schedule, or start a new reversal if the schedule
+   * has run out because the back is now one longer than the front.
+   */
+  private static <E> ImQueueImpl<E> step(
+    Lazy<E> front,
+    int frontSize,
+    ConsImList<E> back,
+    Lazy<E> schedule
+  ) {
+    Cell<E> cell = schedule.force();
+    if (cell != null) {
+      return new ImQueueImpl<>(front, frontSize, back, cell.tail);
+    }
+    if (frontSize + back.size() == 0) {
+      return empty();
+    }
+    Lazy<E> rotated = rotate(front, back, Lazy.empty());
+    return new ImQueueImpl<>(
+      rotated,
+      frontSize + back.size(),
+      ConsImList.nil(),
+      rotated
+    );
+  }
+
+  /**
+   * Lazily compute {@code front ++ reverse(back) ++ rest}, where {@code back}
+   * is one longer than {@code front}. Forcing each cell takes constant time.
+   */
+  private static <E> Lazy<E> rotate(
+    Lazy<E> front,
+    ConsImList<E> back,
+    Lazy<E> rest
+  ) {
+    return new Lazy<>(() -> {
+      Cell<E> cell = front.force();
+      Lazy<E> reversed = Lazy.cons(back.head(), rest);
+      if (cell == null) {
+        return reversed.force();
+      }
+      return new Cell<>(cell.head, rotate(cell.tail, back.tail(), reversed));
+    });
+  }
+
+  @Override
+  public int size() {
+    return frontSize + back.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return asList().stream();
+  }
+
+  /**
+   * A list of the elements of this queue, from front to back. Reading it walks
+   * the queue once, and takes O(n) time in all.
+   */
+  ImList<E> asList() {
+    return new View<>(this);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (!(obj instanceof ImQueueImpl))
+      return false;
+    return asList().equals(((ImQueueImpl<?>) obj).asList());
+  }
+
+  @Override
+  public int hashCode() {
+    return asList().hashCode();
+  }
+
+  /**
+   * A list cell: an element and the rest of the list.
+   */
+  private static final class Cell<E> {
+    private final E head;
+    private final Lazy<E> tail;
+
+    Cell(E head, Lazy<E> tail) {
+      this.head = head;
+      this.tail = tail;
+    }
+  }
+
+  /**
+   * A list whose first cell is computed when it is first needed, and then
+   * kept. A {@code null} cell is the end of the list.
+   */
+  private static final class Lazy<E> {
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final Lazy EMPTY = new Lazy<>((Cell) null);
+
+    private Supplier<Cell<E>> thunk;
+    private volatile boolean forced;
+    private Cell<E> cell;
+
+    Lazy(Supplier<Cell<E>> thunk) {
+      this.thunk = thunk;
+    }
+
+    private Lazy(Cell<E> cell) {
+      this.cell = cell;
+      this.forced = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> Lazy<E> empty() {
+      return (Lazy<E>) EMPTY;
+    }
+
+    static <E> Lazy<E> cons(E head, Lazy<E> tail) {
+      return new Lazy<>(new Cell<>(head, tail));
+    }
+
+    Cell<E> force() {
+      if (!forced) {
+        synchronized (this) {
+          if (!forced) {
+            cell = thunk.get();
+            thunk = null;
+            forced = true;
+          }
+        }
+      }
+      return cell;
+    }
+  }
+
+  private static final class View<E> extends AbstractImList<E> {
+    private final ImQueueImpl<E> queue;
+
+    View(ImQueueImpl<E> queue) {
+      this.queue = queue;
+    }
+
+    @Override
+    public int size() {
+      return queue.size();
+    }
+
+    @Override
+    public Stream<E> stream() {
+      return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+      return ImSpliterators.sized(
+        Spliterators.spliteratorUnknownSize(
+          iterator(),
+          Spliterator.ORDERED | Spliterator.IMMUTABLE
+        ),
+        size()
+      );
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new Itr<>(queue);
+    }
+  }
+
+  /**
+   * Walks the front, then the back from its last cell to its first.
+   */
+  private static final class Itr<E> implements Iterator<E> {
+    private Lazy<E> front;
+    private final ConsImList<E> back;
+    private Object[] reversed;
+    private int index;
+
+    Itr(ImQueueImpl<E> queue) {
+      this.front = queue.front;
+      this.back = queue.back;
+      this.index = back.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return front.force() != null || index > 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+      Cell<E> cell = front.force();
+      if (cell != null) {
+        front = cell.tail;
+        return cell.head;
+      }
+      if (index == 0)
+        throw new NoSuchElementException();
+      if (reversed == null) {
+        reversed = back.toArray();
+      }
+      return (E) reversed[--index];
+    }
+  }
+
+}
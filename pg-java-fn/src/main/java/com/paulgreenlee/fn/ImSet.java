@@ -0,0 +1,42 @@
+package com.paulgreenlee.fn;
+
+import java.util.stream.Stream;
+
+/**
+ * A simple set interface. Like {@link ImList}, it does not inherit from the
+ * native {@link java.util.Set}, because that interface assumes the set can be
+ * changed. This interface assumes that implementations are immutable, so code
+ * that receives one does not need to copy it defensively or wrap it in an
+ * unmodifiable wrapper.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the set
+ * @implSpec implementations of this interface must be immutable
+ * @see ImSetFns
+ */
+public interface ImSet<E> {
+
+  /**
+   * The number of elements in the set.
+   *
+   * @return the number of elements in the set
+   */
+  int size();
+
+  /**
+   * Is the set empty?
+   *
+   * @return true if the set has no elements
+   */
+  boolean isEmpty();
+
+  /**
+   * Stream the elements of the set. The order is not defined. See
+   * {@link ImSetFns} for helper functions to work with sets.
+   *
+   * @return a stream of the elements
+   */
+  Stream<E> stream();
+
+}
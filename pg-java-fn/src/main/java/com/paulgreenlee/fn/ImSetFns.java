@@ -0,0 +1,214 @@
+package com.paulgreenlee.fn;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collector;
+
+/**
+ * A collection of functions for working with {@link ImSet}. None of them
+ * modify the sets they are given. Functions that change a set return a new set
+ * that shares most of its structure with the original.
+ *
+ * @author Paul Greenlee
+ */
+public class ImSetFns {
+
+  private ImSetFns() {
+  }
+
+  /**
+   * Create an empty set.
+   *
+   * @param <E> the type of the elements
+   * @return an empty set
+   */
+  public static <E> ImSet<E> empty() {
+    return ImSetImpl.empty();
+  }
+
+  /**
+   * Create a set from some elements. Repeated elements are kept once.
+   *
+   * @param <E>      the type of the elements
+   * @param elements the elements for the set
+   * @return a set of the elements
+   */
+  @SafeVarargs
+  public static <E> ImSet<E> setOf(E... elements) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    ImSetImpl<E> result = ImSetImpl.empty();
+    for (E elem : elements) {
+      result = result.plus(elem);
+    }
+    return result;
+  }
+
+  /**
+   * Create a set of the distinct elements of a list. This takes O(n) time,
+   * and the result answers {@link #contains} in O(log<sub>32</sub> n) time.
+   *
+   * @param <E>  the type of the elements
+   * @param list a list
+   * @return a set of the elements of {@code list}
+   */
+  public static <E> ImSet<E> fromList(ImList<E> list) {
+    Objects.requireNonNull(list);
+    return list.stream().collect(toImSet());
+  }
+
+  /**
+   * Copy the elements of a collection. Later changes to the collection are not
+   * seen by the copy.
+   *
+   * @param <E>        the type of the elements
+   * @param collection a collection to copy
+   * @return a set of the elements of {@code collection}
+   */
+  public static <E> ImSet<E> fromCollection(
+    Collection<? extends E> collection
+  ) {
+    Objects.requireNonNull(collection);
+    ImSetImpl<E> result = ImSetImpl.empty();
+    for (E elem : collection) {
+      result = result.plus(elem);
+    }
+    return result;
+  }
+
+  /**
+   * Copy the elements of a set into a list, in the order the set streams them.
+   *
+   * @param <E> the type of the elements
+   * @param set a set
+   * @return an array-backed list of the elements of {@code set}
+   */
+  public static <E> ImList<E> toList(ImSet<E> set) {
+    Objects.requireNonNull(set);
+    ImListBuilder<E> builder = new ImListBuilder<>(set.size());
+    set.stream().forEachOrdered(builder::add);
+    return builder.build();
+  }
+
+  /**
+   * Add an element. This takes O(log<sub>32</sub> n) time. If the set already
+   * has the element, the input set is returned.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem the element to add
+   * @return a set with {@code elem}
+   */
+  public static <E> ImSet<E> add(ImSet<E> set, E elem) {
+    return impl(set).plus(elem);
+  }
+
+  /**
+   * Remove an element. This takes O(log<sub>32</sub> n) time. If the set does
+   * not have the element, the input set is returned.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem the element to remove
+   * @return a set without {@code elem}
+   */
+  public static <E> ImSet<E> remove(ImSet<E> set, Object elem) {
+    return impl(set).minus(elem);
+  }
+
+  /**
+   * Does the set have an element? This takes O(log<sub>32</sub> n) time.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem the element to look for
+   * @return true if {@code elem} is in the set
+   */
+  public static <E> boolean contains(ImSet<E> set, Object elem) {
+    return impl(set).contains(elem);
+  }
+
+  /**
+   * The elements that are in either set. Parts of the two sets that share
+   * structure are combined without visiting their elements, and if {@code b}
+   * adds nothing to {@code a}, {@code a} itself is returned.
+   *
+   * @param <E> the type of the elements
+   * @param a   a set
+   * @param b   another set
+   * @return a set of the elements of {@code a} and {@code b}
+   */
+  public static <E> ImSet<E> union(ImSet<E> a, ImSet<E> b) {
+    return impl(a).union(impl(b));
+  }
+
+  /**
+   * The elements that are in both sets. Parts of the two sets that share
+   * structure are kept without visiting their elements.
+   *
+   * @param <E> the type of the elements
+   * @param a   a set
+   * @param b   another set
+   * @return a set of the elements of {@code a} that are also in {@code b}
+   */
+  public static <E> ImSet<E> intersect(ImSet<E> a, ImSet<?> b) {
+    return impl(a).intersect(impl(b));
+  }
+
+  /**
+   * The elements of one set that are not in another. Parts of the two sets
+   * that share structure are dropped without visiting their elements.
+   *
+   * @param <E> the type of the elements
+   * @param a   a set
+   * @param b   the elements to leave out
+   * @return a set of the elements of {@code a} that are not in {@code b}
+   */
+  public static <E> ImSet<E> difference(ImSet<E> a, ImSet<?> b) {
+    return impl(a).difference(impl(b));
+  }
+
+  /**
+   * A read-only {@link Set} view of the set. This takes constant time.
+   *
+   * @param <E> the type of the elements
+   * @param set a set
+   * @return a {@code Set} with the elements of {@code set}
+   */
+  public static <E> Set<E> asSet(ImSet<E> set) {
+    return impl(set);
+  }
+
+  /**
+   * A collector that gathers the distinct elements of a stream into a set. The
+   * partial results of a parallel stream are joined with {@link #union}.
+   *
+   * @param <E> the type of the elements
+   * @return a collector that gives a set of the elements
+   */
+  public static <E> Collector<E, ?, ImSet<E>> toImSet() {
+    return Collector.<E, Accumulator<E>, ImSet<E>>of(
+      Accumulator::new,
+      (acc, elem) -> acc.set = acc.set.plus(elem),
+      (left, right) -> {
+        left.set = left.set.union(right.set);
+        return left;
+      },
+      acc -> acc.set,
+      Collector.Characteristics.UNORDERED
+    );
+  }
+
+  private static <E> ImSetImpl<E> impl(ImSet<E> set) {
+    Objects.requireNonNull(set);
+    if (set instanceof ImSetImpl) {
+      return (ImSetImpl<E>) set;
+    }
+    return (ImSetImpl<E>) set.stream().collect(ImSetFns.<E>toImSet());
+  }
+
+  private static final class Accumulator<E> {
+    private ImSetImpl<E> set = ImSetImpl.empty();
+  }
+
+}
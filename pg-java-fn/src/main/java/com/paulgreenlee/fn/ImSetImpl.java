@@ -0,0 +1,182 @@
+package com.paulgreenlee.fn;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.paulgreenlee.fn.HashTrie.Change;
+import com.paulgreenlee.fn.HashTrie.Node;
+
+/**
+ * <p>
+ * An {@link ImSet} stored in a persistent hash array mapped trie, the same
+ * structure that {@link ImMapImpl} uses, with the elements as keys. Checking,
+ * adding and removing an element take O(log<sub>32</sub> n) time, and each new
+ * version of the set shares all of the untouched parts of the trie with the
+ * version it came from.
+ * </p>
+ * <p>
+ * Union, intersection and difference walk the two tries side by side. Where
+ * both sets hold the very same subtree, as they do when one was derived from
+ * the other, the subtree is kept or dropped whole without hashing any of its
+ * elements.
+ * </p>
+ * <p>
+ * Along with {@code ImSet} this class also implements {@link java.util.Set},
+ * so that it can be handed to code that expects a {@code Set}. All of the
+ * mutating methods of {@code Set} throw {@link UnsupportedOperationException}.
+ * Use {@link ImSetFns} to make changed copies instead.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the set
+ */
+public final class ImSetImpl<E> extends AbstractSet<E> implements ImSet<E> {
+
+  @SuppressWarnings("rawtypes")
+  private static final ImSetImpl EMPTY = new ImSetImpl<>(HashTrie.EMPTY);
+
+  private static final int CHARACTERISTICS = Spliterator.DISTINCT
+    | Spliterator.IMMUTABLE;
+
+  private final Node root;
+
+  private ImSetImpl(Node root) {
+    this.root = root;
+  }
+
+  /**
+   * Create an empty set.
+   *
+   * @param <E> the type of elements (that would be) in the set
+   * @return an empty set
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> ImSetImpl<E> empty() {
+    return (ImSetImpl<E>) EMPTY;
+  }
+
+  private ImSetImpl<E> withRoot(Node newRoot) {
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot.size() == 0 ? empty() : new ImSetImpl<>(newRoot);
+  }
+
+  /**
+   * A copy of this set with an element added. Returns this set if it already
+   * has the element.
+   */
+  ImSetImpl<E> plus(E elem) {
+    return withRoot(
+      root.put(elem, null, HashTrie.hash(elem), 0, new Change())
+    );
+  }
+
+  /**
+   * A copy of this set without an element. Returns this set if it does not
+   * have the element.
+   */
+  ImSetImpl<E> minus(Object elem) {
+    return withRoot(root.remove(elem, HashTrie.hash(elem), 0, new Change()));
+  }
+
+  ImSetImpl<E> union(ImSetImpl<E> other) {
+    return withRoot(HashTrie.union(root, other.root, 0));
+  }
+
+  ImSetImpl<E> intersect(ImSetImpl<?> other) {
+    return withRoot(HashTrie.intersect(root, other.root, 0));
+  }
+
+  ImSetImpl<E> difference(ImSetImpl<?> other) {
+    return withRoot(HashTrie.difference(root, other.root, 0));
+  }
+
+  @Override
+  public int size() {
+    return root.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return root.size() == 0;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return root.get(o, HashTrie.hash(o), 0) != HashTrie.NOT_FOUND;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return Spliterators.spliterator(iterator(), size(), CHARACTERISTICS);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Iterator<E> iterator() {
+    return HashTrie.iterator(root, (key, value) -> (E) key);
+  }
+
+  @Override
+  public boolean add(E e) {
+    throw new UnsupportedOperationException(
+      "add not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException(
+      "remove not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> c) {
+    throw new UnsupportedOperationException(
+      "addAll not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException(
+      "removeAll not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException(
+      "retainAll not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super E> filter) {
+    throw new UnsupportedOperationException(
+      "removeIf not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException(
+      "clear not allowed on an immutable set"
+    );
+  }
+
+}
@@ -0,0 +1,54 @@
+package com.paulgreenlee.fn;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * A map whose keys are kept in order. Like {@link ImMap}, it does not inherit
+ * from the native {@link java.util.SortedMap}, because that interface assumes
+ * the map can be changed. This interface assumes that implementations are
+ * immutable.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <K> the type of the keys of the map
+ * @param <V> the type of the values of the map
+ * @implSpec implementations of this interface must be immutable
+ * @see ImSortedMapFns
+ */
+public interface ImSortedMap<K, V> {
+
+  /**
+   * The number of keys in the map.
+   *
+   * @return the number of keys in the map
+   */
+  int size();
+
+  /**
+   * Is the map empty?
+   *
+   * @return true if the map has no keys
+   */
+  boolean isEmpty();
+
+  /**
+   * The order of the keys.
+   *
+   * @return the comparator for the keys, or {@code null} if the keys are in
+   *         their natural order
+   */
+  Comparator<? super K> comparator();
+
+  /**
+   * Stream the keys and values of the map in order of key, as tuples of a key
+   * and its value. See {@link ImSortedMapFns} for helper functions to work with
+   * sorted maps.
+   *
+   * @return a stream of the entries
+   */
+  Stream<Two<K, V>> stream();
+
+}
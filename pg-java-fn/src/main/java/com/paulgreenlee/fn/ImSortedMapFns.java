@@ -0,0 +1,430 @@
+package com.paulgreenlee.fn;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import com.paulgreenlee.fn.SortedTree.Node;
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * A collection of functions for working with {@link ImSortedMap}. None of them
+ * modify the maps they are given. Functions that change a map return a new map
+ * that shares most of its structure with the original.
+ *
+ * @author Paul Greenlee
+ */
+public class ImSortedMapFns {
+
+  private ImSortedMapFns() {
+  }
+
+  /**
+   * Create an empty map whose keys are in their natural order.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @return an empty map
+   */
+  public static <K extends Comparable<? super K>, V> ImSortedMap<K, V> empty() {
+    return ImSortedMapImpl.empty();
+  }
+
+  /**
+   * Create an empty map whose keys are ordered by a comparator. For composite
+   * keys, see the comparators in {@link Tuples}.
+   *
+   * @param <K>        the type of the keys
+   * @param <V>        the type of the values
+   * @param comparator the order of the keys
+   * @return an empty map
+   */
+  public static <K, V> ImSortedMap<K, V> empty(
+    Comparator<? super K> comparator
+  ) {
+    Objects.requireNonNull(comparator);
+    return ImSortedMapImpl.empty(comparator);
+  }
+
+  /**
+   * Copy the keys and values of a {@link Map} into a map ordered by a
+   * comparator. Later changes to the map are not seen by the copy.
+   *
+   * @param <K>        the type of the keys
+   * @param <V>        the type of the values
+   * @param map        a map to copy
+   * @param comparator the order of the keys, or {@code null} for their natural
+   *                   order
+   * @return an immutable sorted map with the same keys and values
+   */
+  public static <K, V> ImSortedMap<K, V> fromMap(
+    Map<? extends K, ? extends V> map,
+    Comparator<? super K> comparator
+  ) {
+    Objects.requireNonNull(map);
+    ImSortedMapImpl<K, V> result = ImSortedMapImpl.empty(comparator);
+    for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      result = result.plus(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Set the value for a key. This takes O(log n) time. If the key already has
+   * this exact value, the input map is returned.
+   *
+   * @param <K>   the type of the keys
+   * @param <V>   the type of the values
+   * @param map   a map
+   * @param key   the key to set
+   * @param value the value for {@code key}
+   * @return a map with {@code key} set to {@code value}
+   */
+  public static <K, V> ImSortedMap<K, V> put(
+    ImSortedMap<K, V> map,
+    K key,
+    V value
+  ) {
+    return impl(map).plus(key, value);
+  }
+
+  /**
+   * Remove a key and its value. This takes O(log n) time. If the key is not in
+   * the map, the input map is returned.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key the key to remove
+   * @return a map without {@code key}
+   */
+  public static <K, V> ImSortedMap<K, V> remove(
+    ImSortedMap<K, V> map,
+    Object key
+  ) {
+    return impl(map).minus(key);
+  }
+
+  /**
+   * Look up the value for a key. A key whose value is {@code null} gives an
+   * empty result too; use {@link #containsKey} to tell the two apart.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key the key to look up
+   * @return the value for {@code key}, if there is one and it is not
+   *         {@code null}
+   */
+  public static <K, V> Optional<V> get(ImSortedMap<K, V> map, Object key) {
+    return Optional.ofNullable(impl(map).get(key));
+  }
+
+  /**
+   * Look up the value for a key, or use a default if the map does not have the
+   * key.
+   *
+   * @param <K>          the type of the keys
+   * @param <V>          the type of the values
+   * @param map          a map
+   * @param key          the key to look up
+   * @param defaultValue the result if {@code key} is not in the map
+   * @return the value for {@code key}, or {@code defaultValue}
+   */
+  public static <K, V> V getOrDefault(
+    ImSortedMap<K, V> map,
+    Object key,
+    V defaultValue
+  ) {
+    return impl(map).getOrDefault(key, defaultValue);
+  }
+
+  /**
+   * Does the map have a key?
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key the key to look for
+   * @return true if {@code key} is in the map
+   */
+  public static <K, V> boolean containsKey(ImSortedMap<K, V> map, Object key) {
+    return impl(map).containsKey(key);
+  }
+
+  /**
+   * The entry with the least key.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @return the first entry, or empty if the map is empty
+   */
+  public static <K, V> Optional<Two<K, V>> first(ImSortedMap<K, V> map) {
+    return entry(impl(map).firstNode());
+  }
+
+  /**
+   * The entry with the greatest key.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @return the last entry, or empty if the map is empty
+   */
+  public static <K, V> Optional<Two<K, V>> last(ImSortedMap<K, V> map) {
+    return entry(impl(map).lastNode());
+  }
+
+  /**
+   * The entry with the greatest key at or below a key. This takes O(log n)
+   * time.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key a key, which need not be in the map
+   * @return the entry, or empty if every key is above {@code key}
+   */
+  public static <K, V> Optional<Two<K, V>> floor(ImSortedMap<K, V> map, K key) {
+    return entry(impl(map).below(key, true));
+  }
+
+  /**
+   * The entry with the least key at or above a key. This takes O(log n) time.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key a key, which need not be in the map
+   * @return the entry, or empty if every key is below {@code key}
+   */
+  public static <K, V> Optional<Two<K, V>> ceiling(
+    ImSortedMap<K, V> map,
+    K key
+  ) {
+    return entry(impl(map).above(key, true));
+  }
+
+  /**
+   * The entry with the greatest key strictly below a key. This takes O(log n)
+   * time.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key a key, which need not be in the map
+   * @return the entry, or empty if no key is below {@code key}
+   */
+  public static <K, V> Optional<Two<K, V>> lower(ImSortedMap<K, V> map, K key) {
+    return entry(impl(map).below(key, false));
+  }
+
+  /**
+   * The entry with the least key strictly above a key. This takes O(log n)
+   * time.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key a key, which need not be in the map
+   * @return the entry, or empty if no key is above {@code key}
+   */
+  public static <K, V> Optional<Two<K, V>> higher(
+    ImSortedMap<K, V> map,
+    K key
+  ) {
+    return entry(impl(map).above(key, false));
+  }
+
+  /**
+   * The part of a map with keys between two bounds. This takes O(log n) time,
+   * and the result shares most of its structure with {@code map}, so streaming
+   * a range of k keys takes O(log n + k) time in all.
+   *
+   * @param <K>           the type of the keys
+   * @param <V>           the type of the values
+   * @param map           a map
+   * @param from          the lower bound
+   * @param fromInclusive whether a key equal to {@code from} is included
+   * @param to            the upper bound
+   * @param toInclusive   whether a key equal to {@code to} is included
+   * @return a map of the entries with keys in the range
+   * @throws IllegalArgumentException if {@code from} is above {@code to}
+   */
+  public static <K, V> ImSortedMap<K, V> range(
+    ImSortedMap<K, V> map,
+    K from,
+    boolean fromInclusive,
+    K to,
+    boolean toInclusive
+  ) {
+    return impl(map).range(from, fromInclusive, to, toInclusive);
+  }
+
+  /**
+   * The part of a map with keys below a bound. This takes O(log n) time.
+   *
+   * @param <K>       the type of the keys
+   * @param <V>       the type of the values
+   * @param map       a map
+   * @param to        the upper bound
+   * @param inclusive whether a key equal to {@code to} is included
+   * @return a map of the entries with keys below {@code to}
+   */
+  public static <K, V> ImSortedMap<K, V> head(
+    ImSortedMap<K, V> map,
+    K to,
+    boolean inclusive
+  ) {
+    return impl(map).head(to, inclusive);
+  }
+
+  /**
+   * The part of a map with keys above a bound. This takes O(log n) time.
+   *
+   * @param <K>       the type of the keys
+   * @param <V>       the type of the values
+   * @param map       a map
+   * @param from      the lower bound
+   * @param inclusive whether a key equal to {@code from} is included
+   * @return a map of the entries with keys above {@code from}
+   */
+  public static <K, V> ImSortedMap<K, V> tail(
+    ImSortedMap<K, V> map,
+    K from,
+    boolean inclusive
+  ) {
+    return impl(map).tail(from, inclusive);
+  }
+
+  /**
+   * Split a map in two at a key. This takes O(log n) time. The two halves can
+   * be worked on separately, for instance in parallel, and put back together
+   * with {@link #join}.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @param key where to split
+   * @return the entries with keys below {@code key}, and the entries with
+   *         keys at or above it
+   */
+  public static <K, V> Two<ImSortedMap<K, V>, ImSortedMap<K, V>> split(
+    ImSortedMap<K, V> map,
+    K key
+  ) {
+    ImSortedMapImpl<K, V> impl = impl(map);
+    return Tuples.of(impl.head(key, false), impl.tail(key, true));
+  }
+
+  /**
+   * Join two maps where every key of the first is below every key of the
+   * second. This takes O(log n) time. The result is in the order of
+   * {@code left}.
+   *
+   * @param <K>   the type of the keys
+   * @param <V>   the type of the values
+   * @param left  a map
+   * @param right a map whose keys are all above those of {@code left}
+   * @return a map of the entries of both maps
+   * @throws IllegalArgumentException if the keys of the maps overlap
+   */
+  public static <K, V> ImSortedMap<K, V> join(
+    ImSortedMap<K, V> left,
+    ImSortedMap<K, V> right
+  ) {
+    return impl(left).join(impl(right));
+  }
+
+  /**
+   * A read-only {@link SortedMap} view of the map. This takes constant time.
+   *
+   * @param <K> the type of the keys
+   * @param <V> the type of the values
+   * @param map a map
+   * @return a {@code SortedMap} with the keys and values of {@code map}
+   */
+  public static <K, V> SortedMap<K, V> asMap(ImSortedMap<K, V> map) {
+    return impl(map);
+  }
+
+  /**
+   * A collector that gathers the elements of a stream into a sorted map. If
+   * two elements give the same key, the value from the later one is kept.
+   *
+   * @param <T>        the type of the elements
+   * @param <K>        the type of the keys
+   * @param <V>        the type of the values
+   * @param keyFn      makes a key from an element
+   * @param valueFn    makes a value from an element
+   * @param comparator the order of the keys, or {@code null} for their natural
+   *                   order
+   * @return a collector that gives a map of the keys and values
+   */
+  public static <T, K, V> Collector<T, ?, ImSortedMap<K, V>> toImSortedMap(
+    Function<? super T, ? extends K> keyFn,
+    Function<? super T, ? extends V> valueFn,
+    Comparator<? super K> comparator
+  ) {
+    Objects.requireNonNull(keyFn);
+    Objects.requireNonNull(valueFn);
+    return Collector.<T, Accumulator<K, V>, ImSortedMap<K, V>>of(
+      () -> new Accumulator<>(comparator),
+      (acc, elem) -> acc.map = acc.map
+        .plus(keyFn.apply(elem), valueFn.apply(elem)),
+      (left, right) -> {
+        left.map = left.map.union(right.map);
+        return left;
+      },
+      acc -> acc.map
+    );
+  }
+
+  /**
+   * A collector that gathers tuples of a key and a value into a sorted map,
+   * such as the stream of another map. If a key appears more than once, the
+   * last value for it is kept.
+   *
+   * @param <K>        the type of the keys
+   * @param <V>        the type of the values
+   * @param comparator the order of the keys, or {@code null} for their natural
+   *                   order
+   * @return a collector that gives a map of the entries
+   */
+  public static <K, V> Collector<Two<K, V>, ?, ImSortedMap<K, V>> toImSortedMap(
+    Comparator<? super K> comparator
+  ) {
+    return toImSortedMap(Two::getA, Two::getB, comparator);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> Optional<Two<K, V>> entry(Node node) {
+    return node == null
+      ? Optional.empty()
+      : Optional.of(Tuples.of((K) node.key, (V) node.value));
+  }
+
+  private static <K, V> ImSortedMapImpl<K, V> impl(ImSortedMap<K, V> map) {
+    Objects.requireNonNull(map);
+    if (map instanceof ImSortedMapImpl) {
+      return (ImSortedMapImpl<K, V>) map;
+    }
+    return (ImSortedMapImpl<K, V>) map
+      .stream()
+      .collect(ImSortedMapFns.<K, V>toImSortedMap(map.comparator()));
+  }
+
+  private static final class Accumulator<K, V> {
+    private ImSortedMapImpl<K, V> map;
+
+    private Accumulator(Comparator<? super K> comparator) {
+      map = ImSortedMapImpl.empty(comparator);
+    }
+  }
+
+}
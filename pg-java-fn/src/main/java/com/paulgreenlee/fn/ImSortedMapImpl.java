@@ -0,0 +1,335 @@
+package com.paulgreenlee.fn;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.paulgreenlee.fn.SortedTree.Node;
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * <p>
+ * An {@link ImSortedMap} stored in a persistent balanced search tree. Looking
+ * up, adding and removing a key, and finding the nearest key above or below a
+ * given one, take O(log n) time. Taking the part of the map within a range of
+ * keys, splitting the map at a key and joining two maps whose keys do not
+ * overlap also take O(log n) time, and the results share most of their nodes
+ * with the inputs. Streaming a range of k keys therefore takes O(log n + k)
+ * time.
+ * </p>
+ * <p>
+ * Keys are ordered by the comparator the map was made with, or by their
+ * natural order if it has none. As with {@link java.util.TreeMap}, keys are
+ * equal if the comparator says they are, and {@code null} keys are only
+ * allowed if the comparator allows them. Values may be {@code null}.
+ * </p>
+ * <p>
+ * Along with {@code ImSortedMap} this class also implements
+ * {@link java.util.SortedMap}, so that it can be handed to code that expects
+ * one. All of the mutating methods of {@code Map} throw
+ * {@link UnsupportedOperationException}. Use {@link ImSortedMapFns} to make
+ * changed copies instead.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <K> the type of the keys of the map
+ * @param <V> the type of the values of the map
+ */
+public final class ImSortedMapImpl<K, V> extends AbstractMap<K, V>
+  implements ImSortedMap<K, V>, SortedMap<K, V> {
+
+  @SuppressWarnings("rawtypes")
+  private static final ImSortedMapImpl EMPTY = new ImSortedMapImpl<>(
+    null,
+    null
+  );
+
+  private static final int CHARACTERISTICS = Spliterator.ORDERED
+    | Spliterator.DISTINCT
+    | Spliterator.SIZED
+    | Spliterator.SUBSIZED
+    | Spliterator.IMMUTABLE;
+
+  private final Node root;
+  private final Comparator<? super K> comparator;
+  private final Comparator<Object> order;
+
+  private ImSortedMapImpl(Node root, Comparator<? super K> comparator) {
+    this.root = root;
+    this.comparator = comparator;
+    this.order = SortedTree.order(comparator);
+  }
+
+  /**
+   * Create an empty map whose keys are in their natural order.
+   *
+   * @param <K> the type of the keys (that would be) in the map
+   * @param <V> the type of the values (that would be) in the map
+   * @return an empty map
+   */
+  @SuppressWarnings("unchecked")
+  public static <K, V> ImSortedMapImpl<K, V> empty() {
+    return (ImSortedMapImpl<K, V>) EMPTY;
+  }
+
+  /**
+   * Create an empty map whose keys are ordered by a comparator.
+   *
+   * @param <K>        the type of the keys (that would be) in the map
+   * @param <V>        the type of the values (that would be) in the map
+   * @param comparator the order of the keys, or {@code null} for their natural
+   *                   order
+   * @return an empty map
+   */
+  public static <K, V> ImSortedMapImpl<K, V> empty(
+    Comparator<? super K> comparator
+  ) {
+    return comparator == null
+      ? empty()
+      : new ImSortedMapImpl<>(null, comparator);
+  }
+
+  private ImSortedMapImpl<K, V> withRoot(Node newRoot) {
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null
+      ? empty(comparator)
+      : new ImSortedMapImpl<>(newRoot, comparator);
+  }
+
+  /**
+   * A copy of this map with a key set to a value. Returns this map if the key
+   * already has that exact value.
+   */
+  ImSortedMapImpl<K, V> plus(K key, V value) {
+    return withRoot(SortedTree.put(root, key, value, order));
+  }
+
+  /**
+   * A copy of this map without a key. Returns this map if it does not have the
+   * key.
+   */
+  ImSortedMapImpl<K, V> minus(Object key) {
+    return withRoot(SortedTree.remove(root, key, order));
+  }
+
+  /**
+   * The node for a key, or {@code null}.
+   */
+  Node node(Object key) {
+    return SortedTree.get(root, key, order);
+  }
+
+  Node firstNode() {
+    return SortedTree.first(root);
+  }
+
+  Node lastNode() {
+    return SortedTree.last(root);
+  }
+
+  Node below(Object key, boolean inclusive) {
+    return SortedTree.below(root, key, inclusive, order);
+  }
+
+  Node above(Object key, boolean inclusive) {
+    return SortedTree.above(root, key, inclusive, order);
+  }
+
+  ImSortedMapImpl<K, V> head(Object to, boolean inclusive) {
+    return withRoot(SortedTree.head(root, to, inclusive, order));
+  }
+
+  ImSortedMapImpl<K, V> tail(Object from, boolean inclusive) {
+    return withRoot(SortedTree.tail(root, from, inclusive, order));
+  }
+
+  ImSortedMapImpl<K, V> range(
+    Object from,
+    boolean fromInclusive,
+    Object to,
+    boolean toInclusive
+  ) {
+    if (order.compare(from, to) > 0) {
+      throw new IllegalArgumentException("Range start is after its end");
+    }
+    return tail(from, fromInclusive).head(to, toInclusive);
+  }
+
+  /**
+   * Join this map with one whose keys are all above the keys of this map.
+   */
+  ImSortedMapImpl<K, V> join(ImSortedMapImpl<K, V> other) {
+    Node right = inOrder(other).root;
+    SortedTree.checkJoin(root, right, order);
+    return withRoot(SortedTree.concat(root, right));
+  }
+
+  /**
+   * The keys of both maps. Where both have a key, the value from
+   * {@code other} is kept.
+   */
+  ImSortedMapImpl<K, V> union(ImSortedMapImpl<K, V> other) {
+    return withRoot(SortedTree.union(root, inOrder(other).root, order));
+  }
+
+  /**
+   * Another map with its keys in the order of this one.
+   */
+  private ImSortedMapImpl<K, V> inOrder(ImSortedMapImpl<K, V> other) {
+    if (Objects.equals(comparator, other.comparator)) {
+      return other;
+    }
+    ImSortedMapImpl<K, V> result = empty(comparator);
+    for (Map.Entry<K, V> entry : other.entrySet()) {
+      result = result.plus(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  @Override
+  public Comparator<? super K> comparator() {
+    return comparator;
+  }
+
+  @Override
+  public int size() {
+    return SortedTree.size(root);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return node(key) != null;
+  }
+
+  @Override
+  public V get(Object key) {
+    return getOrDefault(key, null);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V getOrDefault(Object key, V defaultValue) {
+    Node node = node(key);
+    return node == null ? defaultValue : (V) node.value;
+  }
+
+  @Override
+  public SortedMap<K, V> subMap(K fromKey, K toKey) {
+    return range(fromKey, true, toKey, false);
+  }
+
+  @Override
+  public SortedMap<K, V> headMap(K toKey) {
+    return head(toKey, false);
+  }
+
+  @Override
+  public SortedMap<K, V> tailMap(K fromKey) {
+    return tail(fromKey, true);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public K firstKey() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return (K) firstNode().key;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public K lastKey() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return (K) lastNode().key;
+  }
+
+  @Override
+  public Stream<Two<K, V>> stream() {
+    return StreamSupport.stream(entries(Tuples::<K, V>of), false);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Spliterator<T> entries(BiFunction<K, V, T> entry) {
+    return SortedTree.spliterator(
+      root,
+      (k, v) -> entry.apply((K) k, (V) v),
+      CHARACTERISTICS,
+      null
+    );
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return Spliterators.iterator(entries(SimpleImmutableEntry::new));
+      }
+
+      @Override
+      public int size() {
+        return ImSortedMapImpl.this.size();
+      }
+
+      @Override
+      public boolean contains(Object o) {
+        if (!(o instanceof Map.Entry))
+          return false;
+        Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+        Node node = node(e.getKey());
+        return node != null && Objects.equals(node.value, e.getValue());
+      }
+    };
+  }
+
+  @Override
+  public V put(K key, V value) {
+    throw new UnsupportedOperationException(
+      "put not allowed on an immutable map"
+    );
+  }
+
+  @Override
+  public V remove(Object key) {
+    throw new UnsupportedOperationException(
+      "remove not allowed on an immutable map"
+    );
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> m) {
+    throw new UnsupportedOperationException(
+      "putAll not allowed on an immutable map"
+    );
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException(
+      "clear not allowed on an immutable map"
+    );
+  }
+
+}
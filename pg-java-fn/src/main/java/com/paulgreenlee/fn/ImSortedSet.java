@@ -0,0 +1,50 @@
+package com.paulgreenlee.fn;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A set whose elements are kept in order. Like {@link ImSet}, it does not
+ * inherit from the native {@link java.util.SortedSet}, because that interface
+ * assumes the set can be changed. This interface assumes that implementations
+ * are immutable.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the set
+ * @implSpec implementations of this interface must be immutable
+ * @see ImSortedSetFns
+ */
+public interface ImSortedSet<E> {
+
+  /**
+   * The number of elements in the set.
+   *
+   * @return the number of elements in the set
+   */
+  int size();
+
+  /**
+   * Is the set empty?
+   *
+   * @return true if the set has no elements
+   */
+  boolean isEmpty();
+
+  /**
+   * The order of the elements.
+   *
+   * @return the comparator for the elements, or {@code null} if the elements
+   *         are in their natural order
+   */
+  Comparator<? super E> comparator();
+
+  /**
+   * Stream the elements of the set in order. See {@link ImSortedSetFns} for
+   * helper functions to work with sorted sets.
+   *
+   * @return a stream of the elements
+   */
+  Stream<E> stream();
+
+}
@@ -0,0 +1,410 @@
+package com.paulgreenlee.fn;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.stream.Collector;
+
+import com.paulgreenlee.fn.SortedTree.Node;
+import com.paulgreenlee.fn.Tuples.Two;
+
+/**
+ * A collection of functions for working with {@link ImSortedSet}. None of them
+ * modify the sets they are given. Functions that change a set return a new set
+ * that shares most of its structure with the original.
+ *
+ * @author Paul Greenlee
+ */
+public class ImSortedSetFns {
+
+  private ImSortedSetFns() {
+  }
+
+  /**
+   * Create an empty set whose elements are in their natural order.
+   *
+   * @param <E> the type of the elements
+   * @return an empty set
+   */
+  public static <E extends Comparable<? super E>> ImSortedSet<E> empty() {
+    return ImSortedSetImpl.empty();
+  }
+
+  /**
+   * Create an empty set whose elements are ordered by a comparator. For
+   * tuples, see the comparators in {@link Tuples}.
+   *
+   * @param <E>        the type of the elements
+   * @param comparator the order of the elements
+   * @return an empty set
+   */
+  public static <E> ImSortedSet<E> empty(Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator);
+    return ImSortedSetImpl.empty(comparator);
+  }
+
+  /**
+   * Create a set from some elements in their natural order. Repeated elements
+   * are kept once.
+   *
+   * @param <E>      the type of the elements
+   * @param elements the elements for the set
+   * @return a set of the elements
+   */
+  @SafeVarargs
+  public static <E extends Comparable<? super E>> ImSortedSet<E> setOf(
+    E... elements
+  ) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    ImSortedSetImpl<E> result = ImSortedSetImpl.empty();
+    for (E elem : elements) {
+      result = result.plus(elem);
+    }
+    return result;
+  }
+
+  /**
+   * Copy the elements of a collection into a set ordered by a comparator.
+   * Later changes to the collection are not seen by the copy.
+   *
+   * @param <E>        the type of the elements
+   * @param collection a collection to copy
+   * @param comparator the order of the elements, or {@code null} for their
+   *                   natural order
+   * @return a set of the elements of {@code collection}
+   */
+  public static <E> ImSortedSet<E> fromCollection(
+    Collection<? extends E> collection,
+    Comparator<? super E> comparator
+  ) {
+    Objects.requireNonNull(collection);
+    ImSortedSetImpl<E> result = ImSortedSetImpl.empty(comparator);
+    for (E elem : collection) {
+      result = result.plus(elem);
+    }
+    return result;
+  }
+
+  /**
+   * Copy the elements of a set into a list, in order.
+   *
+   * @param <E> the type of the elements
+   * @param set a set
+   * @return a list of the elements of {@code set}
+   */
+  public static <E> ImList<E> toList(ImSortedSet<E> set) {
+    Objects.requireNonNull(set);
+    ImListBuilder<E> builder = new ImListBuilder<>(set.size());
+    set.stream().forEachOrdered(builder::add);
+    return builder.build();
+  }
+
+  /**
+   * Add an element. This takes O(log n) time. If the set already has the
+   * element, the input set is returned.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem the element to add
+   * @return a set with {@code elem}
+   */
+  public static <E> ImSortedSet<E> add(ImSortedSet<E> set, E elem) {
+    return impl(set).plus(elem);
+  }
+
+  /**
+   * Remove an element. This takes O(log n) time. If the set does not have the
+   * element, the input set is returned.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem the element to remove
+   * @return a set without {@code elem}
+   */
+  public static <E> ImSortedSet<E> remove(ImSortedSet<E> set, Object elem) {
+    return impl(set).minus(elem);
+  }
+
+  /**
+   * Does the set have an element? This takes O(log n) time.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem the element to look for
+   * @return true if {@code elem} is in the set
+   */
+  public static <E> boolean contains(ImSortedSet<E> set, Object elem) {
+    return impl(set).contains(elem);
+  }
+
+  /**
+   * The least element.
+   *
+   * @param <E> the type of the elements
+   * @param set a set
+   * @return the first element, or empty if the set is empty
+   */
+  public static <E> Optional<E> first(ImSortedSet<E> set) {
+    return element(impl(set).firstNode());
+  }
+
+  /**
+   * The greatest element.
+   *
+   * @param <E> the type of the elements
+   * @param set a set
+   * @return the last element, or empty if the set is empty
+   */
+  public static <E> Optional<E> last(ImSortedSet<E> set) {
+    return element(impl(set).lastNode());
+  }
+
+  /**
+   * The greatest element at or below a value. This takes O(log n) time.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem a value, which need not be in the set
+   * @return the element, or empty if every element is above {@code elem}
+   */
+  public static <E> Optional<E> floor(ImSortedSet<E> set, E elem) {
+    return element(impl(set).below(elem, true));
+  }
+
+  /**
+   * The least element at or above a value. This takes O(log n) time.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem a value, which need not be in the set
+   * @return the element, or empty if every element is below {@code elem}
+   */
+  public static <E> Optional<E> ceiling(ImSortedSet<E> set, E elem) {
+    return element(impl(set).above(elem, true));
+  }
+
+  /**
+   * The greatest element strictly below a value. This takes O(log n) time.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem a value, which need not be in the set
+   * @return the element, or empty if no element is below {@code elem}
+   */
+  public static <E> Optional<E> lower(ImSortedSet<E> set, E elem) {
+    return element(impl(set).below(elem, false));
+  }
+
+  /**
+   * The least element strictly above a value. This takes O(log n) time.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem a value, which need not be in the set
+   * @return the element, or empty if no element is above {@code elem}
+   */
+  public static <E> Optional<E> higher(ImSortedSet<E> set, E elem) {
+    return element(impl(set).above(elem, false));
+  }
+
+  /**
+   * The elements of a set between two bounds. This takes O(log n) time, and
+   * the result shares most of its structure with {@code set}, so streaming a
+   * range of k elements takes O(log n + k) time in all.
+   *
+   * @param <E>           the type of the elements
+   * @param set           a set
+   * @param from          the lower bound
+   * @param fromInclusive whether an element equal to {@code from} is included
+   * @param to            the upper bound
+   * @param toInclusive   whether an element equal to {@code to} is included
+   * @return a set of the elements in the range
+   * @throws IllegalArgumentException if {@code from} is above {@code to}
+   */
+  public static <E> ImSortedSet<E> range(
+    ImSortedSet<E> set,
+    E from,
+    boolean fromInclusive,
+    E to,
+    boolean toInclusive
+  ) {
+    return impl(set).range(from, fromInclusive, to, toInclusive);
+  }
+
+  /**
+   * The elements of a set below a bound. This takes O(log n) time.
+   *
+   * @param <E>       the type of the elements
+   * @param set       a set
+   * @param to        the upper bound
+   * @param inclusive whether an element equal to {@code to} is included
+   * @return a set of the elements below {@code to}
+   */
+  public static <E> ImSortedSet<E> head(
+    ImSortedSet<E> set,
+    E to,
+    boolean inclusive
+  ) {
+    return impl(set).head(to, inclusive);
+  }
+
+  /**
+   * The elements of a set above a bound. This takes O(log n) time.
+   *
+   * @param <E>       the type of the elements
+   * @param set       a set
+   * @param from      the lower bound
+   * @param inclusive whether an element equal to {@code from} is included
+   * @return a set of the elements above {@code from}
+   */
+  public static <E> ImSortedSet<E> tail(
+    ImSortedSet<E> set,
+    E from,
+    boolean inclusive
+  ) {
+    return impl(set).tail(from, inclusive);
+  }
+
+  /**
+   * Split a set in two at a value. This takes O(log n) time. The two halves
+   * can be worked on separately, for instance in parallel, and put back
+   * together with {@link #join}.
+   *
+   * @param <E>  the type of the elements
+   * @param set  a set
+   * @param elem where to split
+   * @return the elements below {@code elem}, and the elements at or above it
+   */
+  public static <E> Two<ImSortedSet<E>, ImSortedSet<E>> split(
+    ImSortedSet<E> set,
+    E elem
+  ) {
+    ImSortedSetImpl<E> impl = impl(set);
+    return Tuples.of(impl.head(elem, false), impl.tail(elem, true));
+  }
+
+  /**
+   * Join two sets where every element of the first is below every element of
+   * the second. This takes O(log n) time. The result is in the order of
+   * {@code left}.
+   *
+   * @param <E>   the type of the elements
+   * @param left  a set
+   * @param right a set whose elements are all above those of {@code left}
+   * @return a set of the elements of both sets
+   * @throws IllegalArgumentException if the elements of the sets overlap
+   */
+  public static <E> ImSortedSet<E> join(
+    ImSortedSet<E> left,
+    ImSortedSet<E> right
+  ) {
+    return impl(left).join(impl(right));
+  }
+
+  /**
+   * The elements that are in either set. For sets of sizes m &le; n this takes
+   * O(m log(n/m + 1)) time. The result is in the order of {@code a}.
+   *
+   * @param <E> the type of the elements
+   * @param a   a set
+   * @param b   another set
+   * @return a set of the elements of {@code a} and {@code b}
+   */
+  public static <E> ImSortedSet<E> union(ImSortedSet<E> a, ImSortedSet<E> b) {
+    return impl(a).union(impl(b));
+  }
+
+  /**
+   * The elements that are in both sets. For sets of sizes m &le; n this takes
+   * O(m log(n/m + 1)) time. The result is in the order of {@code a}.
+   *
+   * @param <E> the type of the elements
+   * @param a   a set
+   * @param b   another set
+   * @return a set of the elements of {@code a} that are also in {@code b}
+   */
+  public static <E> ImSortedSet<E> intersect(
+    ImSortedSet<E> a,
+    ImSortedSet<E> b
+  ) {
+    return impl(a).intersect(impl(b));
+  }
+
+  /**
+   * The elements of one set that are not in another. For sets of sizes
+   * m &le; n this takes O(m log(n/m + 1)) time.
+   *
+   * @param <E> the type of the elements
+   * @param a   a set
+   * @param b   the elements to leave out
+   * @return a set of the elements of {@code a} that are not in {@code b}
+   */
+  public static <E> ImSortedSet<E> difference(
+    ImSortedSet<E> a,
+    ImSortedSet<E> b
+  ) {
+    return impl(a).difference(impl(b));
+  }
+
+  /**
+   * A read-only {@link SortedSet} view of the set. This takes constant time.
+   *
+   * @param <E> the type of the elements
+   * @param set a set
+   * @return a {@code SortedSet} with the elements of {@code set}
+   */
+  public static <E> SortedSet<E> asSet(ImSortedSet<E> set) {
+    return impl(set);
+  }
+
+  /**
+   * A collector that gathers the distinct elements of a stream into a sorted
+   * set. The partial results of a parallel stream are joined with
+   * {@link #union}.
+   *
+   * @param <E>        the type of the elements
+   * @param comparator the order of the elements, or {@code null} for their
+   *                   natural order
+   * @return a collector that gives a set of the elements
+   */
+  public static <E> Collector<E, ?, ImSortedSet<E>> toImSortedSet(
+    Comparator<? super E> comparator
+  ) {
+    return Collector.<E, Accumulator<E>, ImSortedSet<E>>of(
+      () -> new Accumulator<>(comparator),
+      (acc, elem) -> acc.set = acc.set.plus(elem),
+      (left, right) -> {
+        left.set = left.set.union(right.set);
+        return left;
+      },
+      acc -> acc.set,
+      Collector.Characteristics.UNORDERED
+    );
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E> Optional<E> element(Node node) {
+    return node == null ? Optional.empty() : Optional.ofNullable((E) node.key);
+  }
+
+  private static <E> ImSortedSetImpl<E> impl(ImSortedSet<E> set) {
+    Objects.requireNonNull(set);
+    if (set instanceof ImSortedSetImpl) {
+      return (ImSortedSetImpl<E>) set;
+    }
+    return (ImSortedSetImpl<E>) set
+      .stream()
+      .collect(ImSortedSetFns.<E>toImSortedSet(set.comparator()));
+  }
+
+  private static final class Accumulator<E> {
+    private ImSortedSetImpl<E> set;
+
+    private Accumulator(Comparator<? super E> comparator) {
+      set = ImSortedSetImpl.empty(comparator);
+    }
+  }
+
+}
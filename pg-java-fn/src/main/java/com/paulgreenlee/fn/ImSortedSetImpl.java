@@ -0,0 +1,314 @@
+package com.paulgreenlee.fn;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.paulgreenlee.fn.SortedTree.Node;
+
+/**
+ * <p>
+ * An {@link ImSortedSet} stored in a persistent balanced search tree, the
+ * same structure that {@link ImSortedMapImpl} uses, with the elements as keys.
+ * Checking, adding and removing an element, finding the nearest element above
+ * or below a value, taking a range, splitting and joining all take O(log n)
+ * time, and the results share most of their nodes with the inputs.
+ * </p>
+ * <p>
+ * Union, intersection and difference split one tree by the root of the other
+ * and recurse, so combining a small set with a large one takes
+ * O(m log(n/m + 1)) time rather than time proportional to the larger set.
+ * </p>
+ * <p>
+ * Along with {@code ImSortedSet} this class also implements
+ * {@link java.util.SortedSet}, so that it can be handed to code that expects
+ * one. All of the mutating methods of {@code Set} throw
+ * {@link UnsupportedOperationException}. Use {@link ImSortedSetFns} to make
+ * changed copies instead.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements of the set
+ */
+public final class ImSortedSetImpl<E> extends AbstractSet<E>
+  implements ImSortedSet<E>, SortedSet<E> {
+
+  @SuppressWarnings("rawtypes")
+  private static final ImSortedSetImpl EMPTY = new ImSortedSetImpl<>(
+    null,
+    null
+  );
+
+  private static final int CHARACTERISTICS = Spliterator.ORDERED
+    | Spliterator.SORTED
+    | Spliterator.DISTINCT
+    | Spliterator.SIZED
+    | Spliterator.SUBSIZED
+    | Spliterator.IMMUTABLE;
+
+  private final Node root;
+  private final Comparator<? super E> comparator;
+  private final Comparator<Object> order;
+
+  private ImSortedSetImpl(Node root, Comparator<? super E> comparator) {
+    this.root = root;
+    this.comparator = comparator;
+    this.order = SortedTree.order(comparator);
+  }
+
+  /**
+   * Create an empty set whose elements are in their natural order.
+   *
+   * @param <E> the type of elements (that would be) in the set
+   * @return an empty set
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> ImSortedSetImpl<E> empty() {
+    return (ImSortedSetImpl<E>) EMPTY;
+  }
+
+  /**
+   * Create an empty set whose elements are ordered by a comparator.
+   *
+   * @param <E>        the type of elements (that would be) in the set
+   * @param comparator the order of the elements, or {@code null} for their
+   *                   natural order
+   * @return an empty set
+   */
+  public static <E> ImSortedSetImpl<E> empty(Comparator<? super E> comparator) {
+    return comparator == null
+      ? empty()
+      : new ImSortedSetImpl<>(null, comparator);
+  }
+
+  private ImSortedSetImpl<E> withRoot(Node newRoot) {
+    if (newRoot == root) {
+      return this;
+    }
+    return newRoot == null
+      ? empty(comparator)
+      : new ImSortedSetImpl<>(newRoot, comparator);
+  }
+
+  /**
+   * A copy of this set with an element added. Returns this set if it already
+   * has the element.
+   */
+  ImSortedSetImpl<E> plus(E elem) {
+    return withRoot(SortedTree.put(root, elem, null, order));
+  }
+
+  /**
+   * A copy of this set without an element. Returns this set if it does not
+   * have the element.
+   */
+  ImSortedSetImpl<E> minus(Object elem) {
+    return withRoot(SortedTree.remove(root, elem, order));
+  }
+
+  Node firstNode() {
+    return SortedTree.first(root);
+  }
+
+  Node lastNode() {
+    return SortedTree.last(root);
+  }
+
+  Node below(Object elem, boolean inclusive) {
+    return SortedTree.below(root, elem, inclusive, order);
+  }
+
+  Node above(Object elem, boolean inclusive) {
+    return SortedTree.above(root, elem, inclusive, order);
+  }
+
+  ImSortedSetImpl<E> head(Object to, boolean inclusive) {
+    return withRoot(SortedTree.head(root, to, inclusive, order));
+  }
+
+  ImSortedSetImpl<E> tail(Object from, boolean inclusive) {
+    return withRoot(SortedTree.tail(root, from, inclusive, order));
+  }
+
+  ImSortedSetImpl<E> range(
+    Object from,
+    boolean fromInclusive,
+    Object to,
+    boolean toInclusive
+  ) {
+    if (order.compare(from, to) > 0) {
+      throw new IllegalArgumentException("Range start is after its end");
+    }
+    return tail(from, fromInclusive).head(to, toInclusive);
+  }
+
+  /**
+   * Join this set with one whose elements are all above the elements of this
+   * set.
+   */
+  ImSortedSetImpl<E> join(ImSortedSetImpl<E> other) {
+    Node right = inOrder(other).root;
+    SortedTree.checkJoin(root, right, order);
+    return withRoot(SortedTree.concat(root, right));
+  }
+
+  ImSortedSetImpl<E> union(ImSortedSetImpl<E> other) {
+    return withRoot(SortedTree.union(root, inOrder(other).root, order));
+  }
+
+  ImSortedSetImpl<E> intersect(ImSortedSetImpl<E> other) {
+    return withRoot(SortedTree.intersect(root, inOrder(other).root, order));
+  }
+
+  ImSortedSetImpl<E> difference(ImSortedSetImpl<E> other) {
+    return withRoot(SortedTree.difference(root, inOrder(other).root, order));
+  }
+
+  /**
+   * Another set with its elements in the order of this one.
+   */
+  private ImSortedSetImpl<E> inOrder(ImSortedSetImpl<E> other) {
+    if (Objects.equals(comparator, other.comparator)) {
+      return other;
+    }
+    ImSortedSetImpl<E> result = empty(comparator);
+    for (E elem : other) {
+      result = result.plus(elem);
+    }
+    return result;
+  }
+
+  @Override
+  public Comparator<? super E> comparator() {
+    return comparator;
+  }
+
+  @Override
+  public int size() {
+    return SortedTree.size(root);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return root == null;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return SortedTree.get(root, o, order) != null;
+  }
+
+  @Override
+  public SortedSet<E> subSet(E fromElement, E toElement) {
+    return range(fromElement, true, toElement, false);
+  }
+
+  @Override
+  public SortedSet<E> headSet(E toElement) {
+    return head(toElement, false);
+  }
+
+  @Override
+  public SortedSet<E> tailSet(E fromElement) {
+    return tail(fromElement, true);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E first() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return (E) firstNode().key;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E last() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return (E) lastNode().key;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Spliterator<E> spliterator() {
+    return SortedTree.spliterator(
+      root,
+      (key, value) -> (E) key,
+      CHARACTERISTICS,
+      comparator
+    );
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Spliterators.iterator(spliterator());
+  }
+
+  @Override
+  public boolean add(E e) {
+    throw new UnsupportedOperationException(
+      "add not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    throw new UnsupportedOperationException(
+      "remove not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> c) {
+    throw new UnsupportedOperationException(
+      "addAll not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    throw new UnsupportedOperationException(
+      "removeAll not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    throw new UnsupportedOperationException(
+      "retainAll not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super E> filter) {
+    throw new UnsupportedOperationException(
+      "removeIf not allowed on an immutable set"
+    );
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException(
+      "clear not allowed on an immutable set"
+    );
+  }
+
+}
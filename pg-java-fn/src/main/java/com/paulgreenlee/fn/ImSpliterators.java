@@ -0,0 +1,263 @@
+package com.paulgreenlee.fn;
+
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Spliterators for the lists in this package. They all report their exact
+ * size, including after splitting, and split in the middle, so that parallel
+ * streams divide the work evenly between threads.
+ *
+ * @author Paul Greenlee
+ */
+final class ImSpliterators {
+
+  /**
+   * The characteristics of every spliterator over an immutable list.
+   */
+  static final int CHARACTERISTICS = Spliterator.ORDERED
+    | Spliterator.IMMUTABLE
+    | Spliterator.SIZED
+    | Spliterator.SUBSIZED;
+
+  /**
+   * Lazy sources with fewer elements than this are not split, because copying
+   * them into an array would cost more than it saves.
+   */
+  static final int MIN_BUFFERED_SPLIT = 1 << 10;
+
+  private ImSpliterators() {
+
+  }
+
+  /**
+   * A spliterator that reads elements by index.
+   *
+   * @param <E>  the type of the elements
+   * @param get  a function from index to element
+   * @param size the number of elements
+   * @return a spliterator over indexes {@code 0} to {@code size - 1}
+   */
+  static <E> Spliterator<E> indexed(IntFunction<? extends E> get, int size) {
+    return new IndexSpliterator<>(get, 0, size);
+  }
+
+  /**
+   * A spliterator over the elements of one spliterator followed by those of
+   * another. Unlike the spliterator of {@link java.util.stream.Stream#concat},
+   * it only splits at the seam when that is near the middle. Otherwise it
+   * splits the larger side, and keeps the smaller side with the half next to
+   * it.
+   *
+   * @param <E>    the type of the elements
+   * @param first  the elements that come first
+   * @param second the elements that come after them
+   * @return a spliterator over both
+   */
+  static <E> Spliterator<E> concat(
+    Spliterator<E> first,
+    Spliterator<E> second
+  ) {
+    return new ConcatSpliterator<>(first, second);
+  }
+
+  /**
+   * Give a spliterator an exact size. A source that already has all of the
+   * {@link #CHARACTERISTICS} is returned as it is. Otherwise the result splits
+   * by copying the first half of the remaining elements into an array. This is
+   * needed even for sources that report their size, because the spliterator of
+   * a sequential stream pipeline does not split.
+   *
+   * @param <E>    the type of the elements
+   * @param source a spliterator over {@code size} elements
+   * @param size   the number of elements
+   * @return a sized spliterator over the same elements
+   */
+  @SuppressWarnings("unchecked")
+  static <E> Spliterator<E> sized(Spliterator<? extends E> source, long size) {
+    Objects.requireNonNull(source, "Non-null spliterator required");
+    if (source.hasCharacteristics(CHARACTERISTICS)) {
+      return (Spliterator<E>) source;
+    }
+    return new BufferingSpliterator<>(source, size);
+  }
+
+  private static final class IndexSpliterator<E> implements Spliterator<E> {
+    private final IntFunction<? extends E> get;
+    private int next;
+    private final int end;
+
+    IndexSpliterator(IntFunction<? extends E> get, int next, int end) {
+      this.get = get;
+      this.next = next;
+      this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+      if (next >= end) {
+        return false;
+      }
+      action.accept(get.apply(next++));
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+      int i = next;
+      next = end;
+      for (; i < end; i++) {
+        action.accept(get.apply(i));
+      }
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+      int mid = (next + end) >>> 1;
+      if (mid <= next) {
+        return null;
+      }
+      Spliterator<E> prefix = new IndexSpliterator<>(get, next, mid);
+      next = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return end - next;
+    }
+
+    @Override
+    public int characteristics() {
+      return CHARACTERISTICS;
+    }
+  }
+
+  private static final class ConcatSpliterator<E> implements Spliterator<E> {
+    private Spliterator<E> first;
+    private final Spliterator<E> second;
+
+    ConcatSpliterator(Spliterator<E> first, Spliterator<E> second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+      if (first != null) {
+        if (first.tryAdvance(action)) {
+          return true;
+        }
+        first = null;
+      }
+      return second.tryAdvance(action);
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+      if (first != null) {
+        first.forEachRemaining(action);
+        first = null;
+      }
+      second.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+      if (first == null) {
+        return second.trySplit();
+      }
+      long a = first.estimateSize();
+      long b = second.estimateSize();
+      if (a > 2 * b) {
+        Spliterator<E> prefix = first.trySplit();
+        if (prefix != null) {
+          return prefix;
+        }
+      } else if (b > 2 * a) {
+        Spliterator<E> prefix = second.trySplit();
+        if (prefix != null) {
+          Spliterator<E> joined = new ConcatSpliterator<>(first, prefix);
+          first = null;
+          return joined;
+        }
+      }
+      Spliterator<E> prefix = first;
+      first = null;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      long size = second.estimateSize();
+      if (first != null) {
+        size += first.estimateSize();
+      }
+      return size < 0 ? Long.MAX_VALUE : size;
+    }
+
+    @Override
+    public int characteristics() {
+      if (first == null) {
+        return second.characteristics();
+      }
+      return first.characteristics() & second.characteristics()
+        & ~(Spliterator.DISTINCT | Spliterator.SORTED);
+    }
+  }
+
+  private static final class BufferingSpliterator<E>
+    implements Spliterator<E> {
+
+    private final Spliterator<? extends E> source;
+    private long remaining;
+
+    BufferingSpliterator(Spliterator<? extends E> source, long size) {
+      this.source = source;
+      this.remaining = size;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+      if (source.tryAdvance(action)) {
+        remaining--;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super E> action) {
+      remaining = 0;
+      source.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+      if (remaining < MIN_BUFFERED_SPLIT) {
+        return null;
+      }
+      Object[] prefix = new Object[(int) Math.min(remaining >>> 1, 1 << 30)];
+      int[] count = new int[1];
+      while (count[0] < prefix.length
+        && source.tryAdvance(elem -> prefix[count[0]++] = elem)) {
+      }
+      remaining -= count[0];
+      return Spliterators.spliterator(prefix, 0, count[0], CHARACTERISTICS);
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return CHARACTERISTICS;
+    }
+  }
+
+}
@@ -0,0 +1,767 @@
+package com.paulgreenlee.fn;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * A persistent vector: an {@link ImList} stored in a 32-way trie with a tail
+ * buffer for the last elements. Appending, prepending, indexed reads, updates
+ * and concatenation all take O(log<sub>32</sub> n) time, and each new version
+ * shares all of the untouched parts of the trie with the version it came from.
+ * </p>
+ * <p>
+ * Every interior node keeps a table of the cumulative sizes of its children, in
+ * the style of an RRB (relaxed radix balanced) tree. That lets two vectors be
+ * joined without copying either one: the nodes along the seam are rebalanced,
+ * and everything else is shared. In a trie that has only been appended to, the
+ * size tables agree with plain radix indexing, so lookups take one step per
+ * level.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ */
+public final class ImVector<E> extends AbstractImList<E>
+  implements RandomAccess {
+
+  static final int BITS = 5;
+  static final int WIDTH = 1 << BITS;
+
+  /**
+   * How many more nodes than the minimum a level may have after a
+   * concatenation before its nodes are repacked.
+   */
+  private static final int EXTRAS = 2;
+
+  private static final Object[] EMPTY_ARRAY = new Object[0];
+  private static final Node EMPTY_NODE = new Node(EMPTY_ARRAY, new int[0]);
+
+  @SuppressWarnings("rawtypes")
+  private static final ImVector EMPTY = new ImVector<>(
+    0,
+    BITS,
+    EMPTY_NODE,
+    EMPTY_ARRAY
+  );
+
+  private final int size;
+  private final int shift;
+  private final Node root;
+  private final Object[] tail;
+
+  ImVector(int size, int shift, Node root, Object[] tail) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = tail;
+  }
+
+  /**
+   * Create an empty vector.
+   *
+   * @param <E> the type of elements (that would be) in the vector
+   * @return an empty vector
+   */
+  @SuppressWarnings("unchecked")
+  public static <E> ImVector<E> empty() {
+    return (ImVector<E>) EMPTY;
+  }
+
+  /**
+   * Create a vector from a set of elements.
+   *
+   * @param <E>      the type of the elements
+   * @param elements the elements for the vector
+   * @return a vector containing the specified elements
+   */
+  @SafeVarargs
+  public static <E> ImVector<E> of(E... elements) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    return fromArray(elements);
+  }
+
+  /**
+   * Create a vector with the same elements as another list. If the list is
+   * already a vector, it is returned as it is.
+   *
+   * @param <E>  the type of the elements
+   * @param list a list
+   * @return a vector containing the elements of {@code list}
+   */
+  public static <E> ImVector<E> from(ImList<E> list) {
+    Objects.requireNonNull(list, "Non-null list required");
+    if (list instanceof ImVector) {
+      return (ImVector<E>) list;
+    }
+    return fromArray(list.stream().toArray());
+  }
+
+  /**
+   * Build a packed trie bottom up. The array is only read.
+   */
+  private static <E> ImVector<E> fromArray(Object[] elements) {
+    int n = elements.length;
+    if (n == 0) {
+      return empty();
+    }
+    int tailLength = ((n - 1) & (WIDTH - 1)) + 1;
+    int treeSize = n - tailLength;
+    Object[] tail = Arrays.copyOfRange(elements, treeSize, n);
+    if (treeSize == 0) {
+      return new ImVector<>(n, BITS, EMPTY_NODE, tail);
+    }
+    Object[] level = new Object[treeSize / WIDTH];
+    for (int i = 0; i < level.length; i++) {
+      level[i] = new Node(
+        Arrays.copyOfRange(elements, i * WIDTH, (i + 1) * WIDTH),
+        null
+      );
+    }
+    int levelShift = 0;
+    do {
+      Object[] parents = new Object[(level.length + WIDTH - 1) / WIDTH];
+      for (int i = 0; i < parents.length; i++) {
+        parents[i] = Node.branch(
+          Arrays.copyOfRange(
+            level,
+            i * WIDTH,
+            Math.min((i + 1) * WIDTH, level.length)
+          )
+        );
+      }
+      level = parents;
+      levelShift += BITS;
+    } while (level.length > 1);
+    return new ImVector<>(n, levelShift, (Node) level[0], tail);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return new Spl(0, size);
+  }
+
+  @Override
+  Spliterator<E> spliterator(int from, int to) {
+    return new Spl(from, to);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    int tailOffset = tailOffset();
+    if (index >= tailOffset) {
+      return (E) tail[index - tailOffset];
+    }
+    Node node = root;
+    int i = index;
+    for (int s = shift; s > 0; s -= BITS) {
+      int slot = node.slotFor(i, s);
+      i -= node.sizeBefore(slot);
+      node = (Node) node.array[slot];
+    }
+    return (E) node.array[i];
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Itr();
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] result = new Object[size];
+    int i = 0;
+    for (Iterator<E> it = iterator(); it.hasNext();) {
+      result[i++] = it.next();
+    }
+    return result;
+  }
+
+  /**
+   * Add an element to the end of the vector. This does not modify this vector.
+   *
+   * @param elem the element to add
+   * @return a new vector that has {@code elem} as the last element
+   */
+  public ImVector<E> append(E elem) {
+    if (tail.length < WIDTH) {
+      Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+      newTail[tail.length] = elem;
+      return new ImVector<>(size + 1, shift, root, newTail);
+    }
+    return withTail(new Object[] { elem });
+  }
+
+  /**
+   * Move the tail into the trie, and start a new tail. The new tail must not
+   * be empty, and is not copied.
+   */
+  private ImVector<E> withTail(Object[] newTail) {
+    if (size == 0) {
+      return new ImVector<>(newTail.length, BITS, EMPTY_NODE, newTail);
+    }
+    Node leaf = new Node(tail, null);
+    Node newRoot = pushLeaf(root, shift, leaf);
+    int newShift = shift;
+    if (newRoot == null) {
+      newRoot = Node.branch(new Object[] { root, newPath(shift, leaf) });
+      newShift += BITS;
+    }
+    return new ImVector<>(size + newTail.length, newShift, newRoot, newTail);
+  }
+
+  /**
+   * Add an element to the start of the vector. This does not modify this
+   * vector.
+   *
+   * @param elem the element to add
+   * @return a new vector that has {@code elem} as the first element
+   */
+  public ImVector<E> prepend(E elem) {
+    return new ImVector<E>(1, BITS, EMPTY_NODE, new Object[] { elem })
+      .concat(this);
+  }
+
+  /**
+   * Replace the element at a position. This does not modify this vector.
+   *
+   * @param index the position to replace
+   * @param elem  the new element
+   * @return a new vector that has {@code elem} at {@code index}
+   * @throws IndexOutOfBoundsException if {@code index} is not in the vector
+   */
+  public ImVector<E> update(int index, E elem) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    int tailOffset = tailOffset();
+    if (index >= tailOffset) {
+      Object[] newTail = tail.clone();
+      newTail[index - tailOffset] = elem;
+      return new ImVector<>(size, shift, root, newTail);
+    }
+    return new ImVector<>(
+      size,
+      shift,
+      update(root, shift, index, elem),
+      tail
+    );
+  }
+
+  /**
+   * Join two vectors. All of the elements of this vector will be first,
+   * followed by all the elements of {@code other}. Neither vector is modified.
+   *
+   * @param other the vector to add to the end
+   * @return a new vector containing the elements of both vectors
+   */
+  public ImVector<E> concat(ImVector<E> other) {
+    Objects.requireNonNull(other, "Non-null vector required");
+    if (other.size == 0) {
+      return this;
+    }
+    if (size == 0) {
+      return other;
+    }
+    if (other.size == other.tail.length) {
+      ImVector<E> result = this;
+      for (Object elem : other.tail) {
+        @SuppressWarnings("unchecked")
+        E e = (E) elem;
+        result = result.append(e);
+      }
+      return result;
+    }
+
+    // The tail of this vector becomes the last leaf of its trie, which may
+    // leave that leaf less than full.
+    Node leaf = new Node(tail, null);
+    Node left = pushLeaf(root, shift, leaf);
+    int leftShift = shift;
+    if (left == null) {
+      left = Node.branch(new Object[] { root, newPath(shift, leaf) });
+      leftShift += BITS;
+    }
+
+    Node merged = concatSubTree(left, leftShift, other.root, other.shift);
+    int mergedShift = Math.max(leftShift, other.shift) + BITS;
+    while (mergedShift > BITS && merged.array.length == 1) {
+      merged = (Node) merged.array[0];
+      mergedShift -= BITS;
+    }
+    return new ImVector<>(
+      size + other.size,
+      mergedShift,
+      merged,
+      other.tail
+    );
+  }
+
+  /**
+   * Start a batch of edits. The transient shares this vector's trie, copying
+   * each node the first time it changes it, so this vector is not affected.
+   */
+  TransientImList<E> asTransient() {
+    return new TransientImList<>(size, shift, root, tail);
+  }
+
+  private int tailOffset() {
+    return size - tail.length;
+  }
+
+  /**
+   * Add a leaf as the last leaf below {@code node}.
+   *
+   * @return the new node, or {@code null} if there is no room below
+   *         {@code node}
+   */
+  private static Node pushLeaf(Node node, int shift, Node leaf) {
+    int length = node.array.length;
+    if (shift == BITS) {
+      return length == WIDTH ? null : node.withAppended(leaf);
+    }
+    if (length > 0) {
+      Node pushed = pushLeaf(
+        (Node) node.array[length - 1],
+        shift - BITS,
+        leaf
+      );
+      if (pushed != null) {
+        return node.withLast(pushed);
+      }
+    }
+    return length == WIDTH
+      ? null
+      : node.withAppended(newPath(shift - BITS, leaf));
+  }
+
+  private static Node newPath(int shift, Node leaf) {
+    Node node = leaf;
+    for (int s = 0; s < shift; s += BITS) {
+      node = Node.branch(new Object[] { node });
+    }
+    return node;
+  }
+
+  private static Node update(Node node, int shift, int index, Object elem) {
+    Object[] array = node.array.clone();
+    if (shift == 0) {
+      array[index] = elem;
+      return new Node(array, null);
+    }
+    int slot = node.slotFor(index, shift);
+    array[slot] = update(
+      (Node) node.array[slot],
+      shift - BITS,
+      index - node.sizeBefore(slot),
+      elem
+    );
+    return new Node(array, node.sizes);
+  }
+
+  /**
+   * Join two subtrees. The result is a node one level above the taller of the
+   * two, holding one or two children.
+   */
+  private static Node concatSubTree(
+    Node left,
+    int leftShift,
+    Node right,
+    int rightShift
+  ) {
+    if (leftShift > rightShift) {
+      Node mid = concatSubTree(
+        left.last(),
+        leftShift - BITS,
+        right,
+        rightShift
+      );
+      return rebalance(left, mid, null, leftShift);
+    }
+    if (leftShift < rightShift) {
+      Node mid = concatSubTree(
+        left,
+        leftShift,
+        right.first(),
+        rightShift - BITS
+      );
+      return rebalance(null, mid, right, rightShift);
+    }
+    if (leftShift == 0) {
+      int total = left.array.length + right.array.length;
+      if (total <= WIDTH) {
+        Object[] array = Arrays.copyOf(left.array, total);
+        System.arraycopy(
+          right.array,
+          0,
+          array,
+          left.array.length,
+          right.array.length
+        );
+        return Node.branch(new Object[] { new Node(array, null) });
+      }
+      return Node.branch(new Object[] { left, right });
+    }
+    Node mid = concatSubTree(
+      left.last(),
+      leftShift - BITS,
+      right.first(),
+      rightShift - BITS
+    );
+    return rebalance(left, mid, right, leftShift);
+  }
+
+  /**
+   * Gather the children of {@code left} (all but its last), {@code mid}, and
+   * {@code right} (all but its first), repack them if there are too many, and
+   * return a node one level above {@code shift} holding the result.
+   */
+  private static Node rebalance(
+    Node left,
+    Node mid,
+    Node right,
+    int shift
+  ) {
+    int leftCount = left == null ? 0 : left.array.length - 1;
+    int rightCount = right == null ? 0 : right.array.length - 1;
+    Object[] all = new Object[leftCount + mid.array.length + rightCount];
+    if (leftCount > 0) {
+      System.arraycopy(left.array, 0, all, 0, leftCount);
+    }
+    System.arraycopy(mid.array, 0, all, leftCount, mid.array.length);
+    if (rightCount > 0) {
+      System.arraycopy(
+        right.array,
+        1,
+        all,
+        leftCount + mid.array.length,
+        rightCount
+      );
+    }
+
+    Object[] packed = repack(all, shift - BITS);
+    if (packed.length <= WIDTH) {
+      return Node.branch(new Object[] { Node.branch(packed) });
+    }
+    return Node.branch(
+      new Object[] {
+        Node.branch(Arrays.copyOfRange(packed, 0, WIDTH)),
+        Node.branch(Arrays.copyOfRange(packed, WIDTH, packed.length)) }
+    );
+  }
+
+  /**
+   * Redistribute the slots of sibling nodes so that there are at most
+   * {@link #EXTRAS} more nodes than needed. Short nodes are merged into the
+   * nodes that follow them; nodes that keep their contents are reused.
+   */
+  private static Object[] repack(Object[] nodes, int shift) {
+    int[] counts = new int[nodes.length];
+    int total = 0;
+    for (int i = 0; i < nodes.length; i++) {
+      counts[i] = ((Node) nodes[i]).array.length;
+      total += counts[i];
+    }
+    int optimal = (total + WIDTH - 1) / WIDTH;
+    int length = nodes.length;
+    if (optimal + EXTRAS >= length) {
+      return nodes;
+    }
+
+    int i = 0;
+    while (optimal + EXTRAS < length) {
+      while (counts[i] > WIDTH - EXTRAS / 2) {
+        i++;
+      }
+      int remaining = counts[i];
+      do {
+        int min = Math.min(remaining + counts[i + 1], WIDTH);
+        remaining = remaining + counts[i + 1] - min;
+        counts[i] = min;
+        i++;
+      } while (remaining > 0);
+      System.arraycopy(counts, i + 1, counts, i, length - i - 1);
+      length--;
+      i--;
+    }
+
+    Object[] result = new Object[length];
+    int source = 0;
+    int offset = 0;
+    for (int k = 0; k < length; k++) {
+      Node node = (Node) nodes[source];
+      if (offset == 0 && node.array.length == counts[k]) {
+        result[k] = node;
+        source++;
+        continue;
+      }
+      Object[] array = new Object[counts[k]];
+      int filled = 0;
+      while (filled < array.length) {
+        node = (Node) nodes[source];
+        int take = Math
+          .min(array.length - filled, node.array.length - offset);
+        System.arraycopy(node.array, offset, array, filled, take);
+        filled += take;
+        offset += take;
+        if (offset == node.array.length) {
+          source++;
+          offset = 0;
+        }
+      }
+      result[k] = shift == 0 ? new Node(array, null) : Node.branch(array);
+    }
+    return result;
+  }
+
+  /**
+   * A node in the trie. Leaves hold elements and have no size table. Interior
+   * nodes hold child nodes and the cumulative number of elements below each
+   * child.
+   */
+  static final class Node {
+    final Object[] array;
+    final int[] sizes;
+
+    /**
+     * The {@link TransientImList} that may change this node in place, or null
+     * if no transient owns it.
+     */
+    final Object edit;
+
+    Node(Object[] array, int[] sizes) {
+      this(array, sizes, null);
+    }
+
+    Node(Object[] array, int[] sizes, Object edit) {
+      this.array = array;
+      this.sizes = sizes;
+      this.edit = edit;
+    }
+
+    static Node branch(Object[] children) {
+      return branch(children, null);
+    }
+
+    static Node branch(Object[] children, Object edit) {
+      int[] sizes = new int[children.length];
+      int total = 0;
+      for (int i = 0; i < children.length; i++) {
+        total += ((Node) children[i]).size();
+        sizes[i] = total;
+      }
+      return new Node(children, sizes, edit);
+    }
+
+    int size() {
+      if (sizes == null) {
+        return array.length;
+      }
+      return sizes.length == 0 ? 0 : sizes[sizes.length - 1];
+    }
+
+    int slotFor(int index, int shift) {
+      int slot = index >>> shift;
+      while (sizes[slot] <= index) {
+        slot++;
+      }
+      return slot;
+    }
+
+    int sizeBefore(int slot) {
+      return slot == 0 ? 0 : sizes[slot - 1];
+    }
+
+    Node first() {
+      return (Node) array[0];
+    }
+
+    Node last() {
+      return (Node) array[array.length - 1];
+    }
+
+    Node withAppended(Node child) {
+      Object[] newArray = Arrays.copyOf(array, array.length + 1);
+      newArray[array.length] = child;
+      int[] newSizes = Arrays.copyOf(sizes, sizes.length + 1);
+      newSizes[sizes.length] = size() + child.size();
+      return new Node(newArray, newSizes);
+    }
+
+    Node withLast(Node child) {
+      int last = array.length - 1;
+      Object[] newArray = array.clone();
+      newArray[last] = child;
+      int[] newSizes = sizes.clone();
+      newSizes[last] = sizeBefore(last) + child.size();
+      return new Node(newArray, newSizes);
+    }
+  }
+
+  /**
+   * Builds a vector one element at a time, filling a whole leaf before adding
+   * it to the trie, so that each element is copied once rather than with every
+   * append. Appenders are joined with {@link ImVector#concat}, which makes them
+   * suitable for collecting parallel streams.
+   *
+   * @param <E> the type of the elements
+   */
+  static final class Appender<E> {
+    private ImVector<E> vector = empty();
+    private Object[] leaf = new Object[WIDTH];
+    private int count;
+
+    void add(E elem) {
+      if (count == WIDTH) {
+        vector = vector.withTail(leaf);
+        leaf = new Object[WIDTH];
+        count = 0;
+      }
+      leaf[count++] = elem;
+    }
+
+    Appender<E> combine(Appender<E> other) {
+      vector = result().concat(other.result());
+      leaf = new Object[WIDTH];
+      count = 0;
+      return this;
+    }
+
+    ImVector<E> result() {
+      return count == 0
+        ? vector
+        : vector.withTail(Arrays.copyOf(leaf, count));
+    }
+  }
+
+  /**
+   * A position in the vector, with the leaf that holds it.
+   */
+  private abstract class Cursor {
+    int next;
+    Object[] leaf = EMPTY_ARRAY;
+    int leafStart;
+
+    void seek(int index) {
+      int tailOffset = tailOffset();
+      if (index >= tailOffset) {
+        leaf = tail;
+        leafStart = tailOffset;
+        return;
+      }
+      Node node = root;
+      int i = index;
+      for (int s = shift; s > 0; s -= BITS) {
+        int slot = node.slotFor(i, s);
+        i -= node.sizeBefore(slot);
+        node = (Node) node.array[slot];
+      }
+      leaf = node.array;
+      leafStart = index - i;
+    }
+  }
+
+  private final class Itr extends Cursor implements Iterator<E> {
+
+    @Override
+    public boolean hasNext() {
+      return next < size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+      if (next >= size)
+        throw new NoSuchElementException();
+      if (next - leafStart >= leaf.length) {
+        seek(next);
+      }
+      return (E) leaf[next++ - leafStart];
+    }
+  }
+
+  /**
+   * Splits by index, in the middle, and walks whole leaves at a time.
+   */
+  private final class Spl extends Cursor implements Spliterator<E> {
+    private final int end;
+
+    Spl(int next, int end) {
+      this.next = next;
+      this.end = end;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean tryAdvance(Consumer<? super E> action) {
+      if (next >= end) {
+        return false;
+      }
+      if (next - leafStart >= leaf.length) {
+        seek(next);
+      }
+      action.accept((E) leaf[next++ - leafStart]);
+      return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEachRemaining(Consumer<? super E> action) {
+      while (next < end) {
+        if (next - leafStart >= leaf.length) {
+          seek(next);
+        }
+        int stop = Math.min(end, leafStart + leaf.length);
+        int i = next - leafStart;
+        next = stop;
+        for (int j = stop - leafStart; i < j; i++) {
+          action.accept((E) leaf[i]);
+        }
+      }
+    }
+
+    @Override
+    public Spliterator<E> trySplit() {
+      int mid = (next + end) >>> 1;
+      if (mid <= next) {
+        return null;
+      }
+      Spl prefix = new Spl(next, mid);
+      next = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return end - next;
+    }
+
+    @Override
+    public int characteristics() {
+      return ImSpliterators.CHARACTERISTICS;
+    }
+  }
+
+}
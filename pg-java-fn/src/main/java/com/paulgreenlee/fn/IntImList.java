@@ -0,0 +1,290 @@
+package com.paulgreenlee.fn;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable list of {@code int} values, stored in a {@code int[]}
+ * without boxing. It has the same shape as {@link ImList}, but streams as an
+ * {@link IntStream} and reads values with {@link #getInt(int)}. Use
+ * {@link #boxed()} to pass it to code that expects an {@code ImList}.
+ * <p>
+ * Several lists may share one array: dropping elements from either end takes
+ * constant time, while adding elements or concatenating copies the values. See
+ * the {@code IntImList} overloads in {@link ImListFns}.
+ * </p>
+ *
+ * @author Paul Greenlee
+ */
+public final class IntImList {
+
+  private static final IntImList EMPTY = new IntImList(
+    new int[0],
+    0,
+    0
+  );
+
+  private final int[] array;
+  private final int offset;
+  private final int size;
+
+  private IntImList(int[] array, int offset, int size) {
+    this.array = array;
+    this.offset = offset;
+    this.size = size;
+  }
+
+  /**
+   * Create an empty list.
+   *
+   * @return an empty list
+   */
+  public static IntImList empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Create a list from a set of values. The values are copied, so later changes
+   * to the array are not seen by the list.
+   *
+   * @param values the values for the list
+   * @return an immutable list containing the specified values
+   */
+  public static IntImList of(int... values) {
+    Objects.requireNonNull(values, "Non-null array required");
+    if (values.length == 0) {
+      return EMPTY;
+    }
+    return new IntImList(values.clone(), 0, values.length);
+  }
+
+  /**
+   * Create a list of unboxed values from a list of boxed ones.
+   *
+   * @param list a list of values, none of which may be null
+   * @return a list with the same values
+   * @throws NullPointerException if {@code list} contains null
+   */
+  public static IntImList from(ImList<Integer> list) {
+    Objects.requireNonNull(list, "Non-null list required");
+    if (list instanceof Boxed) {
+      return ((Boxed) list).values();
+    }
+    int[] values = list.stream().mapToInt(Integer::intValue).toArray();
+    if (values.length == 0) {
+      return EMPTY;
+    }
+    return new IntImList(values, 0, values.length);
+  }
+
+  /**
+   * The number of values in the list.
+   *
+   * @return the number of values in the list
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Is the list empty?
+   *
+   * @return true if the list has no values
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Read the value at a position.
+   *
+   * @param index the position to read
+   * @return the value at {@code index}
+   * @throws IndexOutOfBoundsException if {@code index} is not in the list
+   */
+  public int getInt(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return array[offset + index];
+  }
+
+  /**
+   * Stream the values of the list.
+   *
+   * @return a stream of the values
+   */
+  public IntStream stream() {
+    return Arrays.stream(array, offset, offset + size);
+  }
+
+  /**
+   * Copy the values into a new array.
+   *
+   * @return an array containing the values, in order
+   */
+  public int[] toArray() {
+    return Arrays.copyOfRange(array, offset, offset + size);
+  }
+
+  /**
+   * View this list as an {@link ImList} of boxed values. The view reads from
+   * this list, so creating it does not copy anything, but each value is boxed
+   * as it is read.
+   *
+   * @return a boxed view of this list
+   */
+  public ImList<Integer> boxed() {
+    return new Boxed(this);
+  }
+
+  int first() {
+    if (size == 0)
+      throw new NoSuchElementException("The list is empty");
+    return array[offset];
+  }
+
+  int last() {
+    if (size == 0)
+      throw new NoSuchElementException("The list is empty");
+    return array[offset + size - 1];
+  }
+
+  IntImList append(int value) {
+    int[] values = Arrays.copyOfRange(array, offset, offset + size + 1);
+    values[size] = value;
+    return new IntImList(values, 0, values.length);
+  }
+
+  IntImList prepend(int value) {
+    int[] values = new int[size + 1];
+    values[0] = value;
+    System.arraycopy(array, offset, values, 1, size);
+    return new IntImList(values, 0, values.length);
+  }
+
+  IntImList concat(IntImList other) {
+    if (other.size == 0) {
+      return this;
+    }
+    if (size == 0) {
+      return other;
+    }
+    int[] values = Arrays
+      .copyOfRange(array, offset, offset + size + other.size);
+    System.arraycopy(other.array, other.offset, values, size, other.size);
+    return new IntImList(values, 0, values.length);
+  }
+
+  IntImList slice(int from, int to) {
+    if (from == 0 && to == size) {
+      return this;
+    }
+    if (from == to) {
+      return EMPTY;
+    }
+    return new IntImList(array, offset + from, to - from);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other)
+      return true;
+    if (!(other instanceof IntImList))
+      return false;
+    IntImList o = (IntImList) other;
+    if (size != o.size)
+      return false;
+    for (int i = 0; i < size; i++) {
+      if (array[offset + i] != o.array[o.offset + i])
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * The hash code is the same as the hash code of a {@link java.util.List}
+   * holding the boxed values.
+   */
+  @Override
+  public int hashCode() {
+    int hash = 1;
+    for (int i = offset; i < offset + size; i++) {
+      hash = 31 * hash + Integer.hashCode(array[i]);
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+
+  private static final class Boxed extends AbstractImList<Integer>
+    implements RandomAccess {
+
+    private final IntImList values;
+
+    Boxed(IntImList values) {
+      this.values = values;
+    }
+
+    IntImList values() {
+      return values;
+    }
+
+    @Override
+    public int size() {
+      return values.size;
+    }
+
+    @Override
+    public Stream<Integer> stream() {
+      return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Reads the array by index, so it splits like the spliterator of
+     * {@code values}, rather than being the spliterator of a boxing stream,
+     * which does not split.
+     */
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return ImSpliterators
+        .indexed(i -> values.array[values.offset + i], values.size);
+    }
+
+    @Override
+    public Integer get(int index) {
+      return values.getInt(index);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+      return new PrimitiveIterator.OfInt() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < values.size;
+        }
+
+        @Override
+        public int nextInt() {
+          if (next >= values.size)
+            throw new NoSuchElementException();
+          return values.array[values.offset + next++];
+        }
+      };
+    }
+  }
+
+}
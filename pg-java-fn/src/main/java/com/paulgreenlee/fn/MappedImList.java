@@ -0,0 +1,95 @@
+package com.paulgreenlee.fn;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.paulgreenlee.fn.Fns.IndexedFunction;
+
+/**
+ * A view of a random access list with a function applied to each element. It
+ * has the same size as its source, and reading an element reads the source
+ * element at the same position and applies the function to it, so nothing is
+ * stored and nothing is computed until it is read. Mapping a view again
+ * composes the two functions over the original source.
+ * <p>
+ * The function runs every time an element is read. Wrap the view with
+ * {@link ImListFns#cached(ImList)} if it is read many times.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <S> the type of the elements in the source list
+ * @param <E> the type of the elements in this list
+ * @see ImListFns#map
+ * @see ImListFns#mapIndexed
+ */
+final class MappedImList<S, E> extends AbstractImList<E>
+  implements RandomAccess {
+
+  private final AbstractImList<S> source;
+  private final IndexedFunction<? super S, ? extends E> fn;
+
+  MappedImList(
+    AbstractImList<S> source,
+    IndexedFunction<? super S, ? extends E> fn
+  ) {
+    this.source = source;
+    this.fn = fn;
+  }
+
+  /**
+   * Apply another function after this one, reading from the same source.
+   */
+  <R> MappedImList<S, R> andThen(IndexedFunction<? super E, ? extends R> next) {
+    IndexedFunction<? super S, ? extends E> first = fn;
+    return new MappedImList<>(
+      source,
+      (index, value) -> next.apply(index, first.apply(index, value))
+    );
+  }
+
+  @Override
+  public int size() {
+    return source.size();
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return ImSpliterators.indexed(this::get, size());
+  }
+
+  @Override
+  public E get(int index) {
+    return fn.apply(index, source.get(index));
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private final Iterator<S> sourceIter = source.iterator();
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return sourceIter.hasNext();
+      }
+
+      @Override
+      public E next() {
+        if (!sourceIter.hasNext())
+          throw new NoSuchElementException();
+        return fn.apply(next++, sourceIter.next());
+      }
+    };
+  }
+
+}
@@ -0,0 +1,382 @@
+package com.paulgreenlee.fn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>
+ * An {@link ImList} whose elements are encoded with a {@link Codec} and kept
+ * in direct {@link ByteBuffer} segments, outside the Java heap. Only the
+ * elements being read are decoded, by {@code get} or as a stream reaches them,
+ * so a large list costs the garbage collector a handful of buffer objects
+ * rather than one object per element.
+ * </p>
+ * <p>
+ * With a fixed-size codec, the position of an element is computed from its
+ * index. Otherwise an off-heap index of element offsets is kept alongside the
+ * data, at eight bytes per element.
+ * </p>
+ * <p>
+ * A list can also be saved to a file with {@link #write(ImList, Codec, Path)}
+ * and reopened with {@link #open(Path, Codec)}. Opening maps the file into
+ * memory without reading it, so it takes the same time whatever the size of
+ * the list, and every process that opens the same file shares one copy of it
+ * in the operating system's page cache.
+ * </p>
+ * <p>
+ * {@link #close()} does not free the off-heap memory or unmap the file. It
+ * only drops the list's references to its buffers, and the memory is returned
+ * when the garbage collector collects those buffer objects, which may not
+ * happen until a full collection. Freeing it straight away would let a read
+ * that is already running on another thread touch released memory. Reading a
+ * closed list throws {@link IllegalStateException}.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ */
+public final class OffHeapImList<E> extends AbstractImList<E>
+  implements RandomAccess, Closeable {
+
+  /**
+   * Segments are 1 GiB, comfortably under the 2 GiB limit of a ByteBuffer.
+   */
+  static final int DEFAULT_SEGMENT_SHIFT = 30;
+
+  /**
+   * The file layout is a header of {@value #HEADER_SIZE} bytes (magic number,
+   * version, size, codec fixed size and data length), then the encoded
+   * elements, then for variable-size codecs the offset index, starting at the
+   * next multiple of eight bytes.
+   */
+  private static final int MAGIC = 0x494d4c53;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 24;
+
+  private final int size;
+  private final Codec<E> codec;
+  private final int fixedSize;
+  private volatile ByteSegments data;
+  private volatile ByteSegments offsets;
+
+  OffHeapImList(
+    int size,
+    Codec<E> codec,
+    ByteSegments data,
+    ByteSegments offsets
+  ) {
+    this.size = size;
+    this.codec = codec;
+    this.fixedSize = codec.fixedSize();
+    this.data = data;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Encode the elements of a list into off-heap memory.
+   *
+   * @param <E>   the type of the elements
+   * @param list  the list to copy; none of its elements may be null
+   * @param codec the codec that converts elements to bytes
+   * @return an off-heap list with the same elements
+   * @throws IllegalArgumentException if a fixed-size codec reports a different
+   *                                  size for one of the elements
+   */
+  public static <E> OffHeapImList<E> of(ImList<E> list, Codec<E> codec) {
+    return of(list, codec, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  static <E> OffHeapImList<E> of(
+    ImList<E> list,
+    Codec<E> codec,
+    int segmentShift
+  ) {
+    Objects.requireNonNull(list, "Non-null list required");
+    Objects.requireNonNull(codec, "Non-null codec required");
+    ByteSegments.Writer data = new ByteSegments.Writer(segmentShift);
+    ByteSegments.Writer offsets = codec.fixedSize() == Codec.VARIABLE_SIZE
+      ? new ByteSegments.Writer(segmentShift)
+      : null;
+    encode(list, codec, data, offsets);
+    return new OffHeapImList<>(
+      list.size(),
+      codec,
+      data.finish(),
+      offsets == null ? null : offsets.finish()
+    );
+  }
+
+  /**
+   * Encode the elements of a list into a file, replacing anything already
+   * there. The list can be read back with {@link #open(Path, Codec)}.
+   *
+   * @param <E>   the type of the elements
+   * @param list  the list to save; none of its elements may be null
+   * @param codec the codec that converts elements to bytes
+   * @param path  the file to write
+   * @throws IOException              if the file cannot be written
+   * @throws IllegalArgumentException if a fixed-size codec reports a different
+   *                                  size for one of the elements
+   */
+  public static <E> void write(ImList<E> list, Codec<E> codec, Path path)
+    throws IOException {
+    Objects.requireNonNull(list, "Non-null list required");
+    Objects.requireNonNull(codec, "Non-null codec required");
+    Objects.requireNonNull(path, "Non-null path required");
+    try (FileChannel channel = FileChannel.open(
+      path,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING,
+      StandardOpenOption.WRITE
+    )) {
+      channel.position(HEADER_SIZE);
+      ByteSegments.ChannelSink data = new ByteSegments.ChannelSink(channel);
+      ByteSegments.Writer offsets = codec.fixedSize() == Codec.VARIABLE_SIZE
+        ? new ByteSegments.Writer(DEFAULT_SEGMENT_SHIFT)
+        : null;
+      try {
+        encode(list, codec, data, offsets);
+        data.flush();
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      long dataLength = data.position();
+      if (offsets != null) {
+        channel.position(indexStart(dataLength));
+        offsets.finish().writeTo(channel);
+      }
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC)
+        .putInt(VERSION)
+        .putInt(list.size())
+        .putInt(codec.fixedSize())
+        .putLong(dataLength)
+        .flip();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+    }
+  }
+
+  /**
+   * Open a file written by {@link #write(ImList, Codec, Path)}. The file is
+   * mapped into memory rather than read, and elements are decoded as they are
+   * used. The file must not be changed while the list is in use.
+   *
+   * @param <E>   the type of the elements
+   * @param path  the file to open
+   * @param codec the codec the file was written with
+   * @return a list backed by the file
+   * @throws IOException              if the file cannot be read, or was not
+   *                                  written by {@code write}
+   * @throws IllegalArgumentException if the file was written with a codec of a
+   *                                  different fixed size
+   */
+  public static <E> OffHeapImList<E> open(Path path, Codec<E> codec)
+    throws IOException {
+    Objects.requireNonNull(path, "Non-null path required");
+    Objects.requireNonNull(codec, "Non-null codec required");
+    try (FileChannel channel = FileChannel
+      .open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          throw new IOException(path + " is not an ImList file");
+        }
+      }
+      header.flip();
+      if (header.getInt() != MAGIC) {
+        throw new IOException(path + " is not an ImList file");
+      }
+      int version = header.getInt();
+      if (version != VERSION) {
+        throw new IOException(path + " has unsupported version " + version);
+      }
+      int size = header.getInt();
+      int fixedSize = header.getInt();
+      long dataLength = header.getLong();
+      if (fixedSize != codec.fixedSize()) {
+        throw new IllegalArgumentException(
+          path + " was written with a fixed size of " + fixedSize
+            + " bytes, but the codec has " + codec.fixedSize()
+        );
+      }
+      long indexLength = fixedSize == Codec.VARIABLE_SIZE
+        ? (size + 1L) * Long.BYTES
+        : 0;
+      long expected = fixedSize == Codec.VARIABLE_SIZE
+        ? indexStart(dataLength) + indexLength
+        : HEADER_SIZE + dataLength;
+      if (size < 0 || dataLength < 0 || channel.size() < expected) {
+        throw new IOException(path + " is truncated");
+      }
+      return new OffHeapImList<>(
+        size,
+        codec,
+        ByteSegments
+          .map(channel, HEADER_SIZE, dataLength, DEFAULT_SEGMENT_SHIFT),
+        indexLength == 0
+          ? null
+          : ByteSegments.map(
+            channel,
+            indexStart(dataLength),
+            indexLength,
+            DEFAULT_SEGMENT_SHIFT
+          )
+      );
+    }
+  }
+
+  private static long indexStart(long dataLength) {
+    return (HEADER_SIZE + dataLength + Long.BYTES - 1) & -Long.BYTES;
+  }
+
+  /**
+   * Write each element to {@code data}, and its start offset to
+   * {@code offsets} if that is not null, followed by the end of the data.
+   */
+  private static <E> void encode(
+    ImList<E> list,
+    Codec<E> codec,
+    ByteSegments.Sink data,
+    ByteSegments.Writer offsets
+  ) {
+    int fixedSize = codec.fixedSize();
+    ByteBuffer scratch = ByteBuffer.allocate(Math.max(fixedSize, 64));
+    for (Iterator<E> it = list.stream().iterator(); it.hasNext();) {
+      E elem = it.next();
+      int elemSize = codec.sizeOf(elem);
+      if (fixedSize != Codec.VARIABLE_SIZE && elemSize != fixedSize) {
+        throw new IllegalArgumentException(
+          "codec has a fixed size of " + fixedSize + " bytes, but needs "
+            + elemSize + " bytes for " + elem
+        );
+      }
+      if (scratch.capacity() < elemSize) {
+        scratch = ByteBuffer
+          .allocate(Math.max(elemSize, scratch.capacity() * 2));
+      }
+      scratch.clear();
+      codec.write(elem, scratch);
+      scratch.flip();
+      if (scratch.remaining() != elemSize) {
+        throw new IllegalStateException(
+          "codec wrote " + scratch.remaining() + " bytes for " + elem
+            + ", but reported a size of " + elemSize
+        );
+      }
+      if (offsets != null) {
+        offsets.putLong(data.position());
+      }
+      data.put(scratch);
+    }
+    if (offsets != null) {
+      offsets.putLong(data.position());
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return ImSpliterators.indexed(this::get, size);
+  }
+
+  @Override
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    // Read each field once, so that a close() from another thread between
+    // the check and the reads below cannot be seen halfway.
+    ByteSegments bytes = data;
+    ByteSegments starts = offsets;
+    if (bytes == null
+      || (fixedSize == Codec.VARIABLE_SIZE && starts == null)) {
+      throw new IllegalStateException("list has been closed");
+    }
+    long start;
+    int length;
+    if (fixedSize != Codec.VARIABLE_SIZE) {
+      start = (long) index * fixedSize;
+      length = fixedSize;
+    } else {
+      start = starts.getLong((long) index * Long.BYTES);
+      length = (int) (starts.getLong((long) (index + 1) * Long.BYTES)
+        - start);
+    }
+    return codec.read(bytes.slice(start, length), length);
+  }
+
+  /**
+   * An index of the elements would put them all back on the heap.
+   */
+  @Override
+  boolean indexable() {
+    return false;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < size;
+      }
+
+      @Override
+      public E next() {
+        if (next >= size)
+          throw new NoSuchElementException();
+        return get(next++);
+      }
+    };
+  }
+
+  /**
+   * Drop this list's references to its off-heap buffers. This does not free
+   * the memory or unmap the file: that happens only when the garbage
+   * collector collects the buffers, which may take a full collection. Reading
+   * from the list after this fails, including through streams that were
+   * opened earlier.
+   */
+  @Override
+  public void close() {
+    data = null;
+    offsets = null;
+  }
+
+  /**
+   * Has {@link #close()} been called? A closed list can no longer be read, but
+   * its memory may not have been freed yet.
+   *
+   * @return true if this list can no longer be read
+   */
+  public boolean isClosed() {
+    return data == null;
+  }
+
+}
@@ -0,0 +1,98 @@
+package com.paulgreenlee.fn;
+
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A lazy list whose size is not known until its stream pipeline has run, such
+ * as the result of a filter. Streaming the list runs the pipeline directly,
+ * so a chain of views over it is still a single pass over the original
+ * source. Anything that needs the size or an element by position runs the
+ * pipeline once, keeps the elements in an array, and uses the array from then
+ * on. That first run is thread-safe: the pipeline is only stored once.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ * @see ImListFns#filter
+ * @see ImListFns#flatMap
+ */
+final class PipelineImList<E> extends AbstractImList<E>
+  implements RandomAccess {
+
+  private Supplier<Stream<E>> pipeline;
+  private volatile Object[] elements;
+
+  PipelineImList(Supplier<Stream<E>> pipeline) {
+    this.pipeline = pipeline;
+  }
+
+  /**
+   * Has the pipeline been run into an array yet?
+   *
+   * @return true if the elements are stored in this list
+   */
+  boolean isMaterialized() {
+    return elements != null;
+  }
+
+  private Object[] materialized() {
+    Object[] result = elements;
+    if (result == null) {
+      synchronized (this) {
+        result = elements;
+        if (result == null) {
+          result = pipeline.get().toArray();
+          elements = result;
+          pipeline = null;
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return materialized().length;
+  }
+
+  /**
+   * The pipeline itself, if it has not been stored yet. Making the stream
+   * parallel splits the pipeline at its source.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public Stream<E> stream() {
+    Supplier<Stream<E>> pipeline = this.pipeline;
+    if (pipeline != null) {
+      return pipeline.get();
+    }
+    return (Stream<E>) Arrays.stream(materialized());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Spliterator<E> spliterator() {
+    return (Spliterator<E>) Arrays.spliterator(materialized());
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  Spliterator<E> spliterator(int from, int to) {
+    return (Spliterator<E>) Arrays.spliterator(materialized(), from, to);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    Object[] elements = materialized();
+    if (index < 0 || index >= elements.length) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return (E) elements[index];
+  }
+
+}
@@ -0,0 +1,80 @@
+package com.paulgreenlee.fn;
+
+import java.util.Iterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A view of a random access list in reverse order. Reading index {@code i}
+ * reads index {@code size - 1 - i} of the source, so the view takes constant
+ * time to create and stores nothing. Reversing the view again gives back the
+ * source.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ * @see ImListFns#reverse(ImList)
+ */
+final class ReversedImList<E> extends AbstractImList<E>
+  implements RandomAccess {
+
+  private final AbstractImList<E> source;
+
+  ReversedImList(AbstractImList<E> source) {
+    this.source = source;
+  }
+
+  /**
+   * The list this is a view of, in its original order.
+   */
+  AbstractImList<E> source() {
+    return source;
+  }
+
+  @Override
+  public int size() {
+    return source.size();
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return ImSpliterators.indexed(this::get, size());
+  }
+
+  @Override
+  public Stream<E> reverseStream() {
+    return source.stream();
+  }
+
+  @Override
+  public E get(int index) {
+    int size = source.size();
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return source.get(size - 1 - index);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return source.descendingIterator();
+  }
+
+  @Override
+  public Iterator<E> descendingIterator() {
+    return source.iterator();
+  }
+
+  @Override
+  boolean indexable() {
+    return source.indexable();
+  }
+
+}
@@ -0,0 +1,220 @@
+package com.paulgreenlee.fn;
+
+import java.util.Comparator;
+
+/**
+ * <p>
+ * The persistent skew binomial heap inside {@link ImPriorityQueueImpl}. A heap
+ * is a list of trees in increasing order of rank, where only the first two
+ * trees may share a rank. Inserting either adds a tree of rank zero or joins
+ * the first two trees under the new element, so it never carries further and
+ * takes constant time in the worst case. Melding two heaps and removing the
+ * least element take O(log n) time, and finding the least element scans the
+ * O(log n) roots.
+ * </p>
+ * <p>
+ * A heap is a chain of {@link Trees} links, and the empty heap is
+ * {@code null}. Elements are ordered by a comparator that the caller passes to
+ * every function that compares them.
+ * </p>
+ *
+ * @author Paul Greenlee
+ */
+final class SkewHeap {
+
+  private SkewHeap() {
+
+  }
+
+  static final class Tree {
+    final int rank;
+    final Object root;
+
+    /**
+     * Elements that were joined in under this root by a skew link, and that
+     * go back into the heap when the root is removed.
+     */
+    final Elems extra;
+    final Trees children;
+
+    Tree(int rank, Object root, Elems extra, Trees children) {
+      this.rank = rank;
+      this.root = root;
+      this.extra = extra;
+      this.children = children;
+    }
+  }
+
+  /**
+   * A link in a list of trees. These lists are only ever O(log n) long, and
+   * are rebuilt on most operations, so they are kept as small as possible.
+   */
+  static final class Trees {
+    final Tree head;
+    final Trees tail;
+
+    Trees(Tree head, Trees tail) {
+      this.head = head;
+      this.tail = tail;
+    }
+  }
+
+  /**
+   * A link in a list of elements.
+   */
+  static final class Elems {
+    final Object head;
+    final Elems tail;
+
+    Elems(Object head, Elems tail) {
+      this.head = head;
+      this.tail = tail;
+    }
+  }
+
+  /**
+   * Join two trees of the same rank under the lesser root.
+   */
+  private static Tree link(Tree a, Tree b, Comparator<Object> order) {
+    if (order.compare(a.root, b.root) <= 0) {
+      return new Tree(
+        a.rank + 1,
+        a.root,
+        a.extra,
+        new Trees(b, a.children)
+      );
+    }
+    return new Tree(
+      b.rank + 1,
+      b.root,
+      b.extra,
+      new Trees(a, b.children)
+    );
+  }
+
+  /**
+   * Join two trees of the same rank and one more element.
+   */
+  private static Tree skewLink(
+    Object elem,
+    Tree a,
+    Tree b,
+    Comparator<Object> order
+  ) {
+    Tree linked = link(a, b, order);
+    if (order.compare(elem, linked.root) <= 0) {
+      return new Tree(
+        linked.rank,
+        elem,
+        new Elems(linked.root, linked.extra),
+        linked.children
+      );
+    }
+    return new Tree(
+      linked.rank,
+      linked.root,
+      new Elems(elem, linked.extra),
+      linked.children
+    );
+  }
+
+  static Trees insert(Object elem, Trees heap, Comparator<Object> order) {
+    if (heap != null && heap.tail != null
+      && heap.head.rank == heap.tail.head.rank) {
+      return new Trees(
+        skewLink(elem, heap.head, heap.tail.head, order),
+        heap.tail.tail
+      );
+    }
+    return new Trees(new Tree(0, elem, null, null), heap);
+  }
+
+  static Trees meld(Trees a, Trees b, Comparator<Object> order) {
+    return mergeTrees(normalize(a, order), normalize(b, order), order);
+  }
+
+  /**
+   * The tree with the least root. The heap must not be empty.
+   */
+  static Tree minTree(Trees heap, Comparator<Object> order) {
+    Tree min = heap.head;
+    for (Trees t = heap.tail; t != null; t = t.tail) {
+      if (order.compare(t.head.root, min.root) < 0) {
+        min = t.head;
+      }
+    }
+    return min;
+  }
+
+  /**
+   * The heap without its least element, given the tree from
+   * {@link #minTree} that holds it.
+   */
+  static Trees deleteMin(Trees heap, Tree min, Comparator<Object> order) {
+    Trees children = null;
+    for (Trees t = min.children; t != null; t = t.tail) {
+      children = new Trees(t.head, children);
+    }
+    Trees result = meld(children, without(heap, min), order);
+    for (Elems x = min.extra; x != null; x = x.tail) {
+      result = insert(x.head, result, order);
+    }
+    return result;
+  }
+
+  private static Trees without(Trees heap, Tree tree) {
+    if (heap.head == tree) {
+      return heap.tail;
+    }
+    return new Trees(heap.head, without(heap.tail, tree));
+  }
+
+  /**
+   * Merge a tree into a list of trees of strictly increasing rank, none of
+   * them below the rank of {@code tree}.
+   */
+  private static Trees insertTree(
+    Tree tree,
+    Trees trees,
+    Comparator<Object> order
+  ) {
+    while (trees != null && trees.head.rank <= tree.rank) {
+      tree = link(tree, trees.head, order);
+      trees = trees.tail;
+    }
+    return new Trees(tree, trees);
+  }
+
+  private static Trees mergeTrees(Trees a, Trees b, Comparator<Object> order) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    Tree x = a.head;
+    Tree y = b.head;
+    if (x.rank < y.rank) {
+      return new Trees(x, mergeTrees(a.tail, b, order));
+    }
+    if (y.rank < x.rank) {
+      return new Trees(y, mergeTrees(a, b.tail, order));
+    }
+    return insertTree(
+      link(x, y, order),
+      mergeTrees(a.tail, b.tail, order),
+      order
+    );
+  }
+
+  /**
+   * Remove the one repeated rank that a heap may start with.
+   */
+  private static Trees normalize(Trees heap, Comparator<Object> order) {
+    if (heap == null) {
+      return null;
+    }
+    return insertTree(heap.head, heap.tail, order);
+  }
+
+}
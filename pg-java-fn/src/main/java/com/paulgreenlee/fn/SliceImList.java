@@ -0,0 +1,83 @@
+package com.paulgreenlee.fn;
+
+import java.util.Iterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A view of a contiguous part of a random access list. It holds the parent
+ * list, an offset and a size, so it takes constant time to create and reads
+ * each element straight from the parent. A slice of a slice is a slice of the
+ * original parent.
+ * <p>
+ * A slice keeps all of its parent reachable, however small the slice is. Copy
+ * it with {@link ImListFns#copyOf(ImList)} to let a large parent be garbage
+ * collected.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ */
+final class SliceImList<E> extends AbstractImList<E> implements RandomAccess {
+
+  private final AbstractImList<E> parent;
+  private final int offset;
+  private final int size;
+
+  SliceImList(AbstractImList<E> parent, int from, int to) {
+    this.parent = parent;
+    this.offset = from;
+    this.size = to - from;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return parent.spliterator(offset, offset + size);
+  }
+
+  @Override
+  Spliterator<E> spliterator(int from, int to) {
+    return parent.spliterator(offset + from, offset + to);
+  }
+
+  @Override
+  public E get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return parent.get(offset + index);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Spliterators.iterator(spliterator());
+  }
+
+  @Override
+  AbstractImList<E> slice(int from, int to) {
+    if (from == 0 && to == size) {
+      return this;
+    }
+    return parent.slice(offset + from, offset + to);
+  }
+
+  @Override
+  boolean indexable() {
+    return parent.indexable();
+  }
+
+}
@@ -0,0 +1,328 @@
+package com.paulgreenlee.fn;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lists of one to {@value #MAX_SIZE} elements, held in fields rather than in
+ * an array or a stream supplier. Most lists in typical code are this small,
+ * and for them an array, a capturing lambda and a stream pipeline on every
+ * read cost more than the elements themselves. {@code get} reads a field
+ * directly, and iterating does not build a stream.
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ * @see ImListFns#listOf(Object...)
+ */
+abstract class SmallImList<E> extends AbstractImList<E>
+  implements RandomAccess {
+
+  /**
+   * The largest list held in fields.
+   */
+  static final int MAX_SIZE = 4;
+
+  /**
+   * Create a list from part of an array. The elements are copied out, so the
+   * array may be changed afterwards.
+   *
+   * @param <E>      the type of the elements
+   * @param elements an array holding the elements
+   * @param from     the index of the first element
+   * @param to       the index after the last element, at most
+   *                 {@link #MAX_SIZE} more than {@code from}
+   * @return a list of the elements in the range
+   */
+  @SuppressWarnings("unchecked")
+  static <E> AbstractImList<E> copyOf(Object[] elements, int from, int to) {
+    switch (to - from) {
+      case 0:
+        return ImListImpl.emptyList();
+      case 1:
+        return new List1<>((E) elements[from]);
+      case 2:
+        return new List2<>((E) elements[from], (E) elements[from + 1]);
+      case 3:
+        return new List3<>(
+          (E) elements[from],
+          (E) elements[from + 1],
+          (E) elements[from + 2]
+        );
+      case 4:
+        return new List4<>(
+          (E) elements[from],
+          (E) elements[from + 1],
+          (E) elements[from + 2],
+          (E) elements[from + 3]
+        );
+      default:
+        throw new IllegalArgumentException(
+          "too many elements for a small list: " + (to - from)
+        );
+    }
+  }
+
+  /**
+   * Join two lists by copying their elements into fields.
+   *
+   * @param <E>   the type of the elements
+   * @param left  the elements that come first
+   * @param right the elements that come after them, at most {@link #MAX_SIZE}
+   *              in all with {@code left}
+   * @return a list of the elements of both
+   */
+  static <E> AbstractImList<E> concat(
+    AbstractImList<E> left,
+    AbstractImList<E> right
+  ) {
+    int leftSize = left.size();
+    Object[] elements = new Object[leftSize + right.size()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = i < leftSize ? left.get(i) : right.get(i - leftSize);
+    }
+    return copyOf(elements, 0, elements.length);
+  }
+
+  /**
+   * Create a list that holds the elements of an array. Small arrays are copied
+   * into fields, and larger ones are wrapped as they are.
+   *
+   * @param <E>      the type of the elements
+   * @param elements an array that will not be modified again
+   * @return a list of the elements
+   */
+  static <E> AbstractImList<E> wrap(Object[] elements) {
+    Objects.requireNonNull(elements, "Non-null array required");
+    if (elements.length <= MAX_SIZE) {
+      return copyOf(elements, 0, elements.length);
+    }
+    return ArrayImList.wrap(elements);
+  }
+
+  /**
+   * A copy of this list with an element added to the end, which is held in
+   * fields too while there is room.
+   */
+  abstract AbstractImList<E> append(E elem);
+
+  /**
+   * A copy of this list with an element added to the start, which is held in
+   * fields too while there is room. Past that, the elements go into a cons
+   * list, so a list built from the front keeps constant-time
+   * {@link ImListFns#addFirst} and {@link ImListFns#dropFirst}.
+   */
+  abstract AbstractImList<E> prepend(E elem);
+
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    return ImSpliterators.indexed(this::get, size());
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < size();
+      }
+
+      @Override
+      public E next() {
+        if (next >= size())
+          throw new NoSuchElementException();
+        return get(next++);
+      }
+    };
+  }
+
+  @Override
+  public Object[] toArray() {
+    Object[] result = new Object[size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = get(i);
+    }
+    return result;
+  }
+
+  /**
+   * Copies the range, since a view would be as large as the copy.
+   */
+  @Override
+  AbstractImList<E> slice(int from, int to) {
+    if (from == 0 && to == size()) {
+      return this;
+    }
+    return copyOf(toArray(), from, to);
+  }
+
+  static final class List1<E> extends SmallImList<E> {
+    private final E e0;
+
+    List1(E e0) {
+      this.e0 = e0;
+    }
+
+    @Override
+    public int size() {
+      return 1;
+    }
+
+    @Override
+    public E get(int index) {
+      if (index != 0)
+        throw new IndexOutOfBoundsException(index);
+      return e0;
+    }
+
+    @Override
+    AbstractImList<E> append(E elem) {
+      return new List2<>(e0, elem);
+    }
+
+    @Override
+    AbstractImList<E> prepend(E elem) {
+      return new List2<>(elem, e0);
+    }
+  }
+
+  static final class List2<E> extends SmallImList<E> {
+    private final E e0;
+    private final E e1;
+
+    List2(E e0, E e1) {
+      this.e0 = e0;
+      this.e1 = e1;
+    }
+
+    @Override
+    public int size() {
+      return 2;
+    }
+
+    @Override
+    public E get(int index) {
+      switch (index) {
+        case 0:
+          return e0;
+        case 1:
+          return e1;
+        default:
+          throw new IndexOutOfBoundsException(index);
+      }
+    }
+
+    @Override
+    AbstractImList<E> append(E elem) {
+      return new List3<>(e0, e1, elem);
+    }
+
+    @Override
+    AbstractImList<E> prepend(E elem) {
+      return new List3<>(elem, e0, e1);
+    }
+  }
+
+  static final class List3<E> extends SmallImList<E> {
+    private final E e0;
+    private final E e1;
+    private final E e2;
+
+    List3(E e0, E e1, E e2) {
+      this.e0 = e0;
+      this.e1 = e1;
+      this.e2 = e2;
+    }
+
+    @Override
+    public int size() {
+      return 3;
+    }
+
+    @Override
+    public E get(int index) {
+      switch (index) {
+        case 0:
+          return e0;
+        case 1:
+          return e1;
+        case 2:
+          return e2;
+        default:
+          throw new IndexOutOfBoundsException(index);
+      }
+    }
+
+    @Override
+    AbstractImList<E> append(E elem) {
+      return new List4<>(e0, e1, e2, elem);
+    }
+
+    @Override
+    AbstractImList<E> prepend(E elem) {
+      return new List4<>(elem, e0, e1, e2);
+    }
+  }
+
+  static final class List4<E> extends SmallImList<E> {
+    private final E e0;
+    private final E e1;
+    private final E e2;
+    private final E e3;
+
+    List4(E e0, E e1, E e2, E e3) {
+      this.e0 = e0;
+      this.e1 = e1;
+      this.e2 = e2;
+      this.e3 = e3;
+    }
+
+    @Override
+    public int size() {
+      return 4;
+    }
+
+    @Override
+    public E get(int index) {
+      switch (index) {
+        case 0:
+          return e0;
+        case 1:
+          return e1;
+        case 2:
+          return e2;
+        case 3:
+          return e3;
+        default:
+          throw new IndexOutOfBoundsException(index);
+      }
+    }
+
+    @Override
+    AbstractImList<E> append(E elem) {
+      return ImVector.<E>from(this).append(elem);
+    }
+
+    @Override
+    AbstractImList<E> prepend(E elem) {
+      ConsImList<E> list = ConsImList.cons(e3, ConsImList.nil());
+      list = ConsImList.cons(e2, list);
+      list = ConsImList.cons(e1, list);
+      list = ConsImList.cons(e0, list);
+      return ConsImList.cons(elem, list);
+    }
+  }
+
+}
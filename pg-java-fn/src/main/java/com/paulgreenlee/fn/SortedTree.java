@@ -0,0 +1,628 @@
+package com.paulgreenlee.fn;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * The persistent balanced search tree behind {@link ImSortedMapImpl} and
+ * {@link ImSortedSetImpl}. It is an AVL tree built on a single primitive,
+ * {@link #join}, which joins two trees and a key that falls between them.
+ * Adding, removing, splitting a tree at a key and concatenating two trees are
+ * all written in terms of it, and each takes O(log n) time. Union,
+ * intersection and difference split one tree by the root of the other and
+ * recurse, which takes O(m log(n/m + 1)) time for trees of sizes m &le; n.
+ * </p>
+ * <p>
+ * Nodes are never changed once they are built. A change copies only the nodes
+ * on the path to the key, plus a few for rebalancing, and the result shares
+ * every other node with the original. Each node keeps the size of its subtree,
+ * so the tree can be walked or divided by position as well as by key.
+ * </p>
+ * <p>
+ * An empty tree is {@code null}. The keys are ordered by a comparator that
+ * the caller passes to every function that compares keys.
+ * </p>
+ *
+ * @author Paul Greenlee
+ */
+final class SortedTree {
+
+  /**
+   * The order of keys for maps and sets made without a comparator.
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  static final Comparator<Object> NATURAL = (Comparator) Comparator
+    .naturalOrder();
+
+  private SortedTree() {
+
+  }
+
+  static final class Node {
+    final Object key;
+    final Object value;
+    final Node left;
+    final Node right;
+    final int height;
+    final int size;
+
+    Node(Object key, Object value, Node left, Node right) {
+      this.key = key;
+      this.value = value;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+      this.size = 1 + size(left) + size(right);
+    }
+  }
+
+  /**
+   * The parts of a tree on either side of a key, and the node that holds the
+   * key if there is one.
+   */
+  static final class Split {
+    Node left;
+    Node match;
+    Node right;
+  }
+
+  static int height(Node node) {
+    return node == null ? 0 : node.height;
+  }
+
+  static int size(Node node) {
+    return node == null ? 0 : node.size;
+  }
+
+  /**
+   * Convert a comparator from the public API, where {@code null} means the
+   * natural order of the keys.
+   */
+  @SuppressWarnings("unchecked")
+  static Comparator<Object> order(Comparator<?> comparator) {
+    return comparator == null ? NATURAL : (Comparator<Object>) comparator;
+  }
+
+  /**
+   * The node for a key, or {@code null}.
+   */
+  static Node get(Node node, Object key, Comparator<Object> order) {
+    while (node != null) {
+      int c = order.compare(key, node.key);
+      if (c == 0) {
+        return node;
+      }
+      node = c < 0 ? node.left : node.right;
+    }
+    return null;
+  }
+
+  static Node first(Node node) {
+    if (node == null) {
+      return null;
+    }
+    while (node.left != null) {
+      node = node.left;
+    }
+    return node;
+  }
+
+  static Node last(Node node) {
+    if (node == null) {
+      return null;
+    }
+    while (node.right != null) {
+      node = node.right;
+    }
+    return node;
+  }
+
+  /**
+   * The node with the greatest key below {@code key}, or at it if
+   * {@code inclusive}. Returns {@code null} if there is none.
+   */
+  static Node below(
+    Node node,
+    Object key,
+    boolean inclusive,
+    Comparator<Object> order
+  ) {
+    Node best = null;
+    while (node != null) {
+      int c = order.compare(key, node.key);
+      if (c == 0 && inclusive) {
+        return node;
+      }
+      if (c > 0) {
+        best = node;
+        node = node.right;
+      } else {
+        node = node.left;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * The node with the least key above {@code key}, or at it if
+   * {@code inclusive}. Returns {@code null} if there is none.
+   */
+  static Node above(
+    Node node,
+    Object key,
+    boolean inclusive,
+    Comparator<Object> order
+  ) {
+    Node best = null;
+    while (node != null) {
+      int c = order.compare(key, node.key);
+      if (c == 0 && inclusive) {
+        return node;
+      }
+      if (c < 0) {
+        best = node;
+        node = node.left;
+      } else {
+        node = node.right;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * The tree with a key set to a value. Returns {@code node} if the key
+   * already has that exact value.
+   */
+  static Node put(
+    Node node,
+    Object key,
+    Object value,
+    Comparator<Object> order
+  ) {
+    if (node == null) {
+      return new Node(key, value, null, null);
+    }
+    int c = order.compare(key, node.key);
+    if (c == 0) {
+      return node.value == value
+        ? node
+        : new Node(node.key, value, node.left, node.right);
+    }
+    if (c < 0) {
+      Node left = put(node.left, key, value, order);
+      return left == node.left
+        ? node
+        : join(left, node.key, node.value, node.right);
+    }
+    Node right = put(node.right, key, value, order);
+    return right == node.right
+      ? node
+      : join(node.left, node.key, node.value, right);
+  }
+
+  /**
+   * The tree without a key. Returns {@code node} if the key was not there.
+   */
+  static Node remove(Node node, Object key, Comparator<Object> order) {
+    if (node == null) {
+      return null;
+    }
+    int c = order.compare(key, node.key);
+    if (c == 0) {
+      return concat(node.left, node.right);
+    }
+    if (c < 0) {
+      Node left = remove(node.left, key, order);
+      return left == node.left
+        ? node
+        : join(left, node.key, node.value, node.right);
+    }
+    Node right = remove(node.right, key, order);
+    return right == node.right
+      ? node
+      : join(node.left, node.key, node.value, right);
+  }
+
+  /**
+   * Join two trees and a key between them into a balanced tree. Every key of
+   * {@code left} must be below {@code key} and every key of {@code right} above
+   * it. This takes time proportional to the difference in the heights of the
+   * two trees.
+   */
+  static Node join(Node left, Object key, Object value, Node right) {
+    if (height(left) > height(right) + 1) {
+      return joinRight(left, key, value, right);
+    }
+    if (height(right) > height(left) + 1) {
+      return joinLeft(left, key, value, right);
+    }
+    return new Node(key, value, left, right);
+  }
+
+  /**
+   * Join a taller left tree by walking down its right edge to a subtree of
+   * about the height of {@code right}.
+   */
+  private static Node joinRight(
+    Node left,
+    Object key,
+    Object value,
+    Node right
+  ) {
+    if (height(left.right) <= height(right) + 1) {
+      Node joined = new Node(key, value, left.right, right);
+      if (joined.height <= height(left.left) + 1) {
+        return new Node(left.key, left.value, left.left, joined);
+      }
+      return rotateLeft(
+        new Node(left.key, left.value, left.left, rotateRight(joined))
+      );
+    }
+    Node joined = joinRight(left.right, key, value, right);
+    Node result = new Node(left.key, left.value, left.left, joined);
+    return joined.height <= height(left.left) + 1
+      ? result
+      : rotateLeft(result);
+  }
+
+  private static Node joinLeft(
+    Node left,
+    Object key,
+    Object value,
+    Node right
+  ) {
+    if (height(right.left) <= height(left) + 1) {
+      Node joined = new Node(key, value, left, right.left);
+      if (joined.height <= height(right.right) + 1) {
+        return new Node(right.key, right.value, joined, right.right);
+      }
+      return rotateRight(
+        new Node(right.key, right.value, rotateLeft(joined), right.right)
+      );
+    }
+    Node joined = joinLeft(left, key, value, right.left);
+    Node result = new Node(right.key, right.value, joined, right.right);
+    return joined.height <= height(right.right) + 1
+      ? result
+      : rotateRight(result);
+  }
+
+  private static Node rotateLeft(Node node) {
+    Node right = node.right;
+    return new Node(
+      right.key,
+      right.value,
+      new Node(node.key, node.value, node.left, right.left),
+      right.right
+    );
+  }
+
+  private static Node rotateRight(Node node) {
+    Node left = node.left;
+    return new Node(
+      left.key,
+      left.value,
+      left.left,
+      new Node(node.key, node.value, left.right, node.right)
+    );
+  }
+
+  /**
+   * Join two trees where every key of {@code left} is below every key of
+   * {@code right}.
+   */
+  static Node concat(Node left, Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    Node last = last(left);
+    return join(removeLast(left), last.key, last.value, right);
+  }
+
+  private static Node removeLast(Node node) {
+    if (node.right == null) {
+      return node.left;
+    }
+    return join(node.left, node.key, node.value, removeLast(node.right));
+  }
+
+  /**
+   * Split a tree into the keys below {@code key} and the keys above it.
+   */
+  static Split split(Node node, Object key, Comparator<Object> order) {
+    Split split = new Split();
+    split(node, key, order, split);
+    return split;
+  }
+
+  private static void split(
+    Node node,
+    Object key,
+    Comparator<Object> order,
+    Split split
+  ) {
+    if (node == null) {
+      return;
+    }
+    int c = order.compare(key, node.key);
+    if (c == 0) {
+      split.left = node.left;
+      split.match = node;
+      split.right = node.right;
+    } else if (c < 0) {
+      split(node.left, key, order, split);
+      split.right = join(split.right, node.key, node.value, node.right);
+    } else {
+      split(node.right, key, order, split);
+      split.left = join(node.left, node.key, node.value, split.left);
+    }
+  }
+
+  /**
+   * The keys below {@code key}, and the key itself if {@code inclusive}.
+   */
+  static Node head(
+    Node node,
+    Object key,
+    boolean inclusive,
+    Comparator<Object> order
+  ) {
+    Split split = split(node, key, order);
+    if (inclusive && split.match != null) {
+      return join(split.left, split.match.key, split.match.value, null);
+    }
+    return split.left;
+  }
+
+  /**
+   * The keys above {@code key}, and the key itself if {@code inclusive}.
+   */
+  static Node tail(
+    Node node,
+    Object key,
+    boolean inclusive,
+    Comparator<Object> order
+  ) {
+    Split split = split(node, key, order);
+    if (inclusive && split.match != null) {
+      return join(null, split.match.key, split.match.value, split.right);
+    }
+    return split.right;
+  }
+
+  /**
+   * The keys of both trees. Where both have a key, the value from {@code b}
+   * is kept.
+   */
+  static Node union(Node a, Node b, Comparator<Object> order) {
+    if (a == null || a == b) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    Split split = split(a, b.key, order);
+    Node left = union(split.left, b.left, order);
+    Node right = union(split.right, b.right, order);
+    return left == b.left && right == b.right
+      ? b
+      : join(left, b.key, b.value, right);
+  }
+
+  /**
+   * The entries of {@code a} whose keys are also in {@code b}.
+   */
+  static Node intersect(Node a, Node b, Comparator<Object> order) {
+    if (a == null || b == null) {
+      return null;
+    }
+    if (a == b) {
+      return a;
+    }
+    Split split = split(b, a.key, order);
+    Node left = intersect(a.left, split.left, order);
+    Node right = intersect(a.right, split.right, order);
+    if (split.match == null) {
+      return concat(left, right);
+    }
+    return left == a.left && right == a.right
+      ? a
+      : join(left, a.key, a.value, right);
+  }
+
+  /**
+   * The entries of {@code a} whose keys are not in {@code b}.
+   */
+  static Node difference(Node a, Node b, Comparator<Object> order) {
+    if (a == null || a == b) {
+      return null;
+    }
+    if (b == null) {
+      return a;
+    }
+    Split split = split(b, a.key, order);
+    Node left = difference(a.left, split.left, order);
+    Node right = difference(a.right, split.right, order);
+    if (split.match != null) {
+      return concat(left, right);
+    }
+    return left == a.left && right == a.right
+      ? a
+      : join(left, a.key, a.value, right);
+  }
+
+  /**
+   * A spliterator over the entries of a tree in order of key. It splits by
+   * position, so both halves know their exact size.
+   *
+   * @param <T>             the type of the elements
+   * @param root            a tree
+   * @param entry           makes an element from a key and its value
+   * @param characteristics the characteristics to report
+   * @param comparator      what {@link Spliterator#getComparator} returns
+   * @return a spliterator over the entries of {@code root}
+   */
+  static <T> Spliterator<T> spliterator(
+    Node root,
+    BiFunction<Object, Object, ? extends T> entry,
+    int characteristics,
+    Comparator<?> comparator
+  ) {
+    return new TreeSpliterator<>(
+      root,
+      entry,
+      characteristics,
+      comparator,
+      0,
+      size(root)
+    );
+  }
+
+  /**
+   * Walks a tree in order from a position, keeping the nodes whose right
+   * subtrees are still to be visited on a stack.
+   */
+  private static final class Walk {
+    private final Deque<Node> pending = new ArrayDeque<>();
+
+    Walk(Node node, int index) {
+      while (node != null) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+          pending.push(node);
+          node = node.left;
+        } else if (index == leftSize) {
+          pending.push(node);
+          return;
+        } else {
+          index -= leftSize + 1;
+          node = node.right;
+        }
+      }
+    }
+
+    Node next() {
+      Node node = pending.pop();
+      for (Node n = node.right; n != null; n = n.left) {
+        pending.push(n);
+      }
+      return node;
+    }
+  }
+
+  private static final class TreeSpliterator<T> implements Spliterator<T> {
+    private final Node root;
+    private final BiFunction<Object, Object, ? extends T> entry;
+    private final int characteristics;
+    private final Comparator<?> comparator;
+    private Walk walk;
+    private int next;
+    private final int end;
+
+    TreeSpliterator(
+      Node root,
+      BiFunction<Object, Object, ? extends T> entry,
+      int characteristics,
+      Comparator<?> comparator,
+      int next,
+      int end
+    ) {
+      this.root = root;
+      this.entry = entry;
+      this.characteristics = characteristics;
+      this.comparator = comparator;
+      this.next = next;
+      this.end = end;
+    }
+
+    private Node advance() {
+      if (walk == null) {
+        walk = new Walk(root, next);
+      }
+      next++;
+      return walk.next();
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      if (next >= end) {
+        return false;
+      }
+      Node node = advance();
+      action.accept(entry.apply(node.key, node.value));
+      return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      while (next < end) {
+        Node node = advance();
+        action.accept(entry.apply(node.key, node.value));
+      }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+      int mid = (next + end) >>> 1;
+      if (mid <= next) {
+        return null;
+      }
+      TreeSpliterator<T> prefix = new TreeSpliterator<>(
+        root,
+        entry,
+        characteristics,
+        comparator,
+        next,
+        mid
+      );
+      prefix.walk = walk;
+      walk = null;
+      next = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return end - next;
+    }
+
+    @Override
+    public int characteristics() {
+      return characteristics;
+    }
+
+    @Override
+    public Comparator<? super T> getComparator() {
+      if (!hasCharacteristics(Spliterator.SORTED)) {
+        throw new IllegalStateException();
+      }
+      @SuppressWarnings("unchecked")
+      Comparator<? super T> result = (Comparator<? super T>) comparator;
+      return result;
+    }
+  }
+
+  /**
+   * Check that two trees can be concatenated, because every key of
+   * {@code left} is below every key of {@code right}.
+   */
+  static void checkJoin(Node left, Node right, Comparator<Object> order) {
+    if (left == null || right == null) {
+      return;
+    }
+    if (order.compare(last(left).key, first(right).key) >= 0) {
+      throw new IllegalArgumentException(
+        "Every key on the left must be below every key on the right"
+      );
+    }
+  }
+
+}
@@ -0,0 +1,252 @@
+package com.paulgreenlee.fn;
+
+import static com.paulgreenlee.fn.ImVector.BITS;
+import static com.paulgreenlee.fn.ImVector.WIDTH;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.paulgreenlee.fn.ImVector.Node;
+
+/**
+ * <p>
+ * A mutable editor for an {@link ImVector}, for applying many changes at once.
+ * It starts out sharing the vector's trie, and copies a node only the first
+ * time it changes something under it. After that the node belongs to the
+ * transient, and later changes to it are made in place. Appends go into a
+ * tail array that is only copied when it fills up.
+ * </p>
+ * <p>
+ * {@link #persistent()} ends the edits and returns an immutable vector in
+ * constant time. Any later use of the transient throws
+ * {@link IllegalStateException}, so the nodes it owned can never change
+ * again. Transients are not thread-safe, and should be used by a single
+ * thread.
+ * </p>
+ *
+ * @author Paul Greenlee
+ *
+ * @param <E> the type of the elements in the list
+ * @see ImListFns#transientOf(ImList)
+ */
+public final class TransientImList<E> {
+
+  private int size;
+  private int shift;
+  private Node root;
+  private Object[] tail;
+  private int tailLength;
+
+  /**
+   * Marks the nodes this transient owns. It is cleared by
+   * {@link #persistent()}.
+   */
+  private Object edit = new Object();
+
+  TransientImList(int size, int shift, Node root, Object[] tail) {
+    this.size = size;
+    this.shift = shift;
+    this.root = root;
+    this.tail = Arrays.copyOf(tail, WIDTH);
+    this.tailLength = tail.length;
+  }
+
+  /**
+   * The number of elements in the list.
+   *
+   * @return the number of elements
+   * @throws IllegalStateException if {@link #persistent()} has been called
+   */
+  public int size() {
+    ensureEditable();
+    return size;
+  }
+
+  /**
+   * Read the element at a position.
+   *
+   * @param index the position to read
+   * @return the element at {@code index}
+   * @throws IndexOutOfBoundsException if {@code index} is not in the list
+   * @throws IllegalStateException     if {@link #persistent()} has been called
+   */
+  @SuppressWarnings("unchecked")
+  public E get(int index) {
+    ensureEditable();
+    checkIndex(index);
+    int tailOffset = size - tailLength;
+    if (index >= tailOffset) {
+      return (E) tail[index - tailOffset];
+    }
+    Node node = root;
+    int i = index;
+    for (int s = shift; s > 0; s -= BITS) {
+      int slot = node.slotFor(i, s);
+      i -= node.sizeBefore(slot);
+      node = (Node) node.array[slot];
+    }
+    return (E) node.array[i];
+  }
+
+  /**
+   * Add an element to the end of the list.
+   *
+   * @param elem the element to add
+   * @return this transient
+   * @throws IllegalStateException if {@link #persistent()} has been called
+   */
+  public TransientImList<E> append(E elem) {
+    ensureEditable();
+    if (tailLength == WIDTH) {
+      Node leaf = new Node(tail, null, edit);
+      Node newRoot = pushLeaf(root, shift, leaf);
+      if (newRoot == null) {
+        newRoot = Node.branch(
+          new Object[] { root, newPath(shift, leaf) },
+          edit
+        );
+        shift += BITS;
+      }
+      root = newRoot;
+      tail = new Object[WIDTH];
+      tailLength = 0;
+    }
+    tail[tailLength++] = elem;
+    size++;
+    return this;
+  }
+
+  /**
+   * Add all of the elements of a list to the end of this list.
+   *
+   * @param list the elements to add
+   * @return this transient
+   * @throws IllegalStateException if {@link #persistent()} has been called
+   */
+  public TransientImList<E> appendAll(ImList<? extends E> list) {
+    Objects.requireNonNull(list, "Non-null list required");
+    list.stream().forEachOrdered(this::append);
+    return this;
+  }
+
+  /**
+   * Replace the element at a position.
+   *
+   * @param index the position to replace
+   * @param elem  the new element
+   * @return this transient
+   * @throws IndexOutOfBoundsException if {@code index} is not in the list
+   * @throws IllegalStateException     if {@link #persistent()} has been called
+   */
+  public TransientImList<E> update(int index, E elem) {
+    ensureEditable();
+    checkIndex(index);
+    int tailOffset = size - tailLength;
+    if (index >= tailOffset) {
+      tail[index - tailOffset] = elem;
+      return this;
+    }
+    root = editable(root);
+    Node node = root;
+    int i = index;
+    for (int s = shift; s > 0; s -= BITS) {
+      int slot = node.slotFor(i, s);
+      i -= node.sizeBefore(slot);
+      Node child = editable((Node) node.array[slot]);
+      node.array[slot] = child;
+      node = child;
+    }
+    node.array[i] = elem;
+    return this;
+  }
+
+  /**
+   * End the edits, and return an immutable vector of the elements. This takes
+   * constant time. The transient cannot be used afterwards.
+   *
+   * @return a vector with the edited elements
+   * @throws IllegalStateException if {@link #persistent()} has already been
+   *                               called
+   */
+  public ImVector<E> persistent() {
+    ensureEditable();
+    edit = null;
+    if (size == 0) {
+      return ImVector.empty();
+    }
+    return new ImVector<>(
+      size,
+      shift,
+      root,
+      Arrays.copyOf(tail, tailLength)
+    );
+  }
+
+  private void ensureEditable() {
+    if (edit == null)
+      throw new IllegalStateException(
+        "transient used after persistent() was called"
+      );
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException(index);
+    }
+  }
+
+  /**
+   * The node itself if this transient owns it, or else an owned copy.
+   */
+  private Node editable(Node node) {
+    if (node.edit == edit) {
+      return node;
+    }
+    return new Node(
+      node.array.clone(),
+      node.sizes == null ? null : node.sizes.clone(),
+      edit
+    );
+  }
+
+  /**
+   * Add a leaf as the last leaf below {@code node}, changing owned nodes in
+   * place.
+   *
+   * @return the new or changed node, or {@code null} if there is no room below
+   *         {@code node}
+   */
+  private Node pushLeaf(Node node, int shift, Node leaf) {
+    int length = node.array.length;
+    if (shift > BITS && length > 0) {
+      Node pushed = pushLeaf(
+        (Node) node.array[length - 1],
+        shift - BITS,
+        leaf
+      );
+      if (pushed != null) {
+        Node owned = editable(node);
+        owned.array[length - 1] = pushed;
+        owned.sizes[length - 1] += leaf.size();
+        return owned;
+      }
+    }
+    if (length == WIDTH) {
+      return null;
+    }
+    Object[] array = Arrays.copyOf(node.array, length + 1);
+    array[length] = shift == BITS ? leaf : newPath(shift - BITS, leaf);
+    int[] sizes = Arrays.copyOf(node.sizes, length + 1);
+    sizes[length] = node.size() + leaf.size();
+    return new Node(array, sizes, edit);
+  }
+
+  private Node newPath(int shift, Node leaf) {
+    Node node = leaf;
+    for (int s = 0; s < shift; s += BITS) {
+      node = Node.branch(new Object[] { node }, edit);
+    }
+    return node;
+  }
+
+}
@@ -1,5 +1,6 @@
 package com.paulgreenlee.fn;
 
+import java.util.Comparator;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -332,6 +333,153 @@ public class Tuples {
       );
   }
 
+  /**
+   * A comparator that orders tuples by their first values, then by their
+   * second values. Use {@link Comparator#naturalOrder()} for values that are
+   * {@link Comparable}, and {@link Comparator#nullsFirst} or
+   * {@link Comparator#nullsLast} for values that may be {@code null}.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param a   the order of the first values
+   * @param b   the order of the second values
+   * @return a lexicographic comparator for tuples of two values
+   */
+  public static <A, B> Comparator<Two<A, B>> comparator(
+    Comparator<? super A> a,
+    Comparator<? super B> b
+  ) {
+    Objects.requireNonNull(a);
+    Objects.requireNonNull(b);
+    return (x, y) -> {
+      int c = a.compare(x.getA(), y.getA());
+      return c != 0 ? c : b.compare(x.getB(), y.getB());
+    };
+  }
+
+  /**
+   * A comparator that orders tuples by their first values, then by each of
+   * the following values in turn.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param a   the order of the first values
+   * @param b   the order of the second values
+   * @param c   the order of the third values
+   * @return a lexicographic comparator for tuples of three values
+   * @see #comparator(Comparator, Comparator)
+   */
+  public static <A, B, C> Comparator<Three<A, B, C>> comparator(
+    Comparator<? super A> a,
+    Comparator<? super B> b,
+    Comparator<? super C> c
+  ) {
+    Comparator<Two<A, B>> prefix = comparator(a, b);
+    Objects.requireNonNull(c);
+    return (x, y) -> {
+      int r = prefix.compare(x, y);
+      return r != 0 ? r : c.compare(x.getC(), y.getC());
+    };
+  }
+
+  /**
+   * A comparator that orders tuples by their first values, then by each of
+   * the following values in turn.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param <D> the type of the fourth value
+   * @param a   the order of the first values
+   * @param b   the order of the second values
+   * @param c   the order of the third values
+   * @param d   the order of the fourth values
+   * @return a lexicographic comparator for tuples of four values
+   * @see #comparator(Comparator, Comparator)
+   */
+  public static <A, B, C, D> Comparator<Four<A, B, C, D>> comparator(
+    Comparator<? super A> a,
+    Comparator<? super B> b,
+    Comparator<? super C> c,
+    Comparator<? super D> d
+  ) {
+    Comparator<Three<A, B, C>> prefix = comparator(a, b, c);
+    Objects.requireNonNull(d);
+    return (x, y) -> {
+      int r = prefix.compare(x, y);
+      return r != 0 ? r : d.compare(x.getD(), y.getD());
+    };
+  }
+
+  /**
+   * A comparator that orders tuples by their first values, then by each of
+   * the following values in turn.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param <D> the type of the fourth value
+   * @param <E> the type of the fifth value
+   * @param a   the order of the first values
+   * @param b   the order of the second values
+   * @param c   the order of the third values
+   * @param d   the order of the fourth values
+   * @param e   the order of the fifth values
+   * @return a lexicographic comparator for tuples of five values
+   * @see #comparator(Comparator, Comparator)
+   */
+  public static <A, B, C, D, E> Comparator<Five<A, B, C, D, E>> comparator(
+    Comparator<? super A> a,
+    Comparator<? super B> b,
+    Comparator<? super C> c,
+    Comparator<? super D> d,
+    Comparator<? super E> e
+  ) {
+    Comparator<Four<A, B, C, D>> prefix = comparator(a, b, c, d);
+    Objects.requireNonNull(e);
+    return (x, y) -> {
+      int r = prefix.compare(x, y);
+      return r != 0 ? r : e.compare(x.getE(), y.getE());
+    };
+  }
+
+  /**
+   * A comparator that orders tuples by their first values, then by each of
+   * the following values in turn.
+   *
+   * @param <A> the type of the first value
+   * @param <B> the type of the second value
+   * @param <C> the type of the third value
+   * @param <D> the type of the fourth value
+   * @param <E> the type of the fifth value
+   * @param <F> the type of the sixth value
+   * @param a   the order of the first values
+   * @param b   the order of the second values
+   * @param c   the order of the third values
+   * @param d   the order of the fourth values
+   * @param e   the order of the fifth values
+   * @param f   the order of the sixth values
+   * @return a lexicographic comparator for tuples of six values
+   * @see #comparator(Comparator, Comparator)
+   */
+  public static <A, B, C, D, E, F> Comparator<Six<A, B, C, D, E, F>>
+    comparator(
+      Comparator<? super A> a,
+      Comparator<? super B> b,
+      Comparator<? super C> c,
+      Comparator<? super D> d,
+      Comparator<? super E> e,
+      Comparator<? super F> f
+    ) {
+    Comparator<Five<A, B, C, D, E>> prefix = comparator(a, b, c, d, e);
+    Objects.requireNonNull(f);
+    return (x, y) -> {
+      int r = prefix.compare(x, y);
+      return r != 0 ? r : f.compare(x.getF(), y.getF());
+    };
+  }
+
   private static boolean internalEqual(Tuple a, Object o) {
     if (a == o)
       return true;
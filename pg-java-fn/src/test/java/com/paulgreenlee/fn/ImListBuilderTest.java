@@ -0,0 +1,75 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ImListBuilderTest {
+
+  @Test
+  public void buildsInOrder() {
+    ImListBuilder<String> builder = ImListFns.builder();
+    builder.add("A").add("B").addAll(ImListFns.listOf("C", "D"));
+    assertThat(builder.size(), equalTo(4));
+    assertThat(builder.build(), equalTo(ImListFns.listOf("A", "B", "C", "D")));
+  }
+
+  @Test
+  public void presized() {
+    ImListBuilder<Integer> builder = ImListFns.builder(100);
+    for (int i = 0; i < 150; i++) {
+      builder.add(i);
+    }
+    ImList<Integer> list = builder.build();
+    assertThat(list.size(), equalTo(150));
+    assertThat(ImListFns.last(list), equalTo(149));
+  }
+
+  @Test
+  public void singleUse() {
+    ImListBuilder<Integer> builder = ImListFns.builder();
+    assertThat(builder.build().isEmpty(), equalTo(true));
+    assertThrows(IllegalStateException.class, () -> builder.add(1));
+    assertThrows(IllegalStateException.class, builder::build);
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ImListFns.builder(-1)
+    );
+  }
+
+  @Test
+  public void collectSequential() {
+    ImList<Integer> list = IntStream
+      .range(0, 1000)
+      .boxed()
+      .collect(ImListFns.toImList());
+    assertThat(
+      list,
+      equalTo(
+        ImListFns.fromCollection(
+          IntStream.range(0, 1000).boxed().collect(Collectors.toList())
+        )
+      )
+    );
+  }
+
+  @Test
+  public void collectParallel() {
+    List<Integer> expected = IntStream
+      .range(0, 200_000)
+      .boxed()
+      .collect(Collectors.toList());
+    ImList<Integer> list = expected
+      .parallelStream()
+      .collect(ImListFns.toImList());
+    assertThat(list.size(), equalTo(expected.size()));
+    assertThat(list, equalTo(ImListFns.fromCollection(expected)));
+    assertThat(((ImVector<Integer>) list).get(123_456), equalTo(123_456));
+  }
+}
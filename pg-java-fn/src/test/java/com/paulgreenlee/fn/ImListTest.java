@@ -4,9 +4,17 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
@@ -110,6 +118,393 @@ public class ImListTest {
     }
   }
 
+  @ParameterizedTest
+  @EnumSource(Example.class)
+  public void get(Example eg) {
+    Object[] expected = arr(eg.list);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(eg.list.get(i), equalTo(expected[i]));
+    }
+    assertThrows(
+      IndexOutOfBoundsException.class,
+      () -> eg.list.get(expected.length)
+    );
+  }
+
+  @ParameterizedTest
+  @EnumSource(Example.class)
+  public void iteratorAndToArray(Example eg) {
+    List<Object> iterated = new ArrayList<>();
+    eg.list.iterator().forEachRemaining(iterated::add);
+    assertThat(iterated.toArray(), equalTo(arr(eg.list)));
+    assertThat(eg.list.toArray(), equalTo(arr(eg.list)));
+    assertThat(
+      eg.list.toArray(new Object[0]),
+      equalTo(arr(eg.list))
+    );
+  }
+
+  @ParameterizedTest
+  @EnumSource(Example.class)
+  public void copyOf(Example eg) {
+    ImList<Object> lazy = ImListImpl.<Object>of(eg.list);
+    ImList<Object> copy = ImListFns.copyOf(lazy);
+    assertThat(copy, equalTo(eg.list));
+    assertThat(ImListFns.fromCollection(eg.list), equalTo(eg.list));
+  }
+
+  @Test
+  public void ofCopiesArray() {
+    String[] elements = { "A", "B" };
+    ImList<String> list = ImListImpl.of(elements);
+    elements[0] = "Z";
+    assertThat(ImListFns.first(list), equalTo("A"));
+  }
+
+  @Test
+  public void consWalk() {
+    ImList<Integer> list = ImListImpl.emptyList();
+    for (int i = 0; i < 100_000; i++) {
+      list = ImListFns.addFirst(i, list);
+    }
+    ImList<Integer> rest = list;
+    for (int i = 99_999; i >= 0; i--) {
+      assertThat(ImListFns.first(rest), equalTo(i));
+      rest = ImListFns.dropFirst(rest);
+    }
+    assertThat(rest.isEmpty(), equalTo(true));
+    assertThat(list.size(), equalTo(100_000));
+  }
+
+  @Test
+  public void deepLazyChainIsFlattened() {
+    ImList<Integer> list = ImListImpl.of(ImVector.of(range(20_000)));
+    for (int i = 0; i < 10_000; i++) {
+      list = ImListFns.dropLast(list);
+    }
+    assertThat(list.size(), equalTo(10_000));
+    assertThat(list.stream().count(), equalTo(10_000L));
+    assertThat(ImListFns.last(list), equalTo(9_999));
+  }
+
+  @Test
+  public void cachedStreamsSourceOnce() {
+    AtomicInteger streams = new AtomicInteger();
+    ImList<String> lazy = new ImListImpl<>(() -> {
+      streams.incrementAndGet();
+      return Stream.of("A", "B", "C");
+    }, 3);
+    CachedImList<String> cached = ImListFns.cached(lazy);
+    assertThat(cached.isMaterialized(), equalTo(false));
+    assertThat(streams.get(), equalTo(0));
+
+    assertThat(cached.get(1), equalTo("B"));
+    assertThat(cached.contains("C"), equalTo(true));
+    assertThat(cached, equalTo(ImListFns.listOf("A", "B", "C")));
+    assertThat(cached.stream().count(), equalTo(3L));
+    assertThat(cached.isMaterialized(), equalTo(true));
+    assertThat(streams.get(), equalTo(1));
+    assertThat(ImListFns.cached(cached) == cached, equalTo(true));
+  }
+
+  @Test
+  public void hotLazyListMaterializes() {
+    int before = ImListImpl.getMaterializeThreshold();
+    ImListImpl.setMaterializeThreshold(3);
+    try {
+      AtomicInteger streams = new AtomicInteger();
+      ImList<String> lazy = new ImListImpl<>(() -> {
+        streams.incrementAndGet();
+        return Stream.of("A", "B");
+      }, 2);
+      for (int i = 0; i < 10; i++) {
+        assertThat(lazy.stream().count(), equalTo(2L));
+      }
+      assertThat(streams.get(), equalTo(3));
+      assertThat(lazy, equalTo(ImListFns.listOf("A", "B")));
+    } finally {
+      ImListImpl.setMaterializeThreshold(before);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(Example.class)
+  public void hashCodeMatchesList(Example eg) {
+    List<Object> list = new ArrayList<>(eg.list);
+    assertThat(eg.list.hashCode(), equalTo(list.hashCode()));
+    assertThat(eg.list.equals(list), equalTo(true));
+    assertThat(list.equals(eg.list), equalTo(true));
+    assertThat(ImVector.from(eg.list).hashCode(), equalTo(list.hashCode()));
+  }
+
+  @Test
+  public void equalsChecksHashAndElements() {
+    ImList<Integer> a = ImListFns.listOf(1, 2, 3);
+    ImList<Integer> b = ImVector.of(1, 2, 4);
+    a.hashCode();
+    b.hashCode();
+    assertThat(a.equals(b), equalTo(false));
+    assertThat(a.equals(ImVector.of(1, 2, 3)), equalTo(true));
+    assertThat(a.equals(Arrays.asList(1, 2)), equalTo(false));
+    assertThat(
+      ImListFns.listOf(null, "A").hashCode(),
+      equalTo(Arrays.asList(null, "A").hashCode())
+    );
+  }
+
+  @Test
+  public void indexOfMissing() {
+    List<String> view = ImListImpl.of("A", null, "A");
+    assertThat(view.indexOf("B"), equalTo(-1));
+    assertThat(view.lastIndexOf("B"), equalTo(-1));
+    assertThat(view.indexOf(null), equalTo(1));
+    assertThat(view.lastIndexOf("A"), equalTo(2));
+  }
+
+  @Test
+  public void repeatedLookupsUseIndex() {
+    AtomicInteger streams = new AtomicInteger();
+    List<Integer> list = new ImListImpl<>(() -> {
+      streams.incrementAndGet();
+      return Stream.of(range(100)).map(i -> i % 50);
+    }, 100);
+    for (int i = 0; i < 200; i++) {
+      assertThat(list.indexOf(i % 60), equalTo(i % 60 < 50 ? i % 60 : -1));
+      assertThat(
+        list.lastIndexOf(i % 60),
+        equalTo(i % 60 < 50 ? i % 60 + 50 : -1)
+      );
+    }
+    assertThat(
+      streams.get() <= AbstractImList.INDEX_THRESHOLD + 1,
+      equalTo(true)
+    );
+    assertThat(list.containsAll(Arrays.asList(0, 49, 7)), equalTo(true));
+    assertThat(list.containsAll(Arrays.asList(0, 50)), equalTo(false));
+  }
+
+  @Test
+  public void sliceViews() {
+    ImListImpl<Integer> array = ImListImpl.of(range(10));
+    ImList<Integer> slice = ImListFns.slice(array, 2, 8);
+    assertThat(slice, equalTo(ImListFns.listOf(2, 3, 4, 5, 6, 7)));
+    assertThat(array.subList(2, 8).get(5), equalTo(7));
+    assertThat(
+      ImListFns.slice(slice, 1, 3),
+      equalTo(ImListFns.listOf(3, 4))
+    );
+    assertThat(
+      array.subList(9, 10),
+      equalTo(Arrays.asList(9))
+    );
+    assertThat(ImListFns.take(array, 3), equalTo(ImListFns.listOf(0, 1, 2)));
+    assertThat(ImListFns.take(array, 30), equalTo(array));
+    assertThat(ImListFns.drop(array, 8), equalTo(ImListFns.listOf(8, 9)));
+    assertThat(ImListFns.drop(array, 30).isEmpty(), equalTo(true));
+    assertThrows(
+      IndexOutOfBoundsException.class,
+      () -> ImListFns.slice(array, 5, 11)
+    );
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ImListFns.take(array, -1)
+    );
+
+    ImList<Integer> vector = ImVector.of(range(100));
+    assertThat(
+      ImListFns.slice(vector, 40, 43),
+      equalTo(ImListFns.listOf(40, 41, 42))
+    );
+
+    ImList<Integer> cons = ImListFns.addFirst(0, ImListFns.listOf());
+    cons = ImListFns.addFirst(1, cons);
+    assertThat(ImListFns.drop(cons, 1), equalTo(ImListFns.listOf(0)));
+    assertThat(ImListFns.take(cons, 1), equalTo(ImListFns.listOf(1)));
+  }
+
+  @Test
+  public void listIteratorWalksBothWays() {
+    ListIterator<Integer> iter = ImVector.of(range(100)).listIterator(50);
+    assertThat(iter.previous(), equalTo(49));
+    assertThat(iter.next(), equalTo(49));
+    assertThat(iter.nextIndex(), equalTo(50));
+    assertThrows(UnsupportedOperationException.class, () -> iter.set(1));
+    assertThrows(
+      IndexOutOfBoundsException.class,
+      () -> ImListImpl.of(1, 2).listIterator(3)
+    );
+  }
+
+  @Test
+  public void lazyListIteratorBuffersAsItGoes() {
+    AtomicInteger pulled = new AtomicInteger();
+    ImListImpl<Integer> lazy = new ImListImpl<>(
+      () -> Stream.of(range(1000)).peek(i -> pulled.incrementAndGet()),
+      1000
+    );
+    ListIterator<Integer> iter = lazy.listIterator(2);
+    assertThat(iter.next(), equalTo(2));
+    assertThat(iter.previous(), equalTo(2));
+    assertThat(iter.previous(), equalTo(1));
+    assertThat(iter.hasPrevious(), equalTo(true));
+    assertThat(pulled.get() < 10, equalTo(true));
+    int count = 0;
+    while (iter.hasNext()) {
+      assertThat(iter.next(), equalTo(count + 1));
+      count++;
+    }
+    assertThat(count, equalTo(999));
+  }
+
+  @Test
+  public void concatRoutesByPosition() {
+    AtomicInteger pulled = new AtomicInteger();
+    ImList<Integer> lazy = new ImListImpl<>(
+      () -> Stream.of(range(100)).peek(i -> pulled.incrementAndGet()),
+      100
+    );
+    ImList<Integer> joined = ImListFns.concat(
+      ImListFns.listOf(range(50)),
+      lazy
+    );
+    assertThat(joined.size(), equalTo(150));
+    AbstractImList<Integer> list = (AbstractImList<Integer>) joined;
+    assertThat(list.get(49), equalTo(49));
+    assertThat(pulled.get(), equalTo(0));
+    assertThat(ImListFns.take(joined, 30), equalTo(ImListFns.listOf(range(30))));
+    assertThat(pulled.get(), equalTo(0));
+    assertThat(
+      arr(ImListFns.slice(joined, 48, 52)),
+      equalTo(new Object[] { 48, 49, 0, 1 })
+    );
+    assertThat(ImListFns.last(ImListFns.add(joined, -1)), equalTo(-1));
+  }
+
+  @Test
+  public void repeatedConcatStaysShallow() {
+    ImList<Integer> list = ImListFns.listOf();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      ImList<Integer> lazy = new ImListImpl<>(() -> Stream.of(0, 1), 2);
+      list = ImListFns.add(ImListFns.concat(list, lazy), i);
+      expected.addAll(Arrays.asList(0, 1, i));
+    }
+    assertThat(((AbstractImList<Integer>) list).depth() <= 33, equalTo(true));
+    assertThat(list, equalTo(expected));
+    assertThat(((AbstractImList<Integer>) list).get(299), equalTo(99));
+  }
+
+  @Test
+  public void descendingTraversal() {
+    List<Integer> expected = Arrays.asList(range(100));
+    Collections.reverse(expected);
+    ImList<Integer> lazy = new ImListImpl<>(() -> Stream.of(range(100)), 100);
+    ImList<Integer> joined = ImListFns.concat(
+      ImListFns.take(lazy, 40),
+      ImListFns.drop(ImListFns.listOf(range(100)), 40)
+    );
+    for (ImList<Integer> list : Arrays.asList(
+      ImListFns.listOf(range(100)),
+      ImVector.from(lazy),
+      lazy,
+      joined
+    )) {
+      assertThat(
+        list.reverseStream().collect(Collectors.toList()),
+        equalTo(expected)
+      );
+      assertThat(
+        list.reverseStream().parallel().collect(Collectors.toList()),
+        equalTo(expected)
+      );
+      List<Integer> walked = new ArrayList<>();
+      list.descendingIterator().forEachRemaining(walked::add);
+      assertThat(walked, equalTo(expected));
+    }
+  }
+
+  @Test
+  public void popFromTheEnd() {
+    ImList<Integer> list = ImListFns.listOf();
+    for (int i = 0; i < 100; i++) {
+      list = ImListFns.add(list, i);
+    }
+    for (int i = 99; i >= 0; i--) {
+      assertThat(ImListFns.last(list), equalTo(i));
+      list = ImListFns.dropLast(list);
+    }
+    assertThat(list.isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void smallListsGrowAndShrink() {
+    ImList<Integer> list = ImListFns.listOf();
+    for (int i = 0; i < 6; i++) {
+      list = ImListFns.add(list, i);
+      List<Integer> expected = Arrays.asList(range(i + 1));
+      assertThat(list, equalTo(expected));
+      assertThat(list.hashCode(), equalTo(expected.hashCode()));
+      assertThat(list instanceof SmallImList, equalTo(i < 4));
+    }
+    ImList<Integer> small = ImListFns.listOf(1, 2, 3);
+    AbstractImList<Integer> prepended = (AbstractImList<Integer>) ImListFns
+      .addFirst(0, small);
+    assertThat(prepended.get(0), equalTo(0));
+    assertThat(prepended.get(3), equalTo(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> prepended.get(4));
+    assertThat(ImListFns.dropFirst(small), equalTo(ImListFns.listOf(2, 3)));
+    assertThat(ImListFns.last(small), equalTo(3));
+    assertThat(
+      arr(ImListFns.reverse(small)),
+      equalTo(new Object[] { 3, 2, 1 })
+    );
+  }
+
+  @Test
+  public void listsBuiltFromTheFront() {
+    ImList<Integer> one = ImListFns.addFirst(1, ImListFns.listOf());
+    assertThat(one instanceof SmallImList, equalTo(true));
+    assertThat(one, equalTo(ImListFns.add(ImListFns.listOf(), 1)));
+    ImList<Integer> list = one;
+    for (int i = 2; i <= 4; i++) {
+      list = ImListFns.addFirst(i, list);
+      assertThat(list instanceof SmallImList, equalTo(true));
+    }
+    ImList<Integer> five = ImListFns.addFirst(5, list);
+    assertThat(five instanceof ConsImList, equalTo(true));
+    assertThat(five, equalTo(ImListFns.listOf(5, 4, 3, 2, 1)));
+    ImList<Integer> six = ImListFns.addFirst(6, five);
+    assertThat(ImListFns.dropFirst(six) == five, equalTo(true));
+  }
+
+  @Test
+  public void smallJoinsAreCopied() {
+    ImList<Integer> joined = ImListFns
+      .concat(ImListFns.listOf(1, 2), ImListFns.listOf(3));
+    assertThat(joined instanceof SmallImList, equalTo(true));
+    assertThat(joined, equalTo(ImListFns.listOf(1, 2, 3)));
+    ImList<Integer> four = ImListFns.concat(joined, ImVector.of(4));
+    assertThat(four instanceof SmallImList, equalTo(true));
+    assertThat(((AbstractImList<Integer>) four).get(3), equalTo(4));
+    assertThat(
+      ImListFns.concat(four, ImListFns.listOf(5)) instanceof SmallImList,
+      equalTo(false)
+    );
+    ImList<Integer> lazy = new ImListImpl<>(() -> Stream.of(3), 1);
+    assertThat(
+      ImListFns.concat(ImListFns.listOf(1, 2), lazy) instanceof ConcatImList,
+      equalTo(true)
+    );
+  }
+
+  private static Integer[] range(int n) {
+    Integer[] values = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      values[i] = i;
+    }
+    return values;
+  }
+
   private static Object[] arr(ImList<?> list) {
     return list.stream().toArray();
   }
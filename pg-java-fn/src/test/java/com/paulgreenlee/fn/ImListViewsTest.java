@@ -0,0 +1,105 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+public class ImListViewsTest {
+
+  @Test
+  public void mapIsLazyAndIndexed() {
+    AtomicInteger calls = new AtomicInteger();
+    ImList<Integer> mapped = ImListFns.map(
+      ImListFns.map(ImListFns.listOf(1, 2, 3, 4), i -> i * 10),
+      i -> {
+        calls.incrementAndGet();
+        return i + 1;
+      }
+    );
+    assertThat(calls.get(), equalTo(0));
+    assertThat(mapped.size(), equalTo(4));
+    assertThat(((AbstractImList<Integer>) mapped).get(2), equalTo(31));
+    assertThat(calls.get(), equalTo(1));
+    assertThat(mapped, equalTo(ImListFns.listOf(11, 21, 31, 41)));
+  }
+
+  @Test
+  public void mapIndexed() {
+    ImList<String> letters = ImListFns.listOf("A", "B", "C");
+    ImList<String> expected = ImListFns.listOf("0A", "1B", "2C");
+    assertThat(
+      ImListFns.mapIndexed(letters, (i, s) -> i + s),
+      equalTo(expected)
+    );
+    ImList<String> lazy = new ImListImpl<>(() -> Stream.of("A", "B", "C"), 3);
+    assertThat(
+      ImListFns.mapIndexed(lazy, (i, s) -> i + s),
+      equalTo(expected)
+    );
+  }
+
+  @Test
+  public void filterAndMapRunInOnePass() {
+    AtomicInteger streams = new AtomicInteger();
+    ImList<Integer> source = new ImListImpl<>(() -> {
+      streams.incrementAndGet();
+      return Stream.of(1, 2, 3, 4, 5, 6);
+    }, 6);
+    ImList<Integer> evens = ImListFns.filter(source, i -> i % 2 == 0);
+    ImList<Integer> result = ImListFns
+      .filter(ImListFns.map(evens, i -> i * i), i -> i > 4);
+    assertThat(streams.get(), equalTo(0));
+    assertThat(
+      result.stream().collect(Collectors.toList()),
+      equalTo(ImListFns.listOf(16, 36))
+    );
+    assertThat(streams.get(), equalTo(1));
+    assertThat(result.size(), equalTo(2));
+    assertThat(((AbstractImList<Integer>) result).get(1), equalTo(36));
+    assertThat(streams.get(), equalTo(2));
+  }
+
+  @Test
+  public void flatMap() {
+    ImList<Integer> result = ImListFns.flatMap(
+      ImListFns.listOf(1, 2, 3),
+      i -> ImListFns.take(ImListFns.listOf(i, i, i), i)
+    );
+    assertThat(result, equalTo(ImListFns.listOf(1, 2, 2, 3, 3, 3)));
+  }
+
+  @Test
+  public void reverse() {
+    ImList<Integer> array = ImListFns.listOf(1, 2, 3, 4);
+    ImList<Integer> reversed = ImListFns.reverse(array);
+    assertThat(reversed, equalTo(ImListFns.listOf(4, 3, 2, 1)));
+    assertThat(((AbstractImList<Integer>) reversed).get(0), equalTo(4));
+    assertThat(ImListFns.reverse(reversed) == array, equalTo(true));
+    assertThat(
+      reversed.reverseStream().collect(Collectors.toList()),
+      equalTo(array)
+    );
+    ImList<Integer> cons = ImListFns.addFirst(1, ImListFns.listOf(2, 3));
+    assertThat(ImListFns.reverse(cons), equalTo(ImListFns.listOf(3, 2, 1)));
+  }
+
+  @Test
+  public void viewsOfAJoinReadByIndex() {
+    ImList<Integer> joined = ImListFns
+      .addFirst(0, ImListFns.add(ImListFns.listOf(1, 2, 3, 4, 5), 6));
+    assertThat(joined instanceof ConcatImList, equalTo(true));
+    ImList<Integer> mapped = ImListFns.map(joined, i -> i * 10);
+    assertThat(mapped instanceof MappedImList, equalTo(true));
+    assertThat(((AbstractImList<Integer>) mapped).get(6), equalTo(60));
+    assertThat(mapped, equalTo(ImListFns.listOf(0, 10, 20, 30, 40, 50, 60)));
+    ImList<Integer> reversed = ImListFns.reverse(joined);
+    assertThat(reversed instanceof ReversedImList, equalTo(true));
+    assertThat(((AbstractImList<Integer>) reversed).get(1), equalTo(5));
+    assertThat(reversed, equalTo(ImListFns.listOf(6, 5, 4, 3, 2, 1, 0)));
+  }
+}
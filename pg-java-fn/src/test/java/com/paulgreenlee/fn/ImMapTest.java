@@ -0,0 +1,130 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+public class ImMapTest {
+
+  /**
+   * A key with a poor hash, so that many keys share a hash.
+   */
+  private static final class Key {
+    private final int id;
+
+    Key(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return id % 7;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).id == id;
+    }
+  }
+
+  @Test
+  public void putGetRemove() {
+    ImMap<String, Integer> empty = ImMapFns.empty();
+    ImMap<String, Integer> one = ImMapFns.put(empty, "a", 1);
+    ImMap<String, Integer> two = ImMapFns.put(one, "b", 2);
+    assertThat(empty.size(), equalTo(0));
+    assertThat(one.size(), equalTo(1));
+    assertThat(two.size(), equalTo(2));
+    assertThat(ImMapFns.get(two, "b"), equalTo(Optional.of(2)));
+    assertThat(ImMapFns.get(one, "b"), equalTo(Optional.empty()));
+    assertThat(ImMapFns.getOrDefault(one, "b", 0), equalTo(0));
+    assertThat(ImMapFns.remove(two, "a"), equalTo(ImMapFns.put(empty, "b", 2)));
+    assertThat(ImMapFns.remove(two, "c") == two, equalTo(true));
+    assertThat(ImMapFns.put(two, "a", 1) == two, equalTo(true));
+    assertThat(ImMapFns.put(two, "a", 3).size(), equalTo(2));
+  }
+
+  @Test
+  public void nullKeysAndValues() {
+    ImMap<String, String> map = ImMapFns.put(ImMapFns.empty(), null, null);
+    assertThat(ImMapFns.containsKey(map, null), equalTo(true));
+    assertThat(ImMapFns.get(map, null), equalTo(Optional.empty()));
+    assertThat(ImMapFns.getOrDefault(map, null, "x"), equalTo(null));
+    assertThat(ImMapFns.remove(map, null).isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void matchesHashMap() {
+    Random random = new Random(21);
+    Map<Object, Integer> expected = new HashMap<>();
+    ImMap<Object, Integer> map = ImMapFns.empty();
+    for (int i = 0; i < 20000; i++) {
+      int n = random.nextInt(2000);
+      Object key = n % 2 == 0 ? Integer.valueOf(n) : new Key(n);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = ImMapFns.remove(map, key);
+      } else {
+        expected.put(key, i);
+        map = ImMapFns.put(map, key, i);
+      }
+      assertThat(map.size(), equalTo(expected.size()));
+    }
+    assertThat(ImMapFns.asMap(map), equalTo(expected));
+    assertThat(ImMapFns.asMap(map).hashCode(), equalTo(expected.hashCode()));
+    for (Object key : expected.keySet()) {
+      map = ImMapFns.remove(map, key);
+    }
+    assertThat(map.isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void oldVersionsAreUnchanged() {
+    ImMap<Integer, Integer> before = IntStream
+      .range(0, 1000)
+      .boxed()
+      .collect(ImMapFns.toImMap(i -> i, i -> i * i));
+    ImMap<Integer, Integer> after = ImMapFns.remove(
+      ImMapFns.put(before, 5, -1),
+      6
+    );
+    assertThat(ImMapFns.get(before, 5), equalTo(Optional.of(25)));
+    assertThat(ImMapFns.containsKey(before, 6), equalTo(true));
+    assertThat(ImMapFns.get(after, 5), equalTo(Optional.of(-1)));
+    assertThat(ImMapFns.containsKey(after, 6), equalTo(false));
+  }
+
+  @Test
+  public void entriesAreTuples() {
+    ImMap<String, Integer> map = ImMapFns
+      .mapOf(Tuples.of("a", 1), Tuples.of("b", 2), Tuples.of("a", 3));
+    assertThat(map.size(), equalTo(2));
+    ImMap<String, Integer> copy = map
+      .stream()
+      .parallel()
+      .collect(ImMapFns.toImMap());
+    assertThat(ImMapFns.asMap(copy), equalTo(ImMapFns.asMap(map)));
+    int total = map.stream().mapToInt(Two::getB).sum();
+    assertThat(total, equalTo(5));
+  }
+
+  @Test
+  public void mapViewIsReadOnly() {
+    Map<String, Integer> view = ImMapFns
+      .asMap(ImMapFns.mapOf(Tuples.of("a", 1)));
+    assertThrows(UnsupportedOperationException.class, () -> view.put("b", 2));
+    assertThrows(UnsupportedOperationException.class, () -> view.remove("a"));
+    assertThrows(UnsupportedOperationException.class, () -> view.clear());
+    assertThat(view.entrySet().contains(Map.entry("a", 1)), equalTo(true));
+  }
+}
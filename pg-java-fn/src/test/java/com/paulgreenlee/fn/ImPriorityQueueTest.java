@@ -0,0 +1,167 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+public class ImPriorityQueueTest {
+
+  private static List<Integer> drain(ImPriorityQueue<Integer> queue) {
+    List<Integer> result = new ArrayList<>();
+    while (!queue.isEmpty()) {
+      result.add(ImPriorityQueueFns.findMin(queue));
+      queue = ImPriorityQueueFns.deleteMin(queue);
+    }
+    return result;
+  }
+
+  @Test
+  public void leastFirst() {
+    ImPriorityQueue<Integer> queue = ImPriorityQueueFns.empty();
+    for (int n : new int[] { 5, 1, 4, 1, 3 }) {
+      queue = ImPriorityQueueFns.insert(queue, n);
+    }
+    assertThat(queue.size(), equalTo(5));
+    assertThat(ImPriorityQueueFns.findMin(queue), equalTo(1));
+    assertThat(drain(queue), equalTo(Arrays.asList(1, 1, 3, 4, 5)));
+    assertThat(
+      ImPriorityQueueFns.toList(queue),
+      equalTo(ImListFns.listOf(1, 1, 3, 4, 5))
+    );
+  }
+
+  @Test
+  public void emptyQueue() {
+    ImPriorityQueue<Integer> empty = ImPriorityQueueFns.empty();
+    assertThat(empty.isEmpty(), equalTo(true));
+    assertThat(ImPriorityQueueFns.deleteMin(empty).isEmpty(), equalTo(true));
+    assertThrows(
+      NoSuchElementException.class,
+      () -> ImPriorityQueueFns.findMin(empty)
+    );
+    ImPriorityQueue<Integer> one = ImPriorityQueueFns.insert(empty, 1);
+    assertThat(ImPriorityQueueFns.deleteMin(one).isEmpty(), equalTo(true));
+    assertThat(empty.isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void oldVersionsAreUnchanged() {
+    ImPriorityQueue<Integer> base = ImPriorityQueueFns
+      .fromList(ImListFns.listOf(8, 3, 6, 1, 9), null);
+    ImPriorityQueue<Integer> shorter = ImPriorityQueueFns
+      .deleteMin(ImPriorityQueueFns.deleteMin(base));
+    ImPriorityQueue<Integer> longer = ImPriorityQueueFns.insert(base, 0);
+    ImPriorityQueue<Integer> other = ImPriorityQueueFns.insert(shorter, 7);
+    assertThat(drain(base), equalTo(Arrays.asList(1, 3, 6, 8, 9)));
+    assertThat(drain(shorter), equalTo(Arrays.asList(6, 8, 9)));
+    assertThat(drain(longer), equalTo(Arrays.asList(0, 1, 3, 6, 8, 9)));
+    assertThat(drain(other), equalTo(Arrays.asList(6, 7, 8, 9)));
+  }
+
+  @Test
+  public void matchesPriorityQueue() {
+    Random random = new Random(25);
+    List<ImPriorityQueue<Integer>> versions = new ArrayList<>();
+    List<PriorityQueue<Integer>> expected = new ArrayList<>();
+    versions.add(ImPriorityQueueFns.empty());
+    expected.add(new PriorityQueue<>());
+    for (int i = 0; i < 5000; i++) {
+      int v = random.nextInt(versions.size());
+      ImPriorityQueue<Integer> queue = versions.get(v);
+      PriorityQueue<Integer> copy = new PriorityQueue<>(expected.get(v));
+      int op = random.nextInt(10);
+      if (op < 5) {
+        int n = random.nextInt(1000);
+        queue = ImPriorityQueueFns.insert(queue, n);
+        copy.add(n);
+      } else if (op < 9) {
+        queue = ImPriorityQueueFns.deleteMin(queue);
+        copy.poll();
+      } else {
+        int w = random.nextInt(versions.size());
+        if (queue.size() + versions.get(w).size() > 500) {
+          continue;
+        }
+        queue = ImPriorityQueueFns.meld(queue, versions.get(w));
+        copy.addAll(expected.get(w));
+      }
+      assertThat(queue.size(), equalTo(copy.size()));
+      if (!copy.isEmpty()) {
+        assertThat(ImPriorityQueueFns.findMin(queue), equalTo(copy.peek()));
+      }
+      versions.add(queue);
+      expected.add(copy);
+    }
+    for (int i = 0; i < versions.size(); i += 97) {
+      List<Integer> sorted = new ArrayList<>(expected.get(i));
+      sorted.sort(null);
+      assertThat(drain(versions.get(i)), equalTo(sorted));
+    }
+  }
+
+  @Test
+  public void meldKeepsTheFirstOrder() {
+    ImPriorityQueue<Integer> up = ImPriorityQueueFns
+      .fromList(ImListFns.listOf(2, 4, 6), null);
+    ImPriorityQueue<Integer> down = ImPriorityQueueFns
+      .fromList(ImListFns.listOf(1, 3, 5), Comparator.reverseOrder());
+    assertThat(
+      drain(ImPriorityQueueFns.meld(up, down)),
+      equalTo(Arrays.asList(1, 2, 3, 4, 5, 6))
+    );
+    assertThat(
+      ImPriorityQueueFns.toList(ImPriorityQueueFns.meld(down, up)),
+      equalTo(ImListFns.listOf(6, 5, 4, 3, 2, 1))
+    );
+    assertThat(
+      ImPriorityQueueFns.meld(down, up).comparator(),
+      equalTo(down.comparator())
+    );
+  }
+
+  @Test
+  public void byPriority() {
+    ImPriorityQueue<Two<Long, String>> events = ImPriorityQueueFns
+      .byPriority();
+    events = ImPriorityQueueFns.insert(events, 30L, "c");
+    events = ImPriorityQueueFns.insert(events, 10L, "a");
+    events = ImPriorityQueueFns.insert(events, 20L, "b");
+    Two<Long, String> next = ImPriorityQueueFns.findMin(events);
+    assertThat(next.getA(), equalTo(10L));
+    assertThat(next.getB(), equalTo("a"));
+    assertThat(
+      ImPriorityQueueFns.toList(events).stream()
+        .map(Two::getB)
+        .collect(Collectors.joining()),
+      equalTo("abc")
+    );
+  }
+
+  @Test
+  public void parallelCollector() {
+    ImPriorityQueue<Integer> queue = IntStream.range(0, 20000)
+      .map(i -> (i * 7919) % 20000)
+      .boxed()
+      .parallel()
+      .collect(ImPriorityQueueFns.toImPriorityQueue(null));
+    assertThat(queue.size(), equalTo(20000));
+    assertThat(
+      queue.stream().collect(Collectors.toList()),
+      equalTo(IntStream.range(0, 20000).boxed().collect(Collectors.toList()))
+    );
+  }
+}
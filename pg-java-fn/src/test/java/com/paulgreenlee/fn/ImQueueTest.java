@@ -0,0 +1,99 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ImQueueTest {
+
+  @Test
+  public void firstInFirstOut() {
+    ImQueue<String> queue = ImQueueFns.queueOf("a", "b");
+    queue = ImQueueFns.enqueue(queue, "c");
+    assertThat(ImQueueFns.peek(queue), equalTo("a"));
+    queue = ImQueueFns.dequeue(queue);
+    assertThat(ImQueueFns.peek(queue), equalTo("b"));
+    queue = ImQueueFns.enqueue(queue, "d");
+    assertThat(
+      ImQueueFns.asList(queue),
+      equalTo(ImListFns.listOf("b", "c", "d"))
+    );
+    assertThat(queue.size(), equalTo(3));
+  }
+
+  @Test
+  public void emptyQueue() {
+    ImQueue<String> empty = ImQueueFns.empty();
+    assertThat(empty.isEmpty(), equalTo(true));
+    assertThat(ImQueueFns.dequeue(empty).isEmpty(), equalTo(true));
+    assertThrows(NoSuchElementException.class, () -> ImQueueFns.peek(empty));
+    ImQueue<String> one = ImQueueFns.enqueue(empty, "a");
+    assertThat(ImQueueFns.dequeue(one).isEmpty(), equalTo(true));
+    assertThat(empty.isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void oldVersionsAreUnchanged() {
+    ImQueue<Integer> base = ImQueueFns
+      .fromList(ImListFns.listOf(1, 2, 3, 4, 5));
+    ImQueue<Integer> shorter = ImQueueFns.dequeue(ImQueueFns.dequeue(base));
+    ImQueue<Integer> longer = ImQueueFns.enqueue(base, 6);
+    ImQueue<Integer> other = ImQueueFns.enqueue(shorter, 7);
+    assertThat(
+      ImQueueFns.asList(base),
+      equalTo(ImListFns.listOf(1, 2, 3, 4, 5))
+    );
+    assertThat(ImQueueFns.asList(shorter), equalTo(ImListFns.listOf(3, 4, 5)));
+    assertThat(
+      ImQueueFns.asList(longer),
+      equalTo(ImListFns.listOf(1, 2, 3, 4, 5, 6))
+    );
+    assertThat(
+      ImQueueFns.asList(other),
+      equalTo(ImListFns.listOf(3, 4, 5, 7))
+    );
+  }
+
+  @Test
+  public void matchesArrayDeque() {
+    Random random = new Random(24);
+    ArrayDeque<Integer> expected = new ArrayDeque<>();
+    ImQueue<Integer> queue = ImQueueFns.empty();
+    for (int i = 0; i < 20000; i++) {
+      if (random.nextInt(5) < 3) {
+        expected.addLast(i);
+        queue = ImQueueFns.enqueue(queue, i);
+      } else if (!expected.isEmpty()) {
+        assertThat(ImQueueFns.peek(queue), equalTo(expected.pollFirst()));
+        queue = ImQueueFns.dequeue(queue);
+      }
+      assertThat(queue.size(), equalTo(expected.size()));
+    }
+    assertThat(ImQueueFns.asList(queue), equalTo(new ArrayList<>(expected)));
+  }
+
+  @Test
+  public void streamsInOrder() {
+    ImQueue<Integer> queue = IntStream
+      .range(0, 10000)
+      .boxed()
+      .parallel()
+      .collect(ImQueueFns.toImQueue());
+    for (int i = 0; i < 2500; i++) {
+      queue = ImQueueFns.dequeue(queue);
+    }
+    assertThat(
+      queue.stream().parallel().collect(Collectors.toList()),
+      equalTo(IntStream.range(2500, 10000).boxed().collect(Collectors.toList()))
+    );
+  }
+}
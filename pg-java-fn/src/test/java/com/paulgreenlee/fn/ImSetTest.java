@@ -0,0 +1,119 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ImSetTest {
+
+  private static ImSet<Integer> range(int from, int to) {
+    return IntStream.range(from, to).boxed().collect(ImSetFns.toImSet());
+  }
+
+  private static Set<Integer> hashSet(ImSet<Integer> set) {
+    return set.stream().collect(Collectors.toSet());
+  }
+
+  @Test
+  public void addRemoveContains() {
+    ImSet<String> set = ImSetFns.setOf("a", "b", "a");
+    assertThat(set.size(), equalTo(2));
+    assertThat(ImSetFns.contains(set, "a"), equalTo(true));
+    assertThat(ImSetFns.add(set, "a") == set, equalTo(true));
+    assertThat(ImSetFns.remove(set, "c") == set, equalTo(true));
+    ImSet<String> less = ImSetFns.remove(set, "a");
+    assertThat(ImSetFns.contains(less, "a"), equalTo(false));
+    assertThat(ImSetFns.contains(set, "a"), equalTo(true));
+    assertThat(ImSetFns.remove(less, "b").isEmpty(), equalTo(true));
+  }
+
+  @Test
+  public void setAlgebra() {
+    ImSet<Integer> a = range(0, 2000);
+    ImSet<Integer> b = range(1000, 3000);
+    assertThat(hashSet(ImSetFns.union(a, b)), equalTo(hashSet(range(0, 3000))));
+    assertThat(
+      hashSet(ImSetFns.intersect(a, b)),
+      equalTo(hashSet(range(1000, 2000)))
+    );
+    assertThat(
+      hashSet(ImSetFns.difference(a, b)),
+      equalTo(hashSet(range(0, 1000)))
+    );
+    assertThat(ImSetFns.union(a, b).size(), equalTo(3000));
+    assertThat(ImSetFns.intersect(a, b).size(), equalTo(1000));
+    assertThat(ImSetFns.difference(a, b).size(), equalTo(1000));
+  }
+
+  @Test
+  public void sharedStructureIsReused() {
+    ImSet<Integer> big = range(0, 10000);
+    ImSet<Integer> more = ImSetFns.add(big, -1);
+    ImSet<Integer> fewer = ImSetFns.remove(big, 5);
+    assertThat(ImSetFns.union(big, big) == big, equalTo(true));
+    assertThat(ImSetFns.union(more, big) == more, equalTo(true));
+    assertThat(ImSetFns.intersect(big, more) == big, equalTo(true));
+    assertThat(ImSetFns.difference(big, big).isEmpty(), equalTo(true));
+    assertThat(
+      hashSet(ImSetFns.difference(more, fewer)),
+      equalTo(new HashSet<>(Arrays.asList(-1, 5)))
+    );
+    assertThat(ImSetFns.intersect(more, fewer).size(), equalTo(9999));
+  }
+
+  @Test
+  public void matchesHashSet() {
+    Random random = new Random(22);
+    Set<Integer> left = new HashSet<>();
+    Set<Integer> right = new HashSet<>();
+    ImSet<Integer> a = ImSetFns.empty();
+    ImSet<Integer> b = ImSetFns.empty();
+    for (int i = 0; i < 5000; i++) {
+      int n = random.nextInt() >> random.nextInt(32);
+      if (random.nextBoolean()) {
+        left.add(n);
+        a = ImSetFns.add(a, n);
+      } else {
+        right.add(n);
+        b = ImSetFns.add(b, n);
+      }
+    }
+    Set<Integer> union = new HashSet<>(left);
+    union.addAll(right);
+    Set<Integer> intersection = new HashSet<>(left);
+    intersection.retainAll(right);
+    Set<Integer> difference = new HashSet<>(left);
+    difference.removeAll(right);
+    assertThat(ImSetFns.asSet(ImSetFns.union(a, b)), equalTo(union));
+    assertThat(ImSetFns.asSet(ImSetFns.intersect(a, b)), equalTo(intersection));
+    assertThat(ImSetFns.asSet(ImSetFns.difference(a, b)), equalTo(difference));
+  }
+
+  @Test
+  public void listConversions() {
+    ImList<Integer> list = ImListFns.listOf(3, 1, 3, 2, 1);
+    ImSet<Integer> set = ImSetFns.fromList(list);
+    assertThat(set.size(), equalTo(3));
+    ImList<Integer> back = ImSetFns.toList(set);
+    assertThat(back.size(), equalTo(3));
+    assertThat(ImSetFns.fromList(back), equalTo(set));
+  }
+
+  @Test
+  public void setViewIsReadOnly() {
+    Set<String> view = ImSetFns.asSet(ImSetFns.setOf("a"));
+    assertThat(view.contains("a"), equalTo(true));
+    assertThat(view, equalTo(new HashSet<>(Arrays.asList("a"))));
+    assertThrows(UnsupportedOperationException.class, () -> view.add("b"));
+    assertThrows(UnsupportedOperationException.class, () -> view.clear());
+  }
+}
@@ -0,0 +1,173 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+public class ImSortedMapTest {
+
+  private static ImSortedMap<Integer, Integer> squares(int from, int to) {
+    return IntStream
+      .range(from, to)
+      .boxed()
+      .collect(ImSortedMapFns.toImSortedMap(i -> i, i -> i * i, null));
+  }
+
+  private static List<Integer> keys(ImSortedMap<Integer, ?> map) {
+    return map.stream().map(Two::getA).collect(Collectors.toList());
+  }
+
+  @Test
+  public void matchesTreeMap() {
+    Random random = new Random(23);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    ImSortedMap<Integer, Integer> map = ImSortedMapFns.empty();
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(2000);
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = ImSortedMapFns.remove(map, key);
+      } else {
+        expected.put(key, i);
+        map = ImSortedMapFns.put(map, key, i);
+      }
+    }
+    assertThat(ImSortedMapFns.asMap(map), equalTo(expected));
+    assertThat(keys(map), equalTo(new ArrayList<>(expected.keySet())));
+    assertThat(
+      ImSortedMapFns.first(map).map(Two::getA),
+      equalTo(Optional.of(expected.firstKey()))
+    );
+    assertThat(
+      ImSortedMapFns.last(map).map(Two::getA),
+      equalTo(Optional.of(expected.lastKey()))
+    );
+  }
+
+  @Test
+  public void nearestKeys() {
+    ImSortedMap<Integer, Integer> map = ImSortedMapFns
+      .tail(squares(0, 10), 0, false);
+    ImSortedMap<Integer, Integer> evens = map
+      .stream()
+      .filter(entry -> entry.getA() % 2 == 0)
+      .collect(ImSortedMapFns.toImSortedMap(null));
+    assertThat(
+      ImSortedMapFns.floor(evens, 5),
+      equalTo(ImSortedMapFns.floor(evens, 4))
+    );
+    assertThat(
+      ImSortedMapFns.floor(evens, 5).map(Two::getB),
+      equalTo(Optional.of(16))
+    );
+    assertThat(
+      ImSortedMapFns.ceiling(evens, 5).map(Two::getA),
+      equalTo(Optional.of(6))
+    );
+    assertThat(
+      ImSortedMapFns.lower(evens, 4).map(Two::getA),
+      equalTo(Optional.of(2))
+    );
+    assertThat(
+      ImSortedMapFns.higher(evens, 8).map(Two::getA),
+      equalTo(Optional.empty())
+    );
+    assertThat(ImSortedMapFns.lower(evens, 2), equalTo(Optional.empty()));
+  }
+
+  @Test
+  public void rangesSplitAndJoin() {
+    ImSortedMap<Integer, Integer> map = squares(0, 1000);
+    assertThat(
+      keys(ImSortedMapFns.range(map, 10, true, 15, false)),
+      equalTo(ImListFns.listOf(10, 11, 12, 13, 14))
+    );
+    assertThat(
+      keys(ImSortedMapFns.range(map, 10, false, 15, true)),
+      equalTo(ImListFns.listOf(11, 12, 13, 14, 15))
+    );
+    assertThat(ImSortedMapFns.head(map, 3, true).size(), equalTo(4));
+    assertThat(ImSortedMapFns.tail(map, 990, false).size(), equalTo(9));
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ImSortedMapFns.range(map, 5, true, 4, true)
+    );
+
+    Two<ImSortedMap<Integer, Integer>, ImSortedMap<Integer, Integer>> halves =
+      ImSortedMapFns.split(map, 400);
+    assertThat(halves.getA().size(), equalTo(400));
+    assertThat(halves.getB().size(), equalTo(600));
+    ImSortedMap<Integer, Integer> joined = ImSortedMapFns
+      .join(halves.getA(), halves.getB());
+    assertThat(
+      ImSortedMapFns.asMap(joined),
+      equalTo(ImSortedMapFns.asMap(map))
+    );
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ImSortedMapFns.join(halves.getB(), halves.getA())
+    );
+  }
+
+  @Test
+  public void tupleKeys() {
+    Comparator<Two<Long, String>> order = Tuples
+      .comparator(Comparator.naturalOrder(), Comparator.naturalOrder());
+    ImSortedMap<Two<Long, String>, Integer> map = ImSortedMapFns.empty(order);
+    for (int i = 0; i < 100; i++) {
+      map = ImSortedMapFns.put(map, Tuples.of((long) (i % 10), "k" + i), i);
+    }
+    ImSortedMap<Two<Long, String>, Integer> atThree = ImSortedMapFns
+      .range(map, Tuples.of(3L, ""), true, Tuples.of(4L, ""), false);
+    assertThat(atThree.size(), equalTo(10));
+    assertThat(
+      atThree.stream().allMatch(entry -> entry.getA().getA() == 3L),
+      equalTo(true)
+    );
+    assertThat(
+      ImSortedMapFns.first(atThree).map(Two::getB),
+      equalTo(Optional.of(13))
+    );
+  }
+
+  @Test
+  public void parallelStreams() {
+    ImSortedMap<Integer, Integer> map = squares(0, 10000);
+    List<Integer> expected = IntStream
+      .range(0, 10000)
+      .boxed()
+      .collect(Collectors.toList());
+    assertThat(
+      map.stream().parallel().map(Two::getA).collect(Collectors.toList()),
+      equalTo(expected)
+    );
+    ImSortedMap<Integer, Integer> copy = map
+      .stream()
+      .parallel()
+      .collect(ImSortedMapFns.toImSortedMap(null));
+    assertThat(ImSortedMapFns.asMap(copy), equalTo(ImSortedMapFns.asMap(map)));
+  }
+
+  @Test
+  public void mapViewIsReadOnly() {
+    SortedMap<Integer, Integer> view = ImSortedMapFns.asMap(squares(0, 10));
+    assertThat(view.firstKey(), equalTo(0));
+    assertThat(view.subMap(2, 5).keySet().size(), equalTo(3));
+    assertThrows(UnsupportedOperationException.class, () -> view.put(1, 2));
+    assertThrows(UnsupportedOperationException.class, () -> view.clear());
+  }
+}
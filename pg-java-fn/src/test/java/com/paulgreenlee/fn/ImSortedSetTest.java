@@ -0,0 +1,133 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+public class ImSortedSetTest {
+
+  private static ImSortedSet<Integer> range(int from, int to) {
+    return IntStream
+      .range(from, to)
+      .boxed()
+      .collect(ImSortedSetFns.toImSortedSet(null));
+  }
+
+  @Test
+  public void addRemoveAndOrder() {
+    ImSortedSet<String> set = ImSortedSetFns.setOf("c", "a", "b", "a");
+    assertThat(
+      ImSortedSetFns.toList(set),
+      equalTo(ImListFns.listOf("a", "b", "c"))
+    );
+    assertThat(ImSortedSetFns.add(set, "a") == set, equalTo(true));
+    assertThat(ImSortedSetFns.remove(set, "z") == set, equalTo(true));
+    assertThat(ImSortedSetFns.first(set), equalTo(Optional.of("a")));
+    assertThat(ImSortedSetFns.last(set), equalTo(Optional.of("c")));
+    assertThat(ImSortedSetFns.ceiling(set, "bb"), equalTo(Optional.of("c")));
+    assertThat(ImSortedSetFns.floor(set, "bb"), equalTo(Optional.of("b")));
+    ImSortedSet<String> reversed = ImSortedSetFns
+      .fromCollection(ImSortedSetFns.asSet(set), Comparator.reverseOrder());
+    assertThat(
+      ImSortedSetFns.toList(reversed),
+      equalTo(ImListFns.listOf("c", "b", "a"))
+    );
+  }
+
+  @Test
+  public void setAlgebraMatchesTreeSet() {
+    Random random = new Random(23);
+    TreeSet<Integer> left = new TreeSet<>();
+    TreeSet<Integer> right = new TreeSet<>();
+    ImSortedSet<Integer> a = ImSortedSetFns.empty();
+    ImSortedSet<Integer> b = ImSortedSetFns.empty();
+    for (int i = 0; i < 5000; i++) {
+      int n = random.nextInt(4000);
+      if (random.nextBoolean()) {
+        left.add(n);
+        a = ImSortedSetFns.add(a, n);
+      } else {
+        right.add(n);
+        b = ImSortedSetFns.add(b, n);
+      }
+    }
+    TreeSet<Integer> union = new TreeSet<>(left);
+    union.addAll(right);
+    TreeSet<Integer> intersection = new TreeSet<>(left);
+    intersection.retainAll(right);
+    TreeSet<Integer> difference = new TreeSet<>(left);
+    difference.removeAll(right);
+    assertThat(
+      new ArrayList<>(ImSortedSetFns.asSet(ImSortedSetFns.union(a, b))),
+      equalTo(new ArrayList<>(union))
+    );
+    assertThat(
+      new ArrayList<>(ImSortedSetFns.asSet(ImSortedSetFns.intersect(a, b))),
+      equalTo(new ArrayList<>(intersection))
+    );
+    assertThat(
+      new ArrayList<>(ImSortedSetFns.asSet(ImSortedSetFns.difference(a, b))),
+      equalTo(new ArrayList<>(difference))
+    );
+  }
+
+  @Test
+  public void rangesSplitAndJoin() {
+    ImSortedSet<Integer> set = range(0, 1000);
+    assertThat(
+      ImSortedSetFns.toList(ImSortedSetFns.range(set, 3, true, 6, true)),
+      equalTo(ImListFns.listOf(3, 4, 5, 6))
+    );
+    assertThat(ImSortedSetFns.head(set, 10, false).size(), equalTo(10));
+    assertThat(ImSortedSetFns.tail(set, 10, false).size(), equalTo(989));
+    Two<ImSortedSet<Integer>, ImSortedSet<Integer>> halves =
+      ImSortedSetFns.split(set, 250);
+    assertThat(ImSortedSetFns.last(halves.getA()), equalTo(Optional.of(249)));
+    assertThat(ImSortedSetFns.first(halves.getB()), equalTo(Optional.of(250)));
+    ImSortedSet<Integer> joined = ImSortedSetFns
+      .join(halves.getA(), halves.getB());
+    assertThat(
+      ImSortedSetFns.asSet(joined),
+      equalTo(ImSortedSetFns.asSet(set))
+    );
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> ImSortedSetFns.join(set, halves.getB())
+    );
+  }
+
+  @Test
+  public void parallelStreams() {
+    ImSortedSet<Integer> set = range(0, 10000);
+    assertThat(
+      set.stream().parallel().collect(Collectors.toList()),
+      equalTo(IntStream.range(0, 10000).boxed().collect(Collectors.toList()))
+    );
+    assertThat(
+      set.stream().parallel().mapToLong(i -> i).sum(),
+      equalTo(49995000L)
+    );
+  }
+
+  @Test
+  public void setViewIsReadOnly() {
+    SortedSet<Integer> view = ImSortedSetFns.asSet(range(0, 10));
+    assertThat(view.first(), equalTo(0));
+    assertThat(view.headSet(4).size(), equalTo(4));
+    assertThrows(UnsupportedOperationException.class, () -> view.add(11));
+    assertThrows(UnsupportedOperationException.class, () -> view.clear());
+  }
+}
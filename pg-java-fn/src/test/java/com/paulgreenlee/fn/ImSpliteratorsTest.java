@@ -0,0 +1,129 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+public class ImSpliteratorsTest {
+
+  private static final int SIZE = 10_000;
+
+  private static ImList<Integer> lazy() {
+    return new ImListImpl<>(
+      () -> IntStream.range(0, SIZE + 1).boxed().skip(1),
+      SIZE
+    );
+  }
+
+  private static List<Integer> range(int n) {
+    return IntStream.range(0, n).boxed().collect(Collectors.toList());
+  }
+
+  private static void assertSplitsEvenly(ImList<?> list) {
+    Spliterator<?> suffix = list.stream().spliterator();
+    assertTrue(
+      suffix.hasCharacteristics(
+        Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED
+          | Spliterator.IMMUTABLE
+      )
+    );
+    assertThat(suffix.estimateSize(), equalTo((long) list.size()));
+    Spliterator<?> prefix = suffix.trySplit();
+    assertThat(prefix.estimateSize(), equalTo((long) list.size() / 2));
+    assertThat(
+      prefix.estimateSize() + suffix.estimateSize(),
+      equalTo((long) list.size())
+    );
+  }
+
+  @Test
+  public void vector() {
+    ImList<Integer> list = ImVector.from(ImListFns.fromCollection(range(SIZE)));
+    assertSplitsEvenly(list);
+    assertThat(
+      list.stream().parallel().mapToLong(Integer::longValue).sum(),
+      equalTo((long) SIZE * (SIZE - 1) / 2)
+    );
+  }
+
+  @Test
+  public void lazyList() {
+    ImList<Integer> list = lazy();
+    assertSplitsEvenly(list);
+    assertThat(
+      list.stream().parallel().collect(Collectors.toList()),
+      equalTo(list.stream().collect(Collectors.toList()))
+    );
+  }
+
+  @Test
+  public void consList() {
+    ImList<Integer> list = ImListFns.listOf();
+    for (int i = SIZE - 1; i >= 0; i--) {
+      list = ImListFns.addFirst(i, list);
+    }
+    assertSplitsEvenly(list);
+    assertThat(
+      list.stream().parallel().collect(Collectors.toList()),
+      equalTo(range(SIZE))
+    );
+  }
+
+  @Test
+  public void offHeap() {
+    ImList<Integer> list = OffHeapImList
+      .of(ImListFns.fromCollection(range(SIZE)), Codecs.INTEGER);
+    assertSplitsEvenly(list);
+    assertThat(list.stream().parallel().count(), equalTo((long) SIZE));
+  }
+
+  @Test
+  public void shortListJoinedToLongOne() {
+    ImList<Integer> list = ImListFns.concat(
+      ImListFns.addFirst(-2, ImListFns.addFirst(-1, ImListFns.listOf())),
+      ImVector.from(ImListFns.fromCollection(range(SIZE)))
+    );
+    Spliterator<Integer> suffix = list.stream().spliterator();
+    assertThat(suffix.estimateSize(), equalTo((long) SIZE + 2));
+    Spliterator<Integer> prefix = suffix.trySplit();
+    assertThat(prefix.estimateSize(), equalTo((long) SIZE / 2 + 2));
+    assertThat(suffix.estimateSize(), equalTo((long) SIZE / 2));
+    assertThat(
+      list.stream().parallel().collect(Collectors.toList()),
+      equalTo(list.stream().collect(Collectors.toList()))
+    );
+    assertThat(
+      ImListFns.reverse(list).stream().parallel().reduce((a, b) -> b).get(),
+      equalTo(-2)
+    );
+  }
+
+  @Test
+  public void boxedPrimitiveLists() {
+    int[] values = IntStream.range(0, SIZE).toArray();
+    ImList<Integer> ints = IntImList.of(values).boxed();
+    assertSplitsEvenly(ints);
+    assertSplitsEvenly(
+      LongImList.of(IntStream.of(values).asLongStream().toArray()).boxed()
+    );
+    assertSplitsEvenly(
+      DoubleImList.of(IntStream.of(values).asDoubleStream().toArray()).boxed()
+    );
+    assertSplitsEvenly(ImListFns.slice(ints, 0, SIZE / 2));
+    Spliterator<Integer> viaList = ((AbstractImList<Integer>) ints)
+      .parallelStream()
+      .spliterator();
+    assertThat(viaList.trySplit().estimateSize(), equalTo((long) SIZE / 2));
+    assertThat(
+      ints.stream().parallel().collect(Collectors.toList()),
+      equalTo(range(SIZE))
+    );
+  }
+}
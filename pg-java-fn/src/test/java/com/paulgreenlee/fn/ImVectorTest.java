@@ -0,0 +1,134 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+public class ImVectorTest {
+
+  @Test
+  public void appendMany() {
+    ImVector<Integer> vec = ImVector.empty();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      vec = vec.append(i);
+      expected.add(i);
+    }
+    assertContents(vec, expected);
+  }
+
+  @Test
+  public void prependMany() {
+    ImVector<Integer> vec = ImVector.empty();
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 20_000; i++) {
+      vec = vec.prepend(i);
+      expected.add(0, i);
+    }
+    assertContents(vec, expected);
+  }
+
+  @Test
+  public void addThroughImListFns() {
+    ImList<Integer> list = ImListImpl.emptyList();
+    for (int i = 0; i < 100_000; i++) {
+      list = ImListFns.add(list, i);
+    }
+    assertThat(list.size(), equalTo(100_000));
+    assertThat(list.stream().count(), equalTo(100_000L));
+    assertThat(ImListFns.last(list), equalTo(99_999));
+  }
+
+  @Test
+  public void randomConcat() {
+    Random random = new Random(42);
+    List<ImVector<Integer>> vectors = new ArrayList<>();
+    List<List<Integer>> expected = new ArrayList<>();
+    int next = 0;
+    for (int i = 0; i < 40; i++) {
+      int length = random.nextInt(3) == 0
+        ? random.nextInt(40)
+        : random.nextInt(3000);
+      ImVector<Integer> vec = ImVector.empty();
+      List<Integer> list = new ArrayList<>();
+      for (int j = 0; j < length; j++) {
+        vec = vec.append(next);
+        list.add(next++);
+      }
+      vectors.add(vec);
+      expected.add(list);
+    }
+    while (vectors.size() > 1) {
+      int i = random.nextInt(vectors.size() - 1);
+      ImVector<Integer> joined = vectors.get(i).concat(vectors.get(i + 1));
+      List<Integer> list = new ArrayList<>(expected.get(i));
+      list.addAll(expected.get(i + 1));
+      vectors.set(i, joined);
+      expected.set(i, list);
+      vectors.remove(i + 1);
+      expected.remove(i + 1);
+      assertContents(joined, list);
+    }
+  }
+
+  @Test
+  public void concatThenAppendAndUpdate() {
+    ImVector<Integer> a = ImVector.empty();
+    ImVector<Integer> b = ImVector.empty();
+    for (int i = 0; i < 1000; i++) {
+      a = a.append(i);
+      b = b.append(i + 1000);
+    }
+    ImVector<Integer> joined = a.concat(b);
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      expected.add(i);
+    }
+    for (int i = 2000; i < 5000; i++) {
+      joined = joined.append(i);
+      expected.add(i);
+    }
+    for (int i = 0; i < 5000; i += 7) {
+      joined = joined.update(i, -i);
+      expected.set(i, -i);
+    }
+    assertContents(joined, expected);
+  }
+
+  @Test
+  public void updateSharesUntouchedVersions() {
+    ImVector<String> before = ImVector.of("A", "B", "C");
+    ImVector<String> after = before.update(1, "X");
+    assertThat(before, equalTo(ImListFns.listOf("A", "B", "C")));
+    assertThat(after, equalTo(ImListFns.listOf("A", "X", "C")));
+  }
+
+  @Test
+  public void outOfBounds() {
+    ImVector<String> vec = ImVector.of("A");
+    assertThrows(IndexOutOfBoundsException.class, () -> vec.get(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> vec.get(-1));
+    assertThrows(
+      IndexOutOfBoundsException.class,
+      () -> vec.update(1, "B")
+    );
+  }
+
+  private static void assertContents(
+    ImVector<Integer> vec,
+    List<Integer> expected
+  ) {
+    assertThat(vec.size(), equalTo(expected.size()));
+    assertThat(vec.stream().collect(Collectors.toList()), equalTo(expected));
+    for (int i = 0; i < expected.size(); i++) {
+      assertThat(vec.get(i), equalTo(expected.get(i)));
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.paulgreenlee.fn.Tuples.Two;
+
+public class OffHeapImListTest {
+
+  @Test
+  public void fixedSize() {
+    ImList<Long> source = ImListFns.listOf(1L, -2L, Long.MAX_VALUE);
+    OffHeapImList<Long> list = OffHeapImList.of(source, Codecs.LONG);
+    assertThat(list, equalTo(source));
+    assertThat(list.get(2), equalTo(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void variableSizeAcrossSegments() {
+    List<String> strings = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      strings.add("\u00e9l\u00e9ment " + i + " \ud83d\ude00");
+    }
+    ImList<String> source = ImListFns.fromCollection(strings);
+    OffHeapImList<String> list = OffHeapImList.of(source, Codecs.STRING, 6);
+    assertThat(list, equalTo(source));
+    assertThat(list.get(321), equalTo(strings.get(321)));
+  }
+
+  @Test
+  public void tuples() {
+    Codec<Two<Integer, String>> codec = Codecs
+      .two(Codecs.INTEGER, Codecs.STRING);
+    ImList<Two<Integer, String>> source = ImListFns
+      .listOf(Tuples.of(1, "one"), Tuples.of(2, ""), Tuples.of(3, "three"));
+    OffHeapImList<Two<Integer, String>> list = OffHeapImList
+      .of(source, codec);
+    assertThat(list, equalTo(source));
+    assertThat(list.get(1).getB(), equalTo(""));
+  }
+
+  @Test
+  public void closed() {
+    OffHeapImList<Integer> list = OffHeapImList
+      .of(ImListFns.listOf(1, 2), Codecs.INTEGER);
+    list.close();
+    assertThat(list.isClosed(), equalTo(true));
+    assertThrows(IllegalStateException.class, () -> list.get(0));
+  }
+
+  @Test
+  public void writeAndOpen() throws IOException {
+    Path path = Files.createTempFile("imlist", ".bin");
+    try {
+      ImList<String> strings = ImListFns.listOf("a", "", "\u00e9t\u00e9", "d");
+      OffHeapImList.write(strings, Codecs.STRING, path);
+      OffHeapImList<String> list = OffHeapImList.open(path, Codecs.STRING);
+      assertThat(list, equalTo(strings));
+      assertThat(list.get(2), equalTo("\u00e9t\u00e9"));
+
+      ImList<Long> longs = ImListFns.listOf(7L, 8L, 9L);
+      OffHeapImList.write(longs, Codecs.LONG, path);
+      assertThat(OffHeapImList.open(path, Codecs.LONG), equalTo(longs));
+      assertThrows(
+        IllegalArgumentException.class,
+        () -> OffHeapImList.open(path, Codecs.INTEGER)
+      );
+    } finally {
+      Files.delete(path);
+    }
+  }
+}
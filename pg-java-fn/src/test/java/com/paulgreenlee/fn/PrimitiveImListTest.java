@@ -0,0 +1,67 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+public class PrimitiveImListTest {
+
+  @Test
+  public void intListFns() {
+    IntImList list = IntImList.of(1, 2, 3);
+    assertThat(ImListFns.add(list, 4), equalTo(IntImList.of(1, 2, 3, 4)));
+    assertThat(
+      ImListFns.addFirst(0, list),
+      equalTo(IntImList.of(0, 1, 2, 3))
+    );
+    assertThat(
+      ImListFns.concat(list, IntImList.of(7, 8)),
+      equalTo(IntImList.of(1, 2, 3, 7, 8))
+    );
+    assertThat(ImListFns.first(list), equalTo(1));
+    assertThat(ImListFns.last(list), equalTo(3));
+    assertThat(ImListFns.dropFirst(list), equalTo(IntImList.of(2, 3)));
+    assertThat(ImListFns.dropLast(list), equalTo(IntImList.of(1, 2)));
+    assertThat(list.stream().sum(), equalTo(6));
+    assertThat(list.getInt(2), equalTo(3));
+  }
+
+  @Test
+  public void slicesKeepTheirBounds() {
+    IntImList list = ImListFns.dropFirst(IntImList.of(1, 2, 3, 4));
+    list = ImListFns.dropLast(list);
+    assertThat(list.toArray(), equalTo(new int[] { 2, 3 }));
+    assertThat(ImListFns.add(list, 9), equalTo(IntImList.of(2, 3, 9)));
+    assertThrows(
+      IndexOutOfBoundsException.class,
+      () -> IntImList.of(1).getInt(1)
+    );
+    assertThrows(
+      NoSuchElementException.class,
+      () -> ImListFns.first(IntImList.empty())
+    );
+  }
+
+  @Test
+  public void boxedView() {
+    LongImList list = LongImList.of(5L, 6L);
+    ImList<Long> boxed = list.boxed();
+    assertThat(boxed, equalTo(ImListFns.listOf(5L, 6L)));
+    assertThat(list.hashCode(), equalTo(Arrays.asList(5L, 6L).hashCode()));
+    assertThat(LongImList.from(boxed), equalTo(list));
+    assertThat(LongImList.from(ImListFns.listOf(5L, 6L)), equalTo(list));
+  }
+
+  @Test
+  public void doubleEquality() {
+    DoubleImList list = DoubleImList.of(1.5, Double.NaN);
+    assertThat(list, equalTo(DoubleImList.of(1.5, Double.NaN)));
+    assertThat(Double.isNaN(ImListFns.last(list)), equalTo(true));
+    assertThat(list.stream().count(), equalTo(2L));
+  }
+}
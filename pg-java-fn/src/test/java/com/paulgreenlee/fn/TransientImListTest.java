@@ -0,0 +1,67 @@
+package com.paulgreenlee.fn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TransientImListTest {
+
+  @Test
+  public void appendAndUpdate() {
+    List<Integer> expected = new ArrayList<>();
+    TransientImList<Integer> editor = ImListFns
+      .transientOf(ImListFns.<Integer>listOf());
+    for (int i = 0; i < 40_000; i++) {
+      editor.append(i);
+      expected.add(i);
+    }
+    for (int i = 0; i < 40_000; i += 7) {
+      editor.update(i, -i);
+      expected.set(i, -i);
+    }
+    assertThat(editor.size(), equalTo(40_000));
+    assertThat(editor.get(14), equalTo(-14));
+    ImVector<Integer> result = editor.persistent();
+    assertThat(result, equalTo(ImListFns.fromCollection(expected)));
+    assertThat(result.append(1).size(), equalTo(40_001));
+  }
+
+  @Test
+  public void sourceIsUnchanged() {
+    ImVector<Integer> source = ImVector.from(
+      ImListFns.fromCollection(range(5_000))
+    );
+    ImVector<Integer> edited = ImListFns
+      .transientOf(source)
+      .update(0, -1)
+      .update(4_000, -1)
+      .appendAll(ImListFns.listOf(5_000, 5_001))
+      .persistent();
+    assertThat(source, equalTo(ImListFns.fromCollection(range(5_000))));
+    assertThat(edited.get(4_000), equalTo(-1));
+    assertThat(edited.get(4_001), equalTo(4_001));
+    assertThat(edited.size(), equalTo(5_002));
+  }
+
+  @Test
+  public void unusableAfterPersistent() {
+    TransientImList<String> editor = ImListFns
+      .transientOf(ImListFns.listOf("A"));
+    editor.persistent();
+    assertThrows(IllegalStateException.class, () -> editor.append("B"));
+    assertThrows(IllegalStateException.class, editor::persistent);
+  }
+
+  private static List<Integer> range(int n) {
+    List<Integer> values = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      values.add(i);
+    }
+    return values;
+  }
+}
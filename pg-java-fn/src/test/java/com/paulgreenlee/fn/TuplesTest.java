@@ -3,6 +3,8 @@ package com.paulgreenlee.fn;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
+import java.util.Comparator;
+
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -83,6 +85,24 @@ public class TuplesTest {
       assertThat(a, equalTo(b));
     }
 
+    @Test
+    void compare() {
+      Comparator<Two<Long, String>> comparator = Tuples
+        .comparator(Comparator.naturalOrder(), Comparator.naturalOrder());
+      assertThat(
+        comparator.compare(Tuples.of(1L, "B"), Tuples.of(2L, "A")) < 0,
+        equalTo(true)
+      );
+      assertThat(
+        comparator.compare(Tuples.of(2L, "B"), Tuples.of(2L, "A")) > 0,
+        equalTo(true)
+      );
+      assertThat(
+        comparator.compare(Tuples.of(2L, "A"), Tuples.of(2L, "A")),
+        equalTo(0)
+      );
+    }
+
   }
 
   @Nested
@@ -106,6 +126,26 @@ public class TuplesTest {
       assertThat(a, equalTo(b));
     }
 
+    @Test
+    void compare() {
+      Comparator<Three<String, Integer, Boolean>> comparator = Tuples
+        .comparator(
+          Comparator.naturalOrder(),
+          Comparator.reverseOrder(),
+          Comparator.naturalOrder()
+        );
+      assertThat(
+        comparator
+          .compare(Tuples.of("A", 2, true), Tuples.of("A", 1, false)) < 0,
+        equalTo(true)
+      );
+      assertThat(
+        comparator
+          .compare(Tuples.of("A", 1, true), Tuples.of("A", 1, false)) > 0,
+        equalTo(true)
+      );
+    }
+
   }
 
 }